@@ -3,12 +3,14 @@ package com.medinsight.appointment;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Main application class for Appointment Service.
  */
 @SpringBootApplication
 @EnableDiscoveryClient
+@EnableScheduling
 public class AppointmentServiceApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,93 @@
+package com.medinsight.appointment.client;
+
+import com.medinsight.common.security.InternalIdentity;
+import com.medinsight.common.security.InternalIdentitySigner;
+import com.medinsight.common.transaction.AfterCommit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+@Component
+@Slf4j
+public class RecordClient {
+
+    /** How long a signed notification is accepted; it is sent at once. */
+    private static final Duration IDENTITY_VALIDITY = Duration.ofSeconds(30);
+
+    private final WebClient webClient;
+    private final DiscoveryClient discoveryClient;
+    private final InternalIdentitySigner signer;
+    private final String serviceId;
+    private final String applicationName;
+
+    /**
+     * @param signer    signs the calls as this service; without it nothing is sent
+     * @param serviceId Eureka service ID of medical-record-service
+     */
+    public RecordClient(WebClient.Builder webClientBuilder, DiscoveryClient discoveryClient,
+            ObjectProvider<InternalIdentitySigner> signer,
+            @Value("${medinsight.clients.record-service-id:medical-record-service}") String serviceId,
+            @Value("${spring.application.name}") String applicationName) {
+        this.webClient = webClientBuilder.build();
+        this.discoveryClient = discoveryClient;
+        this.signer = signer.getIfAvailable();
+        this.serviceId = serviceId;
+        this.applicationName = applicationName;
+        if (this.signer == null) {
+            log.warn("medinsight.identity.secret is not set: cached dossiers will not be evicted on history changes");
+        }
+    }
+
+    /**
+     * Tell every medical-record-service instance that a patient's appointments
+     * or prescriptions changed, so each drops its cached dossier. Sent after
+     * commit when called inside a transaction, so no instance re-reads
+     * uncommitted state.
+     */
+    public void notifyHistoryChanged(UUID patientId) {
+        if (signer != null) {
+            AfterCommit.run(() -> broadcast(patientId));
+        }
+    }
+
+    private void broadcast(UUID patientId) {
+        List<ServiceInstance> instances = discoveryClient.getInstances(serviceId);
+        if (instances.isEmpty()) {
+            log.warn("No {} instance to notify of the history change of patient {}", serviceId, patientId);
+            return;
+        }
+        InternalIdentity identity = InternalIdentity.service(applicationName, IDENTITY_VALIDITY);
+        String signature = signer.sign(identity, InternalIdentity.SERVICE_TOKEN);
+        for (ServiceInstance instance : instances) {
+            send(instance, patientId, headers -> identity.writeHeaders(headers::set, signature));
+        }
+    }
+
+    private void send(ServiceInstance instance, UUID patientId, Consumer<HttpHeaders> headers) {
+        URI uri = UriComponentsBuilder.fromUri(instance.getUri())
+                .path("/records/internal/patients/{patientId}/history-changed")
+                .buildAndExpand(patientId)
+                .toUri();
+        webClient.post()
+                .uri(uri)
+                .headers(headers)
+                .retrieve()
+                .bodyToMono(Void.class)
+                .subscribe(
+                        success -> log.debug("History change sent to {} for patient {}", uri.getAuthority(), patientId),
+                        error -> log.error("Failed to notify {} of the history change of patient {}: {}",
+                                uri.getAuthority(), patientId, error.getMessage()));
+    }
+}
@@ -0,0 +1,53 @@
+package com.medinsight.appointment.client;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Looks up user profiles in auth-service. Lookups never fail: a user that
+ * cannot be fetched yields null.
+ */
+@Component
+@Slf4j
+public class UserClient {
+
+    private final WebClient webClient;
+
+    public UserClient(WebClient.Builder webClientBuilder) {
+        this.webClient = webClientBuilder.baseUrl("http://auth-service:8081").build();
+    }
+
+    public String fetchUserName(UUID keycloakId) {
+        Map<String, Object> userData = fetchUserData(keycloakId);
+        if (userData != null && userData.get("firstName") != null && userData.get("lastName") != null) {
+            return userData.get("firstName") + " " + userData.get("lastName");
+        }
+        return null;
+    }
+
+    public String fetchUserEmail(UUID keycloakId) {
+        Map<String, Object> userData = fetchUserData(keycloakId);
+        if (userData != null && userData.get("email") != null) {
+            return (String) userData.get("email");
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> fetchUserData(UUID keycloakId) {
+        try {
+            return webClient.get()
+                    .uri("/api/internal/users/keycloak/{keycloakId}", keycloakId)
+                    .retrieve()
+                    .bodyToMono(Map.class)
+                    .block();
+        } catch (Exception e) {
+            log.warn("Failed to fetch user data for ID {}: {}", keycloakId, e.getMessage());
+        }
+        return null;
+    }
+}
@@ -0,0 +1,20 @@
+package com.medinsight.appointment.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the doctor day view.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "appointment.day-view")
+@Data
+public class DayViewProperties {
+
+    /** Upper bound on how stale a cached day can be; bookings evict it sooner. */
+    private Duration cacheTtl = Duration.ofSeconds(60);
+    private long cacheMaxEntries = 5_000;
+}
@@ -0,0 +1,37 @@
+package com.medinsight.appointment.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the prescription interaction check.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "prescription.interactions")
+@Data
+public class InteractionProperties {
+    private boolean enabled = true;
+
+    /**
+     * CSV dataset on disk ({@code drug_a,drug_b,severity,description}), reloaded
+     * when it changes. The bundled dataset is used when unset.
+     */
+    private String file;
+
+    /** How often the dataset file is checked for changes. */
+    private Duration reloadInterval = Duration.ofSeconds(30);
+
+    /** Prescriptions older than this are never considered active. */
+    private Duration activeLookback = Duration.ofDays(365);
+
+    /** Assumed treatment length when a prescription's duration cannot be parsed. */
+    private Duration defaultActiveDuration = Duration.ofDays(30);
+
+    private long cacheMaxPatients = 10_000;
+
+    /** Longest time a prescription issued on another instance can be missed by the check. */
+    private Duration cacheTtl = Duration.ofMinutes(1);
+}
@@ -0,0 +1,35 @@
+package com.medinsight.appointment.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for prescription PDF rendering.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "prescription.pdf")
+@Data
+public class PrescriptionPdfProperties {
+
+    /** Directory of rendered documents, named by the hash of their content. */
+    private String storageDir = System.getProperty("java.io.tmpdir") + "/medinsight/prescriptions";
+
+    /** Stored documents unused for this long are deleted. */
+    private Duration maxAge = Duration.ofDays(7);
+
+    /** Beyond this total, the least recently used documents are deleted. */
+    private DataSize maxStorageSize = DataSize.ofMegabytes(512);
+
+    private Duration cleanupInterval = Duration.ofHours(1);
+
+    /** Renders running at once; further requests wait up to {@code acquireTimeout}. */
+    private int maxConcurrentRenders = 16;
+    private Duration acquireTimeout = Duration.ofSeconds(10);
+
+    private String clinicName = "Clinique MedInsight";
+    private String clinicAddress = "Tunis, Tunisie";
+}
@@ -10,6 +10,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -17,6 +18,8 @@ import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import com.medinsight.appointment.entity.AppointmentStatus;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Map;
 import java.util.UUID;
 
@@ -90,6 +93,20 @@ public class AppointmentController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/scroll")
+    @PreAuthorize("hasAnyRole('PATIENT', 'MEDECIN', 'ADMIN', 'GESTIONNAIRE')")
+    @Operation(summary = "Scroll appointments with filters", description = "Keyset-paginated appointments, newest first; the total is only counted when requested")
+    public ResponseEntity<AppointmentSliceResponse> scrollAppointments(
+            @ModelAttribute AppointmentFilterRequest filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            Authentication authentication) {
+        log.info("Scrolling appointments with filters");
+        return ResponseEntity.ok(appointmentService.scrollAppointments(filter, cursor, size, includeTotal,
+                authentication));
+    }
+
     @GetMapping("/patient/{patientId}")
     @PreAuthorize("hasAnyRole('PATIENT', 'ADMIN', 'GESTIONNAIRE')")
     @Operation(summary = "Get patient appointments", description = "Get all appointments for a specific patient")
@@ -103,6 +120,35 @@ public class AppointmentController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/patient/{patientId}/scroll")
+    @PreAuthorize("hasAnyRole('PATIENT', 'ADMIN', 'GESTIONNAIRE')")
+    @Operation(summary = "Scroll patient appointments", description = "Keyset-paginated appointments of a patient, newest first")
+    public ResponseEntity<AppointmentSliceResponse> scrollPatientAppointments(
+            @PathVariable UUID patientId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            Authentication authentication) {
+        log.info("Scrolling appointments for patient: {}", patientId);
+        return ResponseEntity.ok(appointmentService.scrollPatientAppointments(patientId, cursor, size,
+                includeTotal, authentication));
+    }
+
+    @GetMapping("/internal/patients/{patientId}/history")
+    @PreAuthorize("hasAnyRole('PATIENT', 'MEDECIN', 'ADMIN', 'GESTIONNAIRE')")
+    @Operation(summary = "Get patient history", description = "Appointments and prescriptions of a patient in one call, used by the medical dossier")
+    public ResponseEntity<PatientHistoryResponse> getPatientHistory(
+            @PathVariable UUID patientId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(defaultValue = "false") boolean includeNames,
+            Authentication authentication) {
+        log.info("Fetching history for patient: {}", patientId);
+        PatientHistoryResponse response = appointmentService.getPatientHistory(patientId, since, limit,
+                includeNames, authentication);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/doctor/{doctorId}")
     @PreAuthorize("hasAnyRole('MEDECIN', 'ADMIN', 'GESTIONNAIRE')")
     @Operation(summary = "Get doctor appointments", description = "Get all appointments for a specific doctor")
@@ -116,6 +162,32 @@ public class AppointmentController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/doctor/{doctorId}/scroll")
+    @PreAuthorize("hasAnyRole('MEDECIN', 'ADMIN', 'GESTIONNAIRE')")
+    @Operation(summary = "Scroll doctor appointments", description = "Keyset-paginated appointments of a doctor, newest first")
+    public ResponseEntity<AppointmentSliceResponse> scrollDoctorAppointments(
+            @PathVariable UUID doctorId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            Authentication authentication) {
+        log.info("Scrolling appointments for doctor: {}", doctorId);
+        return ResponseEntity.ok(appointmentService.scrollDoctorAppointments(doctorId, cursor, size,
+                includeTotal, authentication));
+    }
+
+    @GetMapping("/doctor/{doctorId}/day")
+    @PreAuthorize("hasAnyRole('MEDECIN', 'ADMIN')")
+    @Operation(summary = "Get a doctor's day", description = "Time-ordered appointments of one day with patient names; defaults to today")
+    public ResponseEntity<DoctorDayViewResponse> getDoctorDay(
+            @PathVariable UUID doctorId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            Authentication authentication) {
+        LocalDate day = date != null ? date : LocalDate.now();
+        log.info("Fetching day view for doctor {} on {}", doctorId, day);
+        return ResponseEntity.ok(appointmentService.getDoctorDay(doctorId, day, authentication));
+    }
+
     @PutMapping("/{id}/complete")
     @PreAuthorize("hasRole('MEDECIN')")
     @Operation(summary = "Complete consultation", description = "Mark appointment as completed (doctors only)")
@@ -1,7 +1,9 @@
 package com.medinsight.appointment.controller;
 
+import com.medinsight.appointment.dto.PrescriptionBatchRequest;
 import com.medinsight.appointment.dto.PrescriptionRequest;
 import com.medinsight.appointment.dto.PrescriptionResponse;
+import com.medinsight.appointment.service.PrescriptionPdfService;
 import com.medinsight.appointment.service.PrescriptionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -9,13 +11,19 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.UUID;
@@ -29,6 +37,7 @@ import java.util.UUID;
 public class PrescriptionController {
 
     private final PrescriptionService prescriptionService;
+    private final PrescriptionPdfService prescriptionPdfService;
 
     @PostMapping("/appointments/{appointmentId}/prescriptions")
     @PreAuthorize("hasAnyRole('MEDECIN', 'ADMIN')")
@@ -41,6 +50,17 @@ public class PrescriptionController {
                 .body(prescriptionService.createPrescription(appointmentId, request, authentication));
     }
 
+    @PostMapping("/appointments/{appointmentId}/prescriptions/batch")
+    @PreAuthorize("hasAnyRole('MEDECIN', 'ADMIN')")
+    @Operation(summary = "Issue several prescriptions", description = "Issue all medications of a visit in one transaction with a single audit event")
+    public ResponseEntity<List<PrescriptionResponse>> createPrescriptions(
+            @PathVariable UUID appointmentId,
+            @Valid @RequestBody PrescriptionBatchRequest request,
+            Authentication authentication) {
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(prescriptionService.createPrescriptions(appointmentId, request, authentication));
+    }
+
     @GetMapping("/appointments/{appointmentId}/prescriptions")
     @PreAuthorize("hasAnyRole('PATIENT', 'MEDECIN', 'ADMIN')")
     @Operation(summary = "Get appointment prescriptions", description = "View prescriptions for a specific appointment")
@@ -50,6 +70,26 @@ public class PrescriptionController {
         return ResponseEntity.ok(prescriptionService.getPrescriptionsByAppointment(appointmentId, authentication));
     }
 
+    @GetMapping("/appointments/{appointmentId}/prescriptions/pdf")
+    @PreAuthorize("hasAnyRole('PATIENT', 'MEDECIN', 'ADMIN')")
+    @Operation(summary = "Download the prescription sheet", description = "PDF of all prescriptions of an appointment; supports If-None-Match")
+    public ResponseEntity<Resource> getPrescriptionPdf(
+            @PathVariable UUID appointmentId,
+            Authentication authentication,
+            WebRequest webRequest) {
+        PrescriptionPdfService.PrescriptionPdf pdf = prescriptionPdfService.prepare(appointmentId, authentication);
+        String eTag = "\"" + pdf.key() + "\"";
+        if (webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_PDF)
+                .eTag(eTag)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.inline().filename(pdf.fileName()).build().toString())
+                .body(new FileSystemResource(prescriptionPdfService.resolve(pdf)));
+    }
+
     @GetMapping("/prescriptions/patient/{patientId}")
     @PreAuthorize("hasAnyRole('PATIENT', 'MEDECIN', 'ADMIN')")
     @Operation(summary = "Get patient prescriptions", description = "View all prescriptions for a patient")
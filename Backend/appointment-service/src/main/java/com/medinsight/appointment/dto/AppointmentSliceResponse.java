@@ -0,0 +1,30 @@
+package com.medinsight.appointment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a keyset appointment listing, newest first.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AppointmentSliceResponse {
+
+    private List<AppointmentResponse> appointments;
+
+    /**
+     * Opaque cursor for the next (older) page; null on the last page.
+     */
+    private String nextCursor;
+
+    /**
+     * Number of matching appointments; only computed when requested.
+     */
+    private Long totalElements;
+}
@@ -0,0 +1,26 @@
+package com.medinsight.appointment.dto;
+
+import com.medinsight.appointment.entity.AppointmentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One line of a doctor's day view.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DoctorDayAppointment {
+
+    private UUID id;
+    private LocalDateTime appointmentDateTime;
+    private AppointmentStatus status;
+    private UUID patientId;
+    private String patientName;
+}
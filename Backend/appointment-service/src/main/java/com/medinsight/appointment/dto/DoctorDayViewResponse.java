@@ -0,0 +1,24 @@
+package com.medinsight.appointment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A doctor's appointments for one day, in time order.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DoctorDayViewResponse {
+
+    private UUID doctorId;
+    private LocalDate date;
+    private List<DoctorDayAppointment> appointments;
+}
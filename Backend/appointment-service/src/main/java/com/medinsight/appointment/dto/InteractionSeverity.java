@@ -0,0 +1,8 @@
+package com.medinsight.appointment.dto;
+
+public enum InteractionSeverity {
+    MINOR,
+    MODERATE,
+    MAJOR,
+    CONTRAINDICATED
+}
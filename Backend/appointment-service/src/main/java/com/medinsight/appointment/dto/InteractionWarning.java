@@ -0,0 +1,24 @@
+package com.medinsight.appointment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InteractionWarning {
+    private String medication;
+    private String interactsWith;
+
+    /**
+     * Active prescription the new medication interacts with.
+     */
+    private UUID interactingPrescriptionId;
+    private InteractionSeverity severity;
+    private String description;
+}
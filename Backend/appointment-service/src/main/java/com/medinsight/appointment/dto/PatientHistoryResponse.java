@@ -0,0 +1,24 @@
+package com.medinsight.appointment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO combining a patient's appointments and prescriptions, used by the
+ * medical-record-service dossier.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PatientHistoryResponse {
+
+    private UUID patientId;
+    private List<AppointmentResponse> appointments;
+    private List<PrescriptionResponse> prescriptions;
+}
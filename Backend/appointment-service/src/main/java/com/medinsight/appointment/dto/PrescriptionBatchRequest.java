@@ -0,0 +1,23 @@
+package com.medinsight.appointment.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PrescriptionBatchRequest {
+
+    @NotEmpty(message = "At least one prescription is required")
+    @Size(max = 20, message = "At most 20 prescriptions per batch")
+    @Valid
+    private List<PrescriptionItemRequest> prescriptions;
+}
@@ -0,0 +1,27 @@
+package com.medinsight.appointment.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One medication of a batch; the patient comes from the appointment.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PrescriptionItemRequest {
+
+    @NotBlank(message = "Medication name is required")
+    private String medicationName;
+
+    @NotBlank(message = "Dosage is required")
+    private String dosage;
+
+    private String duration;
+
+    private String instructions;
+}
@@ -6,6 +6,8 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 @Data
@@ -22,4 +24,10 @@ public class PrescriptionResponse {
     private String duration;
     private String instructions;
     private LocalDateTime issuedAt;
+
+    /**
+     * Interactions with the patient's active prescriptions, set when the prescription is issued.
+     */
+    @Builder.Default
+    private List<InteractionWarning> warnings = new ArrayList<>();
 }
@@ -13,10 +13,13 @@ import java.util.UUID;
  */
 @Entity
 @Table(name = "appointments", indexes = {
-        @Index(name = "idx_appointment_patient", columnList = "patient_id"),
-        @Index(name = "idx_appointment_doctor", columnList = "doctor_id"),
-        @Index(name = "idx_appointment_datetime", columnList = "appointment_date_time"),
-        @Index(name = "idx_appointment_status", columnList = "status")
+        // Composite indexes lead with the equality filter and end with the sort
+        // key, so a filtered listing reads its page straight off the index.
+        // Each one also serves the lookups on its leading column alone.
+        @Index(name = "idx_appointment_patient_datetime", columnList = "patient_id, appointment_date_time, id"),
+        @Index(name = "idx_appointment_doctor_datetime", columnList = "doctor_id, appointment_date_time, id"),
+        @Index(name = "idx_appointment_status_datetime", columnList = "status, appointment_date_time, id"),
+        @Index(name = "idx_appointment_datetime_id", columnList = "appointment_date_time, id")
 })
 @Data
 @NoArgsConstructor
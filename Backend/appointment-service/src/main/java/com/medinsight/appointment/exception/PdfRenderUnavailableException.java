@@ -0,0 +1,11 @@
+package com.medinsight.appointment.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class PdfRenderUnavailableException extends RuntimeException {
+    public PdfRenderUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -5,6 +5,7 @@ import com.medinsight.appointment.entity.AppointmentStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -17,41 +18,42 @@ import java.util.UUID;
  * Repository for Appointment entity operations.
  */
 @Repository
-public interface AppointmentRepository extends JpaRepository<Appointment, UUID> {
+public interface AppointmentRepository extends JpaRepository<Appointment, UUID>,
+        JpaSpecificationExecutor<Appointment>, AppointmentRepositoryCustom {
 
     Page<Appointment> findByPatientId(UUID patientId, Pageable pageable);
 
     Page<Appointment> findByDoctorId(UUID doctorId, Pageable pageable);
 
-    Page<Appointment> findByStatus(AppointmentStatus status, Pageable pageable);
-
-    Page<Appointment> findByPatientIdAndStatus(UUID patientId, AppointmentStatus status, Pageable pageable);
-
-    Page<Appointment> findByDoctorIdAndStatus(UUID doctorId, AppointmentStatus status, Pageable pageable);
-
-    @Query("SELECT a FROM Appointment a WHERE a.appointmentDateTime BETWEEN :startDate AND :endDate")
-    Page<Appointment> findByDateRange(@Param("startDate") LocalDateTime startDate,
-                                       @Param("endDate") LocalDateTime endDate,
-                                       Pageable pageable);
-
-    @Query("SELECT a FROM Appointment a WHERE a.patientId = :patientId " +
-           "AND a.appointmentDateTime BETWEEN :startDate AND :endDate")
-    Page<Appointment> findByPatientIdAndDateRange(@Param("patientId") UUID patientId,
-                                                    @Param("startDate") LocalDateTime startDate,
-                                                    @Param("endDate") LocalDateTime endDate,
-                                                    Pageable pageable);
-
-    @Query("SELECT a FROM Appointment a WHERE a.doctorId = :doctorId " +
-           "AND a.appointmentDateTime BETWEEN :startDate AND :endDate")
-    Page<Appointment> findByDoctorIdAndDateRange(@Param("doctorId") UUID doctorId,
-                                                   @Param("startDate") LocalDateTime startDate,
-                                                   @Param("endDate") LocalDateTime endDate,
-                                                   Pageable pageable);
-
     boolean existsByDoctorIdAndAppointmentDateTimeBetween(UUID doctorId,
                                                             LocalDateTime start,
                                                             LocalDateTime end);
 
+    /**
+     * Patient history in one round trip: the most recent {@code limit} appointments
+     * since the given date, each joined with its prescriptions. Rows are
+     * {@code [Appointment, Prescription]}; the prescription is null for appointments without one.
+     */
+    @Query("SELECT a, p FROM Appointment a LEFT JOIN Prescription p ON p.appointmentId = a.id " +
+           "WHERE a.id IN (SELECT r.id FROM Appointment r WHERE r.patientId = :patientId " +
+           "AND r.appointmentDateTime >= :since ORDER BY r.appointmentDateTime DESC LIMIT :limit) " +
+           "ORDER BY a.appointmentDateTime DESC, a.id, p.issuedAt")
+    List<Object[]> findPatientHistory(@Param("patientId") UUID patientId,
+                                      @Param("since") LocalDateTime since,
+                                      @Param("limit") int limit);
+
+    /**
+     * A doctor's appointments in [dayStart, dayEnd), in time order, as
+     * lightweight rows read from the (doctor_id, appointment_date_time) index.
+     */
+    @Query("SELECT new com.medinsight.appointment.repository.DoctorDayRow(" +
+           "a.id, a.appointmentDateTime, a.status, a.patientId) FROM Appointment a " +
+           "WHERE a.doctorId = :doctorId AND a.appointmentDateTime >= :dayStart AND a.appointmentDateTime < :dayEnd " +
+           "ORDER BY a.appointmentDateTime, a.id")
+    List<DoctorDayRow> findDoctorDay(@Param("doctorId") UUID doctorId,
+                                     @Param("dayStart") LocalDateTime dayStart,
+                                     @Param("dayEnd") LocalDateTime dayEnd);
+
     List<Appointment> findByDoctorIdAndAppointmentDateTimeBetweenAndStatusNot(UUID doctorId,
                                                                                 LocalDateTime start,
                                                                                 LocalDateTime end,
@@ -0,0 +1,22 @@
+package com.medinsight.appointment.repository;
+
+import com.medinsight.appointment.entity.Appointment;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Queries Spring Data cannot derive from a {@link Specification} alone.
+ */
+public interface AppointmentRepositoryCustom {
+
+    /**
+     * Keyset page of the appointments matching {@code spec}: the {@code size}
+     * rows strictly before (beforeTime, beforeId) in (appointmentDateTime DESC,
+     * id DESC) order. No count query is run; the returned slice knows whether a
+     * next page exists.
+     */
+    Slice<Appointment> scroll(Specification<Appointment> spec, LocalDateTime beforeTime, UUID beforeId, int size);
+}
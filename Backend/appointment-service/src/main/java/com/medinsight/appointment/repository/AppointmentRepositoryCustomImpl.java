@@ -0,0 +1,49 @@
+package com.medinsight.appointment.repository;
+
+import com.medinsight.appointment.entity.Appointment;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+class AppointmentRepositoryCustomImpl implements AppointmentRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Slice<Appointment> scroll(Specification<Appointment> spec, LocalDateTime beforeTime, UUID beforeId,
+            int size) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Appointment> query = cb.createQuery(Appointment.class);
+        Root<Appointment> root = query.from(Appointment.class);
+        Path<LocalDateTime> time = root.get("appointmentDateTime");
+        Path<UUID> id = root.get("id");
+
+        Predicate beforeCursor = cb.or(
+                cb.lessThan(time, beforeTime),
+                cb.and(cb.equal(time, beforeTime), cb.lessThan(id, beforeId)));
+        Predicate filter = spec.toPredicate(root, query, cb);
+        query.select(root)
+                .where(filter != null ? cb.and(filter, beforeCursor) : beforeCursor)
+                .orderBy(cb.desc(time), cb.desc(id));
+
+        // One extra row tells whether there is a next page
+        List<Appointment> rows = entityManager.createQuery(query)
+                .setMaxResults(size + 1)
+                .getResultList();
+        boolean hasNext = rows.size() > size;
+        return new SliceImpl<>(hasNext ? rows.subList(0, size) : rows, PageRequest.of(0, size), hasNext);
+    }
+}
@@ -0,0 +1,57 @@
+package com.medinsight.appointment.repository;
+
+import com.medinsight.appointment.entity.Appointment;
+import com.medinsight.appointment.entity.AppointmentStatus;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Composable appointment filters. Every criterion that is set becomes a
+ * predicate of the same query, so the database can pick the most selective
+ * composite index for the whole combination.
+ */
+public final class AppointmentSpecifications {
+
+    private AppointmentSpecifications() {
+    }
+
+    /**
+     * Appointments matching every non-null criterion; date bounds are inclusive
+     * and may be given alone.
+     */
+    public static Specification<Appointment> matching(UUID patientId, UUID doctorId, AppointmentStatus status,
+            LocalDateTime from, LocalDateTime to) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>(5);
+            if (patientId != null) {
+                predicates.add(cb.equal(root.get("patientId"), patientId));
+            }
+            if (doctorId != null) {
+                predicates.add(cb.equal(root.get("doctorId"), doctorId));
+            }
+            if (status != null) {
+                predicates.add(cb.equal(root.get("status"), status));
+            }
+            if (from != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("appointmentDateTime"), from));
+            }
+            if (to != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("appointmentDateTime"), to));
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    public static Specification<Appointment> forPatient(UUID patientId) {
+        return matching(patientId, null, null, null, null);
+    }
+
+    public static Specification<Appointment> forDoctor(UUID doctorId) {
+        return matching(null, doctorId, null, null, null);
+    }
+}
@@ -0,0 +1,13 @@
+package com.medinsight.appointment.repository;
+
+import com.medinsight.appointment.entity.AppointmentStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * The columns of an appointment shown in a doctor's day view, selected
+ * without loading the entity and its free-text fields.
+ */
+public record DoctorDayRow(UUID id, LocalDateTime appointmentDateTime, AppointmentStatus status, UUID patientId) {
+}
@@ -6,6 +6,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -17,4 +18,6 @@ public interface PrescriptionRepository extends JpaRepository<Prescription, UUID
     Page<Prescription> findByPatientId(UUID patientId, Pageable pageable);
     
     Page<Prescription> findByDoctorId(UUID doctorId, Pageable pageable);
+
+    List<Prescription> findByPatientIdAndIssuedAtAfter(UUID patientId, LocalDateTime since);
 }
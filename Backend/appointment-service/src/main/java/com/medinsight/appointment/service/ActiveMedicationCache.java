@@ -0,0 +1,124 @@
+package com.medinsight.appointment.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.medinsight.appointment.config.InteractionProperties;
+import com.medinsight.appointment.entity.Prescription;
+import com.medinsight.appointment.repository.PrescriptionRepository;
+import com.medinsight.common.transaction.AfterCommit;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Per-patient list of recent prescriptions with the date each stops being
+ * active, so the interaction check does not query the database on every issue.
+ * <p>
+ * Prescriptions are never modified or deleted, so an entry is only ever
+ * appended to. Each instance only learns of the prescriptions issued through
+ * it: one issued on another instance is missing here until the entry expires
+ * after {@code prescription.interactions.cache-ttl}, and an interaction with
+ * it goes unreported in the meantime.
+ */
+@Component
+public class ActiveMedicationCache {
+
+    /** At most four digits, so that an absurd amount reads as unknown rather than overflowing. */
+    private static final Pattern DURATION = Pattern.compile(
+            "(?<!\\d)(\\d{1,4})\\s*(jours?|j|days?|d|semaines?|sem|weeks?|w|mois|months?|m|ans?|years?|y)\\b");
+
+    public record ActiveMedication(UUID prescriptionId, String medicationName, LocalDateTime activeUntil) {
+    }
+
+    private final PrescriptionRepository prescriptionRepository;
+    private final InteractionProperties properties;
+    private final Cache<UUID, List<ActiveMedication>> cache;
+
+    public ActiveMedicationCache(PrescriptionRepository prescriptionRepository, InteractionProperties properties,
+            MeterRegistry meterRegistry) {
+        this.prescriptionRepository = prescriptionRepository;
+        this.properties = properties;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getCacheMaxPatients())
+                .expireAfterWrite(properties.getCacheTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "active-medications");
+    }
+
+    /**
+     * Prescriptions of the patient still in effect now.
+     */
+    public List<ActiveMedication> getActive(UUID patientId) {
+        LocalDateTime now = LocalDateTime.now();
+        return cache.get(patientId, this::load).stream()
+                .filter(medication -> medication.activeUntil().isAfter(now))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Add a newly issued prescription to the cached list once the transaction
+     * commits. A patient not cached yet is left to the next load.
+     */
+    public void add(Prescription prescription) {
+        ActiveMedication medication = toActiveMedication(prescription);
+        AfterCommit.run(() -> cache.asMap().computeIfPresent(prescription.getPatientId(), (patientId, list) -> {
+            List<ActiveMedication> updated = new ArrayList<>(list);
+            updated.add(medication);
+            return List.copyOf(updated);
+        }));
+    }
+
+    private List<ActiveMedication> load(UUID patientId) {
+        LocalDateTime since = LocalDateTime.now().minus(properties.getActiveLookback());
+        return prescriptionRepository.findByPatientIdAndIssuedAtAfter(patientId, since).stream()
+                .map(this::toActiveMedication)
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    private ActiveMedication toActiveMedication(Prescription prescription) {
+        LocalDateTime issuedAt = prescription.getIssuedAt() != null ? prescription.getIssuedAt() : LocalDateTime.now();
+        Duration length = parseDuration(prescription.getDuration());
+        return new ActiveMedication(prescription.getId(), prescription.getMedicationName(),
+                issuedAt.plus(length != null ? length : properties.getDefaultActiveDuration()));
+    }
+
+    /**
+     * Treatment length from text such as "7 jours", "2 weeks" or "3 mois"; null if not understood.
+     */
+    static Duration parseDuration(String duration) {
+        if (duration == null) {
+            return null;
+        }
+        String text = Normalizer.normalize(duration, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}+", "")
+                .toLowerCase(Locale.ROOT);
+        Matcher matcher = DURATION.matcher(text);
+        if (!matcher.find()) {
+            return null;
+        }
+        long amount = Long.parseLong(matcher.group(1));
+        String unit = matcher.group(2);
+        if (unit.startsWith("j") || unit.startsWith("d")) {
+            return Duration.ofDays(amount);
+        }
+        if (unit.startsWith("s") || unit.startsWith("w")) {
+            return Duration.ofDays(amount * 7);
+        }
+        if (unit.startsWith("m")) {
+            return Duration.ofDays(amount * 30);
+        }
+        return Duration.ofDays(amount * 365);
+    }
+}
@@ -0,0 +1,49 @@
+package com.medinsight.appointment.service;
+
+import com.medinsight.appointment.entity.Appointment;
+import com.medinsight.appointment.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Keyset position in an appointment listing: the (appointmentDateTime, id) of
+ * the last appointment returned. Clients only see it as an opaque string.
+ */
+record AppointmentCursor(LocalDateTime appointmentDateTime, UUID id) {
+
+    /**
+     * Position after the latest possible appointment, used for the first page.
+     */
+    static final AppointmentCursor FIRST_PAGE =
+            new AppointmentCursor(LocalDateTime.of(9999, 12, 31, 0, 0), new UUID(-1L, -1L));
+
+    static AppointmentCursor after(Appointment appointment) {
+        return new AppointmentCursor(appointment.getAppointmentDateTime(), appointment.getId());
+    }
+
+    String encode() {
+        String raw = appointmentDateTime + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static AppointmentCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return FIRST_PAGE;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            if (separator < 0) {
+                throw new InvalidCursorException("Invalid appointments cursor");
+            }
+            return new AppointmentCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    UUID.fromString(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException("Invalid appointments cursor");
+        }
+    }
+}
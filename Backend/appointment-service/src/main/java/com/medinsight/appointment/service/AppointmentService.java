@@ -1,25 +1,35 @@
 package com.medinsight.appointment.service;
 
-import com.medinsight.appointment.client.AuditClient;
-import com.medinsight.appointment.client.MailClient;
+import com.medinsight.appointment.client.RecordClient;
+import com.medinsight.appointment.client.UserClient;
 import com.medinsight.appointment.dto.*;
 import com.medinsight.appointment.entity.Appointment;
 import com.medinsight.appointment.entity.AppointmentStatus;
+import com.medinsight.appointment.entity.Prescription;
 import com.medinsight.appointment.exception.AppointmentConflictException;
 import com.medinsight.appointment.exception.AppointmentNotFoundException;
 import com.medinsight.appointment.exception.UnauthorizedAccessException;
 import com.medinsight.appointment.repository.AppointmentRepository;
+import com.medinsight.appointment.repository.AppointmentSpecifications;
+import com.medinsight.common.client.AuditClient;
+import com.medinsight.common.client.MailClient;
+import com.medinsight.common.security.MedInsightPrincipal;
+import com.medinsight.common.security.Role;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -32,11 +42,17 @@ import java.util.UUID;
 @Slf4j
 public class AppointmentService {
 
+    private static final int MAX_HISTORY_LIMIT = 500;
+    private static final LocalDateTime HISTORY_EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final int MAX_SLICE_SIZE = 100;
+
     private final AppointmentRepository appointmentRepository;
-    private final org.springframework.web.reactive.function.client.WebClient.Builder webClientBuilder;
+    private final UserClient userClient;
     private final AuditClient auditClient;
     private final MailClient mailClient;
+    private final RecordClient recordClient;
     private final AppointmentSlotService appointmentSlotService;
+    private final DoctorDayViewCache doctorDayViewCache;
 
     /**
      * Create a new appointment.
@@ -47,7 +63,7 @@ public class AppointmentService {
 
         // Validate patient can only create appointments for themselves
         UUID authenticatedUserId = getUserIdFromAuth(authentication);
-        if (!hasRole(authentication, "ADMIN") && !request.getPatientId().equals(authenticatedUserId)) {
+        if (!hasRole(authentication, Role.ADMIN) && !request.getPatientId().equals(authenticatedUserId)) {
             throw new UnauthorizedAccessException("Patients can only create appointments for themselves");
         }
 
@@ -92,11 +108,13 @@ public class AppointmentService {
 
         appointment = appointmentRepository.save(appointment);
         log.info("Created appointment with ID: {}", appointment.getId());
+        recordClient.notifyHistoryChanged(appointment.getPatientId());
+        doctorDayViewCache.evictDoctor(appointment.getDoctorId());
 
         // Fetch names and emails for the notification
-        String patientName = fetchUserName(request.getPatientId());
-        String doctorName = fetchUserName(request.getDoctorId());
-        String patientEmail = fetchUserEmail(request.getPatientId());
+        String patientName = userClient.fetchUserName(request.getPatientId());
+        String doctorName = userClient.fetchUserName(request.getDoctorId());
+        String patientEmail = userClient.fetchUserEmail(request.getPatientId());
 
         // Audit Log
         auditClient.log(
@@ -165,6 +183,8 @@ public class AppointmentService {
 
         appointment = appointmentRepository.save(appointment);
         log.info("Updated appointment with ID: {}", id);
+        recordClient.notifyHistoryChanged(appointment.getPatientId());
+        doctorDayViewCache.evictDoctor(appointment.getDoctorId());
 
         // Audit Log
         auditClient.log(
@@ -189,12 +209,14 @@ public class AppointmentService {
 
         // Only admin or the patient can delete
         UUID authenticatedUserId = getUserIdFromAuth(authentication);
-        if (!hasRole(authentication, "ADMIN") && !appointment.getPatientId().equals(authenticatedUserId)) {
+        if (!hasRole(authentication, Role.ADMIN) && !appointment.getPatientId().equals(authenticatedUserId)) {
             throw new UnauthorizedAccessException("You do not have permission to delete this appointment");
         }
 
         appointmentRepository.delete(appointment);
         log.info("Deleted appointment with ID: {}", id);
+        recordClient.notifyHistoryChanged(appointment.getPatientId());
+        doctorDayViewCache.evictDoctor(appointment.getDoctorId());
 
         // Audit Log
         auditClient.log(
@@ -213,26 +235,21 @@ public class AppointmentService {
     @Transactional(readOnly = true)
     public Page<AppointmentResponse> getAppointments(AppointmentFilterRequest filter, Pageable pageable,
             Authentication authentication) {
-        UUID authenticatedUserId = getUserIdFromAuth(authentication);
-        boolean isAdmin = hasRole(authentication, "ADMIN");
-        boolean isDoctor = hasRole(authentication, "MEDECIN");
-
-        Page<Appointment> appointments;
-
-        if (isAdmin) {
-            // Admin can see all appointments with filters
-            appointments = applyFilters(filter, pageable);
-        } else if (isDoctor) {
-            // Doctor can only see their own appointments
-            filter.setDoctorId(authenticatedUserId);
-            appointments = applyFilters(filter, pageable);
-        } else {
-            // Patient can only see their own appointments
-            filter.setPatientId(authenticatedUserId);
-            appointments = applyFilters(filter, pageable);
-        }
+        scopeFilter(filter, authentication);
+        return appointmentRepository.findAll(toSpecification(filter), pageable).map(this::toResponse);
+    }
 
-        return appointments.map(this::toResponse);
+    /**
+     * Keyset variant of {@link #getAppointments}: newest first, without a count
+     * query unless {@code includeTotal} is set.
+     */
+    @Transactional(readOnly = true)
+    public AppointmentSliceResponse scrollAppointments(AppointmentFilterRequest filter, String cursor, int size,
+            boolean includeTotal, Authentication authentication) {
+        scopeFilter(filter, authentication);
+        Specification<Appointment> spec = toSpecification(filter);
+        Long total = includeTotal ? appointmentRepository.count(spec) : null;
+        return toSliceResponse(scroll(spec, cursor, size), total);
     }
 
     /**
@@ -241,66 +258,179 @@ public class AppointmentService {
     @Transactional(readOnly = true)
     public Page<AppointmentResponse> getPatientAppointments(UUID patientId, Pageable pageable,
             Authentication authentication) {
-        UUID authenticatedUserId = getUserIdFromAuth(authentication);
-
-        if (!hasRole(authentication, "ADMIN") && !patientId.equals(authenticatedUserId)) {
-            throw new UnauthorizedAccessException("You can only view your own appointments");
-        }
+        validatePatientListAccess(patientId, authentication);
 
         Page<Appointment> appointments = appointmentRepository.findByPatientId(patientId, pageable);
         return appointments.map(this::toResponse);
     }
 
+    @Transactional(readOnly = true)
+    public AppointmentSliceResponse scrollPatientAppointments(UUID patientId, String cursor, int size,
+            boolean includeTotal, Authentication authentication) {
+        validatePatientListAccess(patientId, authentication);
+
+        Specification<Appointment> spec = AppointmentSpecifications.forPatient(patientId);
+        Long total = includeTotal ? appointmentRepository.count(spec) : null;
+        return toSliceResponse(scroll(spec, cursor, size), total);
+    }
+
     /**
      * Get appointments for a specific doctor.
      */
     @Transactional(readOnly = true)
     public Page<AppointmentResponse> getDoctorAppointments(UUID doctorId, Pageable pageable,
             Authentication authentication) {
+        validateDoctorListAccess(doctorId, authentication);
+
+        Page<Appointment> appointments = appointmentRepository.findByDoctorId(doctorId, pageable);
+        return appointments.map(this::toResponse);
+    }
+
+    @Transactional(readOnly = true)
+    public AppointmentSliceResponse scrollDoctorAppointments(UUID doctorId, String cursor, int size,
+            boolean includeTotal, Authentication authentication) {
+        validateDoctorListAccess(doctorId, authentication);
+
+        Specification<Appointment> spec = AppointmentSpecifications.forDoctor(doctorId);
+        Long total = includeTotal ? appointmentRepository.count(spec) : null;
+        return toSliceResponse(scroll(spec, cursor, size), total);
+    }
+
+    /**
+     * A doctor's appointments for one day, read as projections and served from
+     * a short-lived cache. Patient names are resolved once per distinct patient
+     * when the day is loaded.
+     */
+    @Transactional(readOnly = true)
+    public DoctorDayViewResponse getDoctorDay(UUID doctorId, LocalDate date, Authentication authentication) {
+        validateDoctorListAccess(doctorId, authentication);
+
+        return doctorDayViewCache.get(doctorId, date, () -> {
+            Map<UUID, String> names = new HashMap<>();
+            List<DoctorDayAppointment> appointments = appointmentRepository
+                    .findDoctorDay(doctorId, date.atStartOfDay(), date.plusDays(1).atStartOfDay()).stream()
+                    .map(row -> DoctorDayAppointment.builder()
+                            .id(row.id())
+                            .appointmentDateTime(row.appointmentDateTime())
+                            .status(row.status())
+                            .patientId(row.patientId())
+                            .patientName(cachedUserName(names, row.patientId()))
+                            .build())
+                    .toList();
+            return DoctorDayViewResponse.builder()
+                    .doctorId(doctorId)
+                    .date(date)
+                    .appointments(appointments)
+                    .build();
+        });
+    }
+
+    /**
+     * Get a patient's appointments and their prescriptions in a single query.
+     * Names are only resolved against auth-service when requested, and then
+     * once per distinct user rather than twice per appointment.
+     */
+    @Transactional(readOnly = true)
+    public PatientHistoryResponse getPatientHistory(UUID patientId, LocalDateTime since, int limit,
+            boolean includeNames, Authentication authentication) {
         UUID authenticatedUserId = getUserIdFromAuth(authentication);
 
-        if (!hasRole(authentication, "ADMIN") && !hasRole(authentication, "MEDECIN")) {
-            throw new UnauthorizedAccessException("Only doctors and admins can view doctor appointments");
+        if (!hasRole(authentication, Role.ADMIN) && !hasRole(authentication, Role.MEDECIN)
+                && !hasRole(authentication, Role.GESTIONNAIRE) && !patientId.equals(authenticatedUserId)) {
+            throw new UnauthorizedAccessException("You can only view your own history");
         }
 
-        if (!hasRole(authentication, "ADMIN") && !doctorId.equals(authenticatedUserId)) {
-            throw new UnauthorizedAccessException("You can only view your own appointments");
+        int boundedLimit = Math.max(1, Math.min(limit, MAX_HISTORY_LIMIT));
+        List<Object[]> rows = appointmentRepository.findPatientHistory(
+                patientId, since != null ? since : HISTORY_EPOCH, boundedLimit);
+
+        Map<UUID, String> names = new HashMap<>();
+        Map<UUID, AppointmentResponse> appointments = new LinkedHashMap<>();
+        List<PrescriptionResponse> prescriptions = new ArrayList<>();
+
+        for (Object[] row : rows) {
+            Appointment appointment = (Appointment) row[0];
+            appointments.computeIfAbsent(appointment.getId(), id -> includeNames
+                    ? toResponse(appointment, cachedUserName(names, appointment.getPatientId()),
+                            cachedUserName(names, appointment.getDoctorId()))
+                    : toResponse(appointment, null, null));
+            if (row[1] instanceof Prescription prescription) {
+                prescriptions.add(toPrescriptionResponse(prescription));
+            }
         }
 
-        Page<Appointment> appointments = appointmentRepository.findByDoctorId(doctorId, pageable);
-        return appointments.map(this::toResponse);
+        return PatientHistoryResponse.builder()
+                .patientId(patientId)
+                .appointments(new ArrayList<>(appointments.values()))
+                .prescriptions(prescriptions)
+                .build();
     }
 
     // Helper methods
 
-    private Page<Appointment> applyFilters(AppointmentFilterRequest filter, Pageable pageable) {
-        if (filter.getPatientId() != null && filter.getStatus() != null) {
-            return appointmentRepository.findByPatientIdAndStatus(filter.getPatientId(), filter.getStatus(), pageable);
-        } else if (filter.getDoctorId() != null && filter.getStatus() != null) {
-            return appointmentRepository.findByDoctorIdAndStatus(filter.getDoctorId(), filter.getStatus(), pageable);
-        } else if (filter.getPatientId() != null && filter.getStartDate() != null && filter.getEndDate() != null) {
-            return appointmentRepository.findByPatientIdAndDateRange(filter.getPatientId(), filter.getStartDate(),
-                    filter.getEndDate(), pageable);
-        } else if (filter.getDoctorId() != null && filter.getStartDate() != null && filter.getEndDate() != null) {
-            return appointmentRepository.findByDoctorIdAndDateRange(filter.getDoctorId(), filter.getStartDate(),
-                    filter.getEndDate(), pageable);
-        } else if (filter.getPatientId() != null) {
-            return appointmentRepository.findByPatientId(filter.getPatientId(), pageable);
-        } else if (filter.getDoctorId() != null) {
-            return appointmentRepository.findByDoctorId(filter.getDoctorId(), pageable);
-        } else if (filter.getStatus() != null) {
-            return appointmentRepository.findByStatus(filter.getStatus(), pageable);
-        } else if (filter.getStartDate() != null && filter.getEndDate() != null) {
-            return appointmentRepository.findByDateRange(filter.getStartDate(), filter.getEndDate(), pageable);
+    /**
+     * Restrict a listing filter to what the caller may see: admins see
+     * everything, doctors their own appointments, patients their own.
+     */
+    private void scopeFilter(AppointmentFilterRequest filter, Authentication authentication) {
+        UUID authenticatedUserId = getUserIdFromAuth(authentication);
+        if (hasRole(authentication, Role.ADMIN)) {
+            return;
+        }
+        if (hasRole(authentication, Role.MEDECIN)) {
+            filter.setDoctorId(authenticatedUserId);
         } else {
-            return appointmentRepository.findAll(pageable);
+            filter.setPatientId(authenticatedUserId);
+        }
+    }
+
+    private void validatePatientListAccess(UUID patientId, Authentication authentication) {
+        UUID authenticatedUserId = getUserIdFromAuth(authentication);
+
+        if (!hasRole(authentication, Role.ADMIN) && !patientId.equals(authenticatedUserId)) {
+            throw new UnauthorizedAccessException("You can only view your own appointments");
+        }
+    }
+
+    private void validateDoctorListAccess(UUID doctorId, Authentication authentication) {
+        UUID authenticatedUserId = getUserIdFromAuth(authentication);
+
+        if (!hasRole(authentication, Role.ADMIN) && !hasRole(authentication, Role.MEDECIN)) {
+            throw new UnauthorizedAccessException("Only doctors and admins can view doctor appointments");
         }
+
+        if (!hasRole(authentication, Role.ADMIN) && !doctorId.equals(authenticatedUserId)) {
+            throw new UnauthorizedAccessException("You can only view your own appointments");
+        }
+    }
+
+    private AppointmentSliceResponse toSliceResponse(Slice<Appointment> slice, Long total) {
+        List<Appointment> content = slice.getContent();
+        String nextCursor = slice.hasNext() && !content.isEmpty()
+                ? AppointmentCursor.after(content.get(content.size() - 1)).encode()
+                : null;
+        return AppointmentSliceResponse.builder()
+                .appointments(content.stream().map(this::toResponse).toList())
+                .nextCursor(nextCursor)
+                .totalElements(total)
+                .build();
+    }
+
+    private static Specification<Appointment> toSpecification(AppointmentFilterRequest filter) {
+        return AppointmentSpecifications.matching(filter.getPatientId(), filter.getDoctorId(), filter.getStatus(),
+                filter.getStartDate(), filter.getEndDate());
+    }
+
+    private Slice<Appointment> scroll(Specification<Appointment> spec, String cursor, int size) {
+        AppointmentCursor position = AppointmentCursor.decode(cursor);
+        return appointmentRepository.scroll(spec, position.appointmentDateTime(), position.id(),
+                Math.max(1, Math.min(size, MAX_SLICE_SIZE)));
     }
 
     private void validateAccess(Appointment appointment, Authentication authentication) {
         UUID authenticatedUserId = getUserIdFromAuth(authentication);
 
-        if (hasRole(authentication, "ADMIN")) {
+        if (hasRole(authentication, Role.ADMIN)) {
             return; // Admin can access all
         }
 
@@ -308,7 +438,7 @@ public class AppointmentService {
             return; // Patient can access their own
         }
 
-        if (hasRole(authentication, "MEDECIN") && appointment.getDoctorId().equals(authenticatedUserId)) {
+        if (hasRole(authentication, Role.MEDECIN) && appointment.getDoctorId().equals(authenticatedUserId)) {
             return; // Doctor can access their own
         }
 
@@ -318,11 +448,11 @@ public class AppointmentService {
     private void validateUpdateAccess(Appointment appointment, Authentication authentication) {
         UUID authenticatedUserId = getUserIdFromAuth(authentication);
 
-        if (hasRole(authentication, "ADMIN")) {
+        if (hasRole(authentication, Role.ADMIN)) {
             return; // Admin can update all
         }
 
-        if (hasRole(authentication, "MEDECIN") && appointment.getDoctorId().equals(authenticatedUserId)) {
+        if (hasRole(authentication, Role.MEDECIN) && appointment.getDoctorId().equals(authenticatedUserId)) {
             return; // Doctor can update their appointments
         }
 
@@ -334,48 +464,37 @@ public class AppointmentService {
     }
 
     private UUID getUserIdFromAuth(Authentication authentication) {
-        if (authentication.getPrincipal() instanceof Jwt jwt) {
-            String sub = jwt.getSubject();
-            // In a real implementation, you would look up the user ID from the auth-service
-            // For now, we'll use the subject as the user ID
-            try {
-                return UUID.fromString(sub);
-            } catch (IllegalArgumentException e) {
-                // If subject is not a UUID, use a hash or lookup
-                log.warn("Subject is not a UUID, using placeholder");
-                return UUID.nameUUIDFromBytes(sub.getBytes());
-            }
+        MedInsightPrincipal principal = MedInsightPrincipal.from(authentication);
+        if (principal == null) {
+            throw new UnauthorizedAccessException("Invalid authentication");
         }
-        throw new UnauthorizedAccessException("Invalid authentication");
+        return principal.id();
     }
 
     private String getUserEmailFromAuth(Authentication authentication) {
-        if (authentication.getPrincipal() instanceof Jwt jwt) {
-            return jwt.getClaimAsString("email");
-        }
-        return "system@medinsight.tn";
+        MedInsightPrincipal principal = MedInsightPrincipal.from(authentication);
+        return principal != null ? principal.email() : "system@medinsight.tn";
     }
 
     private String getPrimaryRoleFromAuth(Authentication authentication) {
-        return authentication.getAuthorities().stream()
-                .map(GrantedAuthority::getAuthority)
-                .map(auth -> auth.replace("ROLE_", ""))
-                .filter(role -> !role.equals("OFFLINE_ACCESS") && !role.equals("UMA_AUTHORIZATION"))
-                .findFirst()
-                .orElse("UNKNOWN");
+        MedInsightPrincipal principal = MedInsightPrincipal.from(authentication);
+        return principal != null ? principal.primaryRole() : MedInsightPrincipal.UNKNOWN_ROLE;
     }
 
-    private boolean hasRole(Authentication authentication, String role) {
-        return authentication.getAuthorities().stream()
-                .map(GrantedAuthority::getAuthority)
-                .anyMatch(auth -> auth.equals("ROLE_" + role));
+    private boolean hasRole(Authentication authentication, Role role) {
+        MedInsightPrincipal principal = MedInsightPrincipal.from(authentication);
+        return principal != null && principal.hasRole(role);
     }
 
     private AppointmentResponse toResponse(Appointment appointment) {
         // Fetch patient and doctor names from auth-service
-        String patientName = fetchUserName(appointment.getPatientId());
-        String doctorName = fetchUserName(appointment.getDoctorId());
+        String patientName = userClient.fetchUserName(appointment.getPatientId());
+        String doctorName = userClient.fetchUserName(appointment.getDoctorId());
+
+        return toResponse(appointment, patientName, doctorName);
+    }
 
+    private AppointmentResponse toResponse(Appointment appointment, String patientName, String doctorName) {
         return AppointmentResponse.builder()
                 .id(appointment.getId())
                 .patientId(appointment.getPatientId())
@@ -391,34 +510,24 @@ public class AppointmentService {
                 .build();
     }
 
-    private String fetchUserName(UUID keycloakId) {
-        Map<String, Object> userData = fetchUserData(keycloakId);
-        if (userData != null && userData.get("firstName") != null && userData.get("lastName") != null) {
-            return userData.get("firstName") + " " + userData.get("lastName");
-        }
-        return null;
-    }
-
-    private String fetchUserEmail(UUID keycloakId) {
-        Map<String, Object> userData = fetchUserData(keycloakId);
-        if (userData != null && userData.get("email") != null) {
-            return (String) userData.get("email");
-        }
-        return null;
+    private PrescriptionResponse toPrescriptionResponse(Prescription p) {
+        return PrescriptionResponse.builder()
+                .id(p.getId())
+                .appointmentId(p.getAppointmentId())
+                .patientId(p.getPatientId())
+                .doctorId(p.getDoctorId())
+                .medicationName(p.getMedicationName())
+                .dosage(p.getDosage())
+                .duration(p.getDuration())
+                .instructions(p.getInstructions())
+                .issuedAt(p.getIssuedAt())
+                .build();
     }
 
-    @SuppressWarnings("unchecked")
-    private Map<String, Object> fetchUserData(UUID keycloakId) {
-        try {
-            org.springframework.web.reactive.function.client.WebClient webClient = webClientBuilder.build();
-            return webClient.get()
-                    .uri("http://auth-service:8081/api/internal/users/keycloak/" + keycloakId)
-                    .retrieve()
-                    .bodyToMono(Map.class)
-                    .block();
-        } catch (Exception e) {
-            log.warn("Failed to fetch user data for ID {}: {}", keycloakId, e.getMessage());
+    private String cachedUserName(Map<UUID, String> names, UUID keycloakId) {
+        if (!names.containsKey(keycloakId)) {
+            names.put(keycloakId, userClient.fetchUserName(keycloakId));
         }
-        return null;
+        return names.get(keycloakId);
     }
 }
@@ -0,0 +1,81 @@
+package com.medinsight.appointment.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.medinsight.appointment.config.DayViewProperties;
+import com.medinsight.appointment.dto.DoctorDayViewResponse;
+import com.medinsight.common.transaction.AfterCommit;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived cache of doctors' day views. Any booking, reschedule, status
+ * change or deletion drops every cached day of the doctor concerned.
+ * <p>
+ * Views are built outside the cache: building one calls auth-service for
+ * patient names, which must not run while Caffeine holds a lock on the entry.
+ * Concurrent misses on the same day may therefore build it more than once.
+ */
+@Component
+public class DoctorDayViewCache {
+
+    private record DayKey(UUID doctorId, LocalDate date) {
+    }
+
+    private final Cache<DayKey, DoctorDayViewResponse> cache;
+
+    /**
+     * When each doctor was last evicted. A view whose build started before
+     * the latest eviction is returned but not cached.
+     */
+    private final Cache<UUID, Long> evictions;
+
+    public DoctorDayViewCache(DayViewProperties properties, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getCacheMaxEntries())
+                .expireAfterWrite(properties.getCacheTtl())
+                .recordStats()
+                .build();
+        this.evictions = Caffeine.newBuilder()
+                .maximumSize(properties.getCacheMaxEntries())
+                .expireAfterWrite(properties.getCacheTtl())
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "doctor-day-view");
+    }
+
+    public DoctorDayViewResponse get(UUID doctorId, LocalDate date, Supplier<DoctorDayViewResponse> loader) {
+        DayKey key = new DayKey(doctorId, date);
+        DoctorDayViewResponse cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        long started = System.nanoTime();
+        DoctorDayViewResponse view = loader.get();
+        Long evictedAt = evictions.getIfPresent(doctorId);
+        if (evictedAt == null || evictedAt - started < 0) {
+            cache.put(key, view);
+            // An eviction between the check and the put may have missed this entry
+            if (!Objects.equals(evictions.getIfPresent(doctorId), evictedAt)) {
+                cache.invalidate(key);
+            }
+        }
+        return view;
+    }
+
+    /**
+     * Drop the doctor's cached days now and again once the surrounding
+     * transaction commits, so a view read in between is not kept.
+     */
+    public void evictDoctor(UUID doctorId) {
+        AfterCommit.runNowAndAfter(() -> {
+            evictions.put(doctorId, System.nanoTime());
+            cache.asMap().keySet().removeIf(key -> key.doctorId().equals(doctorId));
+        });
+    }
+}
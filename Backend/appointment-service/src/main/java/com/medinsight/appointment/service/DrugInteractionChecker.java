@@ -0,0 +1,136 @@
+package com.medinsight.appointment.service;
+
+import com.medinsight.appointment.config.InteractionProperties;
+import com.medinsight.appointment.dto.InteractionWarning;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks a medication against the patient's active prescriptions using an
+ * in-memory interaction graph. The dataset is read from
+ * {@code prescription.interactions.file} and swapped atomically whenever the
+ * file changes; a dataset that fails to parse leaves the previous one in use.
+ */
+@Component
+@Slf4j
+public class DrugInteractionChecker {
+
+    private static final String BUNDLED_DATASET = "drug-interactions.csv";
+
+    private final InteractionProperties properties;
+    private final Timer checkTimer;
+
+    private volatile DrugInteractionGraph graph = DrugInteractionGraph.EMPTY;
+    private volatile long loadedModifiedMillis = -1;
+
+    public DrugInteractionChecker(InteractionProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.checkTimer = Timer.builder("prescription.interaction.check")
+                .description("Time spent checking a new prescription for interactions")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("prescription.interaction.dataset.size", this, checker -> checker.graph.interactionCount())
+                .description("Interactions in the loaded dataset")
+                .register(meterRegistry);
+        if (properties.isEnabled()) {
+            loadInitial();
+        }
+    }
+
+    public List<InteractionWarning> check(String medicationName,
+            List<ActiveMedicationCache.ActiveMedication> activeMedications) {
+        List<InteractionWarning> warnings = new ArrayList<>();
+        if (!properties.isEnabled() || activeMedications.isEmpty()) {
+            return warnings;
+        }
+        long start = System.nanoTime();
+        DrugInteractionGraph current = graph;
+        String drug = resolve(current, medicationName);
+        for (ActiveMedicationCache.ActiveMedication active : activeMedications) {
+            DrugInteractionGraph.Interaction interaction = current.find(drug,
+                    resolve(current, active.medicationName()));
+            if (interaction != null) {
+                warnings.add(InteractionWarning.builder()
+                        .medication(medicationName)
+                        .interactsWith(active.medicationName())
+                        .interactingPrescriptionId(active.prescriptionId())
+                        .severity(interaction.severity())
+                        .description(interaction.description())
+                        .build());
+            }
+        }
+        checkTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return warnings;
+    }
+
+    @Scheduled(initialDelayString = "${prescription.interactions.reload-interval:PT30S}",
+            fixedDelayString = "${prescription.interactions.reload-interval:PT30S}")
+    public void reloadIfChanged() {
+        if (!properties.isEnabled() || properties.getFile() == null || properties.getFile().isBlank()) {
+            return;
+        }
+        Path path = Path.of(properties.getFile());
+        try {
+            long modified = Files.getLastModifiedTime(path).toMillis();
+            if (modified != loadedModifiedMillis) {
+                loadFile(path, modified);
+            }
+        } catch (IOException e) {
+            log.error("Cannot read interaction dataset {}: {}", path, e.getMessage());
+        }
+    }
+
+    private void loadInitial() {
+        if (properties.getFile() != null && !properties.getFile().isBlank()) {
+            reloadIfChanged();
+            return;
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new ClassPathResource(BUNDLED_DATASET).getInputStream(), StandardCharsets.UTF_8))) {
+            install(DrugInteractionGraph.parse(reader), "classpath:" + BUNDLED_DATASET);
+        } catch (IOException e) {
+            log.error("Cannot load bundled interaction dataset: {}", e.getMessage());
+        }
+    }
+
+    private void loadFile(Path path, long modified) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            install(DrugInteractionGraph.parse(reader), path.toString());
+            loadedModifiedMillis = modified;
+        }
+    }
+
+    private void install(DrugInteractionGraph loaded, String source) {
+        graph = loaded;
+        log.info("Loaded {} drug interactions between {} drugs from {}", loaded.interactionCount(),
+                loaded.drugCount(), source);
+    }
+
+    /**
+     * Full normalized name if known, otherwise its first word ("amoxicilline
+     * acide clavulanique" is indexed as "amoxicilline").
+     */
+    private static String resolve(DrugInteractionGraph graph, String medicationName) {
+        String name = DrugInteractionGraph.normalize(medicationName);
+        if (graph.contains(name)) {
+            return name;
+        }
+        int space = name.indexOf(' ');
+        return space > 0 ? name.substring(0, space) : name;
+    }
+}
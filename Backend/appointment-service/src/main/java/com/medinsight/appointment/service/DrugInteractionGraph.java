@@ -0,0 +1,119 @@
+package com.medinsight.appointment.service;
+
+import com.medinsight.appointment.dto.InteractionSeverity;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.text.Normalizer;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable drug interaction graph. Drugs are numbered and each undirected
+ * edge is stored once under a single long key built from the two numbers,
+ * so a lookup is three hash probes whatever the size of the dataset. The
+ * lookup still boxes that key, and {@link #normalize} runs several regular
+ * expressions, so callers normalize each name once per check.
+ */
+final class DrugInteractionGraph {
+
+    static final DrugInteractionGraph EMPTY = new DrugInteractionGraph(Map.of(), Map.of());
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_LETTER = Pattern.compile("[^a-z -]+");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+
+    record Interaction(String drugA, String drugB, InteractionSeverity severity, String description) {
+    }
+
+    private final Map<String, Integer> drugIds;
+    private final Map<Long, Interaction> interactions;
+
+    private DrugInteractionGraph(Map<String, Integer> drugIds, Map<Long, Interaction> interactions) {
+        this.drugIds = drugIds;
+        this.interactions = interactions;
+    }
+
+    /**
+     * Parse {@code drug_a,drug_b,severity,description} lines. Blank lines, lines
+     * starting with {@code #} and a {@code drug_a} header are skipped.
+     */
+    static DrugInteractionGraph parse(BufferedReader reader) throws IOException {
+        Map<String, Integer> drugIds = new HashMap<>();
+        Map<Long, Interaction> interactions = new HashMap<>();
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#") || trimmed.startsWith("drug_a")) {
+                continue;
+            }
+            String[] fields = trimmed.split(",", 4);
+            if (fields.length < 3) {
+                throw new IOException("Malformed interaction at line " + lineNumber + ": " + line);
+            }
+            String drugA = normalize(fields[0]);
+            String drugB = normalize(fields[1]);
+            InteractionSeverity severity;
+            try {
+                severity = InteractionSeverity.valueOf(fields[2].trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Unknown severity at line " + lineNumber + ": " + fields[2]);
+            }
+            String description = fields.length > 3 ? fields[3].trim() : "";
+
+            int idA = drugIds.computeIfAbsent(drugA, name -> drugIds.size());
+            int idB = drugIds.computeIfAbsent(drugB, name -> drugIds.size());
+            interactions.put(key(idA, idB), new Interaction(drugA, drugB, severity, description));
+        }
+        return new DrugInteractionGraph(Map.copyOf(drugIds), Map.copyOf(interactions));
+    }
+
+    /**
+     * Interaction between two normalized drug names, or null.
+     */
+    Interaction find(String drugA, String drugB) {
+        Integer idA = drugIds.get(drugA);
+        Integer idB = drugIds.get(drugB);
+        if (idA == null || idB == null) {
+            return null;
+        }
+        return interactions.get(key(idA, idB));
+    }
+
+    boolean contains(String drug) {
+        return drugIds.containsKey(drug);
+    }
+
+    int drugCount() {
+        return drugIds.size();
+    }
+
+    int interactionCount() {
+        return interactions.size();
+    }
+
+    /**
+     * Lower-case, accent-free name without strength or form:
+     * "Amoxicilline 500 mg" becomes "amoxicilline".
+     */
+    static String normalize(String medicationName) {
+        String ascii = DIACRITICS.matcher(Normalizer.normalize(medicationName, Normalizer.Form.NFD)).replaceAll("");
+        String lower = ascii.toLowerCase(Locale.ROOT);
+        int digit = 0;
+        while (digit < lower.length() && !Character.isDigit(lower.charAt(digit))) {
+            digit++;
+        }
+        String name = NON_LETTER.matcher(lower.substring(0, digit)).replaceAll(" ");
+        return SPACES.matcher(name).replaceAll(" ").trim();
+    }
+
+    private static long key(int idA, int idB) {
+        int low = Math.min(idA, idB);
+        int high = Math.max(idA, idB);
+        return ((long) high << 32) | (low & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,107 @@
+package com.medinsight.appointment.service;
+
+import com.lowagie.text.Chunk;
+import com.lowagie.text.Document;
+import com.lowagie.text.DocumentException;
+import com.lowagie.text.Element;
+import com.lowagie.text.Font;
+import com.lowagie.text.FontFactory;
+import com.lowagie.text.PageSize;
+import com.lowagie.text.Paragraph;
+import com.lowagie.text.pdf.PdfPCell;
+import com.lowagie.text.pdf.PdfPTable;
+import com.lowagie.text.pdf.PdfWriter;
+import com.medinsight.appointment.config.PrescriptionPdfProperties;
+import com.medinsight.appointment.dto.PrescriptionResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Lays out a prescription sheet with OpenPDF, writing pages straight to the
+ * given stream so no document is held in memory.
+ */
+@Component
+@RequiredArgsConstructor
+public class PrescriptionPdfRenderer {
+
+    /** Bumped whenever the layout changes, so previously stored files are not served again. */
+    static final int TEMPLATE_VERSION = 1;
+
+    private static final DateTimeFormatter DATE_FORMAT =
+            DateTimeFormatter.ofPattern("dd MMMM yyyy 'à' HH:mm", Locale.FRENCH);
+    private static final String[] COLUMNS = {"Médicament", "Posologie", "Durée", "Instructions"};
+    private static final float[] COLUMN_WIDTHS = {3f, 3f, 2f, 4f};
+
+    private static final Font TITLE_FONT = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 16);
+    private static final Font HEADER_FONT = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 10);
+    private static final Font BODY_FONT = FontFactory.getFont(FontFactory.HELVETICA, 10);
+    private static final Font SMALL_FONT = FontFactory.getFont(FontFactory.HELVETICA, 8);
+
+    private final PrescriptionPdfProperties properties;
+
+    /**
+     * Everything printed on the sheet. The PDF cache key is derived from it, so
+     * two identical documents share one stored file.
+     */
+    record PrescriptionDocument(UUID appointmentId, LocalDateTime appointmentDateTime, String doctorName,
+                                String patientName, List<PrescriptionResponse> prescriptions) {
+    }
+
+    public void render(PrescriptionDocument document, OutputStream out) throws IOException {
+        Document pdf = new Document(PageSize.A4, 48, 48, 48, 48);
+        try {
+            PdfWriter.getInstance(pdf, out).setCloseStream(false);
+            pdf.open();
+
+            pdf.add(new Paragraph(properties.getClinicName(), TITLE_FONT));
+            pdf.add(new Paragraph(properties.getClinicAddress(), SMALL_FONT));
+            pdf.add(Chunk.NEWLINE);
+
+            pdf.add(new Paragraph("Ordonnance", TITLE_FONT));
+            pdf.add(new Paragraph("Médecin : " + nullToDash(document.doctorName()), BODY_FONT));
+            pdf.add(new Paragraph("Patient : " + nullToDash(document.patientName()), BODY_FONT));
+            if (document.appointmentDateTime() != null) {
+                pdf.add(new Paragraph("Consultation du " + DATE_FORMAT.format(document.appointmentDateTime()),
+                        BODY_FONT));
+            }
+            pdf.add(Chunk.NEWLINE);
+
+            PdfPTable table = new PdfPTable(COLUMN_WIDTHS);
+            table.setWidthPercentage(100);
+            table.setHeaderRows(1);
+            for (String column : COLUMNS) {
+                table.addCell(new PdfPCell(new Paragraph(column, HEADER_FONT)));
+            }
+            for (PrescriptionResponse prescription : document.prescriptions()) {
+                table.addCell(new PdfPCell(new Paragraph(prescription.getMedicationName(), BODY_FONT)));
+                table.addCell(new PdfPCell(new Paragraph(prescription.getDosage(), BODY_FONT)));
+                table.addCell(new PdfPCell(new Paragraph(prescription.getDuration(), BODY_FONT)));
+                table.addCell(new PdfPCell(new Paragraph(nullToDash(prescription.getInstructions()), BODY_FONT)));
+            }
+            pdf.add(table);
+
+            Paragraph footer = new Paragraph("Référence de consultation : " + document.appointmentId(), SMALL_FONT);
+            footer.setAlignment(Element.ALIGN_RIGHT);
+            pdf.add(Chunk.NEWLINE);
+            pdf.add(footer);
+        } catch (DocumentException e) {
+            throw new IOException("Failed to render prescription PDF", e);
+        } finally {
+            if (pdf.isOpen()) {
+                pdf.close();
+            }
+        }
+    }
+
+    private static String nullToDash(String value) {
+        return value != null && !value.isBlank() ? value : "-";
+    }
+}
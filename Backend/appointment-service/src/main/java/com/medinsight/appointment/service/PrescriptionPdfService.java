@@ -0,0 +1,289 @@
+package com.medinsight.appointment.service;
+
+import com.medinsight.appointment.client.UserClient;
+import com.medinsight.appointment.config.PrescriptionPdfProperties;
+import com.medinsight.appointment.dto.PrescriptionResponse;
+import com.medinsight.appointment.entity.Appointment;
+import com.medinsight.appointment.exception.AppointmentNotFoundException;
+import com.medinsight.appointment.exception.PdfRenderUnavailableException;
+import com.medinsight.appointment.repository.AppointmentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Produces the printable prescription sheet of an appointment.
+ * <p>
+ * Rendered files are stored under {@code prescription.pdf.storage-dir}, named
+ * by a hash of the local data printed on them, so a sheet is rendered once and
+ * then served from disk until its content (or the template) changes. The hash
+ * needs no call to auth-service: the doctor and patient names are only fetched
+ * to render. A renamed user therefore shows on the next change to the
+ * appointment or its prescriptions. When auth-service cannot give either name,
+ * nothing is rendered or stored and the request is refused with 503, so a
+ * sheet missing a name is never served under the key of the complete one.
+ * Files unused for {@code max-age}, and the
+ * least recently used ones beyond {@code max-storage-size}, are deleted
+ * periodically. Renders are bounded by a semaphore: when all permits stay busy
+ * for {@code acquire-timeout}, the request is refused with 503 rather than
+ * queued indefinitely.
+ */
+@Service
+@Slf4j
+public class PrescriptionPdfService {
+
+    private final PrescriptionService prescriptionService;
+    private final AppointmentRepository appointmentRepository;
+    private final UserClient userClient;
+    private final PrescriptionPdfRenderer renderer;
+    private final PrescriptionPdfProperties properties;
+    private final Semaphore renderPermits;
+    private final Timer renderTimer;
+    private final Counter storedHits;
+
+    public PrescriptionPdfService(PrescriptionService prescriptionService, AppointmentRepository appointmentRepository,
+            UserClient userClient, PrescriptionPdfRenderer renderer, PrescriptionPdfProperties properties,
+            MeterRegistry meterRegistry) {
+        this.prescriptionService = prescriptionService;
+        this.appointmentRepository = appointmentRepository;
+        this.userClient = userClient;
+        this.renderer = renderer;
+        this.properties = properties;
+        this.renderPermits = new Semaphore(properties.getMaxConcurrentRenders(), true);
+        this.renderTimer = Timer.builder("prescription.pdf.render")
+                .description("Time spent rendering a prescription PDF")
+                .register(meterRegistry);
+        this.storedHits = Counter.builder("prescription.pdf.stored.hits")
+                .description("Prescription PDFs served from previously rendered files")
+                .register(meterRegistry);
+    }
+
+    /**
+     * A prescription sheet ready to be served; {@code key} identifies its content
+     * and doubles as the HTTP entity tag.
+     */
+    public record PrescriptionPdf(String key, String fileName, Appointment appointment,
+                                  List<PrescriptionResponse> prescriptions) {
+    }
+
+    /**
+     * Check access and gather what goes on the sheet, without rendering it or
+     * calling other services.
+     */
+    public PrescriptionPdf prepare(UUID appointmentId, Authentication authentication) {
+        List<PrescriptionResponse> prescriptions = prescriptionService
+                .getPrescriptionsByAppointment(appointmentId, authentication).stream()
+                .sorted(Comparator.comparing(PrescriptionResponse::getIssuedAt,
+                                Comparator.nullsLast(Comparator.naturalOrder()))
+                        .thenComparing(PrescriptionResponse::getId))
+                .toList();
+        Appointment appointment = appointmentRepository.findById(appointmentId)
+                .orElseThrow(() -> new AppointmentNotFoundException("Appointment not found: " + appointmentId));
+
+        return new PrescriptionPdf(contentKey(appointment, prescriptions), "ordonnance-" + appointmentId + ".pdf",
+                appointment, prescriptions);
+    }
+
+    /**
+     * Path of the rendered sheet, rendering it first when no stored file matches.
+     */
+    public Path resolve(PrescriptionPdf pdf) {
+        Path target = storageDir().resolve(pdf.key() + ".pdf");
+        if (Files.exists(target)) {
+            storedHits.increment();
+            markUsed(target);
+            return target;
+        }
+
+        acquirePermit();
+        try {
+            // Another request may have finished the same sheet while this one waited
+            if (Files.exists(target)) {
+                storedHits.increment();
+                return target;
+            }
+            Path temp = Files.createTempFile(target.getParent(), pdf.key(), ".tmp");
+            try {
+                PrescriptionPdfRenderer.PrescriptionDocument document = document(pdf);
+                renderTimer.record(() -> renderTo(document, temp));
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            return target;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store prescription PDF " + pdf.key(), e);
+        } finally {
+            renderPermits.release();
+        }
+    }
+
+    /**
+     * Deletes sheets unused for {@code max-age}, then the least recently used
+     * ones until the directory fits in {@code max-storage-size}. Leftover
+     * temporary files of interrupted renders go with the expired ones.
+     */
+    @Scheduled(initialDelayString = "${prescription.pdf.cleanup-interval:PT1H}",
+            fixedDelayString = "${prescription.pdf.cleanup-interval:PT1H}")
+    public void cleanUp() {
+        List<StoredFile> files = new ArrayList<>();
+        try (Stream<Path> paths = Files.list(storageDir())) {
+            paths.forEach(path -> {
+                try {
+                    files.add(new StoredFile(path, Files.getLastModifiedTime(path).toInstant(), Files.size(path)));
+                } catch (IOException e) {
+                    // Deleted concurrently
+                }
+            });
+        } catch (IOException e) {
+            log.warn("Cannot list PDF storage directory: {}", e.getMessage());
+            return;
+        }
+
+        files.sort(Comparator.comparing(StoredFile::lastUsed).reversed());
+        Instant expiry = Instant.now().minus(properties.getMaxAge());
+        long budget = properties.getMaxStorageSize().toBytes();
+        long kept = 0;
+        int deleted = 0;
+        for (StoredFile file : files) {
+            if (file.lastUsed().isAfter(expiry) && kept + file.size() <= budget) {
+                kept += file.size();
+                continue;
+            }
+            try {
+                Files.deleteIfExists(file.path());
+                deleted++;
+            } catch (IOException e) {
+                log.warn("Cannot delete stored PDF {}: {}", file.path(), e.getMessage());
+            }
+        }
+        if (deleted > 0) {
+            log.info("Deleted {} stored prescription PDFs, {} kept", deleted, files.size() - deleted);
+        }
+    }
+
+    private record StoredFile(Path path, Instant lastUsed, long size) {
+    }
+
+    /**
+     * The modification time doubles as the last use, for {@link #cleanUp()}.
+     */
+    private static void markUsed(Path file) {
+        try {
+            Files.setLastModifiedTime(file, FileTime.from(Instant.now()));
+        } catch (IOException e) {
+            // Only affects which files are cleaned up first
+        }
+    }
+
+    private PrescriptionPdfRenderer.PrescriptionDocument document(PrescriptionPdf pdf) {
+        Appointment appointment = pdf.appointment();
+        String doctorName = userClient.fetchUserName(appointment.getDoctorId());
+        String patientName = userClient.fetchUserName(appointment.getPatientId());
+        if (doctorName == null || patientName == null) {
+            log.warn("Names unavailable for the prescription sheet of appointment {}", appointment.getId());
+            throw new PdfRenderUnavailableException("Doctor or patient name unavailable, please retry shortly");
+        }
+        return new PrescriptionPdfRenderer.PrescriptionDocument(
+                appointment.getId(),
+                appointment.getAppointmentDateTime(),
+                doctorName,
+                patientName,
+                pdf.prescriptions());
+    }
+
+    private void renderTo(PrescriptionPdfRenderer.PrescriptionDocument document, Path file) {
+        try (OutputStream out = Files.newOutputStream(file)) {
+            renderer.render(document, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void acquirePermit() {
+        try {
+            if (!renderPermits.tryAcquire(properties.getAcquireTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                log.warn("No PDF render slot freed within {}", properties.getAcquireTimeout());
+                throw new PdfRenderUnavailableException("Prescription PDF rendering is busy, please retry shortly");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PdfRenderUnavailableException("Interrupted while waiting to render the prescription PDF");
+        }
+    }
+
+    private Path storageDir() {
+        Path dir = Paths.get(properties.getStorageDir());
+        try {
+            return Files.createDirectories(dir);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create PDF storage directory " + dir, e);
+        }
+    }
+
+    /**
+     * SHA-256 over the template version, the clinic header, the appointment and
+     * every printed prescription field. Users are identified by ID.
+     */
+    static String contentKey(Appointment appointment, List<PrescriptionResponse> prescriptions, String... header) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            update(digest, String.valueOf(PrescriptionPdfRenderer.TEMPLATE_VERSION));
+            for (String line : header) {
+                update(digest, line);
+            }
+            update(digest, appointment.getId());
+            update(digest, appointment.getAppointmentDateTime());
+            update(digest, appointment.getDoctorId());
+            update(digest, appointment.getPatientId());
+            for (PrescriptionResponse prescription : prescriptions) {
+                update(digest, prescription.getId());
+                update(digest, prescription.getMedicationName());
+                update(digest, prescription.getDosage());
+                update(digest, prescription.getDuration());
+                update(digest, prescription.getInstructions());
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private String contentKey(Appointment appointment, List<PrescriptionResponse> prescriptions) {
+        return contentKey(appointment, prescriptions, properties.getClinicName(), properties.getClinicAddress());
+    }
+
+    private static void update(MessageDigest digest, Object value) {
+        // Length-prefixed so that adjacent fields cannot run into each other
+        byte[] bytes = Objects.toString(value, "").getBytes(StandardCharsets.UTF_8);
+        digest.update(Integer.toString(bytes.length).getBytes(StandardCharsets.US_ASCII));
+        digest.update((byte) ':');
+        digest.update(bytes);
+    }
+}
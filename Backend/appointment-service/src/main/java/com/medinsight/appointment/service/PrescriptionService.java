@@ -1,6 +1,9 @@
 package com.medinsight.appointment.service;
 
-import com.medinsight.appointment.client.AuditClient;
+import com.medinsight.appointment.client.RecordClient;
+import com.medinsight.appointment.dto.InteractionWarning;
+import com.medinsight.appointment.dto.PrescriptionBatchRequest;
+import com.medinsight.appointment.dto.PrescriptionItemRequest;
 import com.medinsight.appointment.dto.PrescriptionRequest;
 import com.medinsight.appointment.dto.PrescriptionResponse;
 import com.medinsight.appointment.entity.Appointment;
@@ -9,16 +12,19 @@ import com.medinsight.appointment.exception.AppointmentNotFoundException;
 import com.medinsight.appointment.exception.UnauthorizedAccessException;
 import com.medinsight.appointment.repository.AppointmentRepository;
 import com.medinsight.appointment.repository.PrescriptionRepository;
+import com.medinsight.common.client.AuditClient;
+import com.medinsight.common.security.MedInsightPrincipal;
+import com.medinsight.common.security.Role;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -31,34 +37,32 @@ public class PrescriptionService {
     private final PrescriptionRepository prescriptionRepository;
     private final AppointmentRepository appointmentRepository;
     private final AuditClient auditClient;
+    private final RecordClient recordClient;
+    private final ActiveMedicationCache activeMedicationCache;
+    private final DrugInteractionChecker interactionChecker;
 
     @Transactional
     public PrescriptionResponse createPrescription(UUID appointmentId, PrescriptionRequest request,
             Authentication authentication) {
         log.info("Creating prescription for appointment: {}", appointmentId);
 
-        Appointment appointment = appointmentRepository.findById(appointmentId)
-                .orElseThrow(() -> new AppointmentNotFoundException("Appointment not found: " + appointmentId));
-
+        Appointment appointment = findAppointmentForIssuing(appointmentId, authentication);
         UUID authenticatedUserId = getUserIdFromAuth(authentication);
 
-        // Only the assigned doctor or admin can issue a prescription
-        if (!hasRole(authentication, "ADMIN") && !appointment.getDoctorId().equals(authenticatedUserId)) {
-            throw new UnauthorizedAccessException("Only the assigned doctor can issue prescriptions");
+        List<InteractionWarning> warnings = interactionChecker.check(request.getMedicationName(),
+                activeMedicationCache.getActive(appointment.getPatientId()));
+        if (!warnings.isEmpty()) {
+            log.warn("Prescription of {} for patient {} has {} interaction warning(s)",
+                    request.getMedicationName(), appointment.getPatientId(), warnings.size());
         }
 
-        Prescription prescription = Prescription.builder()
-                .appointmentId(appointmentId)
-                .patientId(appointment.getPatientId())
-                .doctorId(appointment.getDoctorId())
-                .medicationName(request.getMedicationName())
-                .dosage(request.getDosage())
-                .duration(request.getDuration())
-                .instructions(request.getInstructions())
-                .build();
+        Prescription prescription = buildPrescription(appointment, request.getMedicationName(),
+                request.getDosage(), request.getDuration(), request.getInstructions());
 
         prescription = prescriptionRepository.save(prescription);
         log.info("Issued prescription with ID: {}", prescription.getId());
+        recordClient.notifyHistoryChanged(prescription.getPatientId());
+        activeMedicationCache.add(prescription);
 
         // Send Audit Log
         auditClient.log(
@@ -70,7 +74,59 @@ public class PrescriptionService {
                 "SUCCESS",
                 "Prescription issued for appointment " + appointmentId);
 
-        return toResponse(prescription);
+        PrescriptionResponse response = toResponse(prescription);
+        response.setWarnings(warnings);
+        return response;
+    }
+
+    /**
+     * Issue several prescriptions for one appointment: the appointment and access
+     * are checked once, the rows are inserted as one JDBC batch and a single audit
+     * event covers the whole batch. Each medication is checked for interactions
+     * with the active prescriptions and with the ones before it in the batch.
+     */
+    @Transactional
+    public List<PrescriptionResponse> createPrescriptions(UUID appointmentId, PrescriptionBatchRequest request,
+            Authentication authentication) {
+        log.info("Creating {} prescriptions for appointment: {}", request.getPrescriptions().size(), appointmentId);
+
+        Appointment appointment = findAppointmentForIssuing(appointmentId, authentication);
+        UUID authenticatedUserId = getUserIdFromAuth(authentication);
+
+        List<ActiveMedicationCache.ActiveMedication> active =
+                new ArrayList<>(activeMedicationCache.getActive(appointment.getPatientId()));
+        List<Prescription> prescriptions = new ArrayList<>();
+        List<List<InteractionWarning>> warnings = new ArrayList<>();
+        for (PrescriptionItemRequest item : request.getPrescriptions()) {
+            warnings.add(interactionChecker.check(item.getMedicationName(), active));
+            active.add(new ActiveMedicationCache.ActiveMedication(null, item.getMedicationName(), LocalDateTime.MAX));
+            prescriptions.add(buildPrescription(appointment, item.getMedicationName(), item.getDosage(),
+                    item.getDuration(), item.getInstructions()));
+        }
+
+        prescriptions = prescriptionRepository.saveAll(prescriptions);
+        log.info("Issued {} prescriptions for appointment: {}", prescriptions.size(), appointmentId);
+        recordClient.notifyHistoryChanged(appointment.getPatientId());
+        prescriptions.forEach(activeMedicationCache::add);
+
+        auditClient.log(
+                "appointment-service",
+                "ISSUE_PRESCRIPTION_BATCH",
+                authenticatedUserId.toString(),
+                "doctor@medinsight.tn",
+                "ROLE_MEDECIN",
+                "SUCCESS",
+                prescriptions.size() + " prescriptions issued for appointment " + appointmentId + ": "
+                        + prescriptions.stream().map(Prescription::getMedicationName)
+                                .collect(Collectors.joining(", ")));
+
+        List<PrescriptionResponse> responses = new ArrayList<>();
+        for (int i = 0; i < prescriptions.size(); i++) {
+            PrescriptionResponse response = toResponse(prescriptions.get(i));
+            response.setWarnings(warnings.get(i));
+            responses.add(response);
+        }
+        return responses;
     }
 
     @Transactional(readOnly = true)
@@ -90,17 +146,42 @@ public class PrescriptionService {
             Authentication authentication) {
         UUID authenticatedUserId = getUserIdFromAuth(authentication);
 
-        if (!hasRole(authentication, "ADMIN") && !patientId.equals(authenticatedUserId)
-                && !hasRole(authentication, "MEDECIN")) {
+        if (!hasRole(authentication, Role.ADMIN) && !patientId.equals(authenticatedUserId)
+                && !hasRole(authentication, Role.MEDECIN)) {
             throw new UnauthorizedAccessException("You cannot view these prescriptions");
         }
 
         return prescriptionRepository.findByPatientId(patientId, pageable).map(this::toResponse);
     }
 
+    private Appointment findAppointmentForIssuing(UUID appointmentId, Authentication authentication) {
+        Appointment appointment = appointmentRepository.findById(appointmentId)
+                .orElseThrow(() -> new AppointmentNotFoundException("Appointment not found: " + appointmentId));
+
+        // Only the assigned doctor or admin can issue a prescription
+        UUID authenticatedUserId = getUserIdFromAuth(authentication);
+        if (!hasRole(authentication, Role.ADMIN) && !appointment.getDoctorId().equals(authenticatedUserId)) {
+            throw new UnauthorizedAccessException("Only the assigned doctor can issue prescriptions");
+        }
+        return appointment;
+    }
+
+    private Prescription buildPrescription(Appointment appointment, String medicationName, String dosage,
+            String duration, String instructions) {
+        return Prescription.builder()
+                .appointmentId(appointment.getId())
+                .patientId(appointment.getPatientId())
+                .doctorId(appointment.getDoctorId())
+                .medicationName(medicationName)
+                .dosage(dosage)
+                .duration(duration)
+                .instructions(instructions)
+                .build();
+    }
+
     private void validateAccess(UUID patientId, UUID doctorId, Authentication authentication) {
         UUID authenticatedUserId = getUserIdFromAuth(authentication);
-        boolean isAdmin = hasRole(authentication, "ADMIN");
+        boolean isAdmin = hasRole(authentication, Role.ADMIN);
         boolean isPatient = patientId.equals(authenticatedUserId);
         boolean isDoctor = doctorId.equals(authenticatedUserId);
 
@@ -110,20 +191,16 @@ public class PrescriptionService {
     }
 
     private UUID getUserIdFromAuth(Authentication authentication) {
-        if (authentication.getPrincipal() instanceof Jwt jwt) {
-            try {
-                return UUID.fromString(jwt.getSubject());
-            } catch (IllegalArgumentException e) {
-                return UUID.nameUUIDFromBytes(jwt.getSubject().getBytes());
-            }
+        MedInsightPrincipal principal = MedInsightPrincipal.from(authentication);
+        if (principal == null) {
+            throw new UnauthorizedAccessException("Invalid authentication");
         }
-        throw new UnauthorizedAccessException("Invalid authentication");
+        return principal.id();
     }
 
-    private boolean hasRole(Authentication authentication, String role) {
-        return authentication.getAuthorities().stream()
-                .map(GrantedAuthority::getAuthority)
-                .anyMatch(auth -> auth.equals("ROLE_" + role));
+    private boolean hasRole(Authentication authentication, Role role) {
+        MedInsightPrincipal principal = MedInsightPrincipal.from(authentication);
+        return principal != null && principal.hasRole(role);
     }
 
     private PrescriptionResponse toResponse(Prescription p) {
@@ -0,0 +1,71 @@
+package com.medinsight.appointment.client;
+
+import com.medinsight.common.security.InternalIdentity;
+import com.medinsight.common.security.InternalIdentitySigner;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RecordClientTest {
+
+    private final List<ClientRequest> requests = new CopyOnWriteArrayList<>();
+    private final WebClient.Builder webClient = WebClient.builder().exchangeFunction(request -> {
+        requests.add(request);
+        return Mono.just(ClientResponse.create(HttpStatus.NO_CONTENT).build());
+    });
+    private final InternalIdentitySigner signer = new InternalIdentitySigner("test-secret-of-at-least-32-bytes!!");
+    private final DiscoveryClient discoveryClient = mock(DiscoveryClient.class);
+
+    @Test
+    @DisplayName("A history change is sent to every instance, signed as the service")
+    void notifyHistoryChanged_SignsAndBroadcasts() {
+        when(discoveryClient.getInstances("medical-record-service")).thenReturn(List.of(
+                new DefaultServiceInstance("record-1", "medical-record-service", "10.0.0.1", 8084, false),
+                new DefaultServiceInstance("record-2", "medical-record-service", "10.0.0.2", 8084, false)));
+        UUID patientId = UUID.randomUUID();
+
+        client(signer).notifyHistoryChanged(patientId);
+
+        assertThat(requests).extracting(request -> request.url().toString()).containsExactlyInAnyOrder(
+                "http://10.0.0.1:8084/records/internal/patients/" + patientId + "/history-changed",
+                "http://10.0.0.2:8084/records/internal/patients/" + patientId + "/history-changed");
+        ClientRequest request = requests.get(0);
+        InternalIdentity identity = InternalIdentity.fromHeaders(request.headers()::getFirst);
+        assertThat(identity.isService()).isTrue();
+        assertThat(identity.subject()).isEqualTo("appointment-service");
+        assertThat(signer.verify(identity, InternalIdentity.SERVICE_TOKEN,
+                request.headers().getFirst(InternalIdentity.SIGNATURE_HEADER))).isTrue();
+        assertThat(request.headers().containsKey("Authorization")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Nothing is sent without a signing secret")
+    void notifyHistoryChanged_SkippedWithoutSigner() {
+        client(null).notifyHistoryChanged(UUID.randomUUID());
+
+        assertThat(requests).isEmpty();
+    }
+
+    @SuppressWarnings("unchecked")
+    private RecordClient client(InternalIdentitySigner signer) {
+        ObjectProvider<InternalIdentitySigner> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(signer);
+        return new RecordClient(webClient, discoveryClient, provider, "medical-record-service",
+                "appointment-service");
+    }
+}
@@ -0,0 +1,169 @@
+package com.medinsight.appointment.repository;
+
+import com.medinsight.appointment.entity.Appointment;
+import com.medinsight.appointment.entity.AppointmentStatus;
+import com.medinsight.appointment.entity.Prescription;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Slice;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class AppointmentRepositoryTest {
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private PrescriptionRepository prescriptionRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final UUID patientId = UUID.randomUUID();
+    private final UUID doctorId = UUID.randomUUID();
+
+    @Test
+    @DisplayName("Patient history joins prescriptions and limits by appointment")
+    void findPatientHistory_LimitsAppointments() {
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 9, 0);
+        Appointment oldest = save(base);
+        Appointment middle = save(base.plusDays(1));
+        Appointment newest = save(base.plusDays(2));
+        prescribe(newest, "Amoxicilline");
+        prescribe(newest, "Paracetamol");
+        prescribe(oldest, "Ibuprofene");
+
+        List<Object[]> rows = appointmentRepository.findPatientHistory(patientId, base.minusYears(1), 2);
+
+        assertThat(rows).hasSize(3);
+        assertThat(rows).extracting(row -> ((Appointment) row[0]).getId())
+                .containsExactly(newest.getId(), newest.getId(), middle.getId());
+        assertThat(rows.get(2)[1]).isNull();
+    }
+
+    @Test
+    @DisplayName("Patient history honours the since bound")
+    void findPatientHistory_Since() {
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 9, 0);
+        save(base);
+        Appointment recent = save(base.plusMonths(2));
+
+        List<Object[]> rows = appointmentRepository.findPatientHistory(patientId, base.plusMonths(1), 10);
+
+        assertThat(rows).extracting(row -> ((Appointment) row[0]).getId()).containsExactly(recent.getId());
+    }
+
+    @Test
+    @DisplayName("Keyset scroll walks every appointment once, newest first, across equal timestamps")
+    void scrollByDoctorId_WalksAllPages() {
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 9, 0);
+        for (int i = 0; i < 5; i++) {
+            save(base.plusDays(i));
+            save(base.plusDays(i)); // same slot twice, ordered by id
+        }
+        appointmentRepository.save(Appointment.builder()
+                .patientId(patientId)
+                .doctorId(UUID.randomUUID())
+                .appointmentDateTime(base)
+                .build());
+
+        List<Appointment> seen = new ArrayList<>();
+        LocalDateTime beforeTime = LocalDateTime.of(9999, 12, 31, 0, 0);
+        UUID beforeId = new UUID(-1L, -1L);
+        Slice<Appointment> slice;
+        do {
+            slice = appointmentRepository.scroll(AppointmentSpecifications.forDoctor(doctorId), beforeTime, beforeId,
+                    3);
+            seen.addAll(slice.getContent());
+            Appointment last = slice.getContent().get(slice.getNumberOfElements() - 1);
+            beforeTime = last.getAppointmentDateTime();
+            beforeId = last.getId();
+        } while (slice.hasNext());
+
+        assertThat(seen).hasSize(10);
+        assertThat(seen).extracting(Appointment::getId).doesNotHaveDuplicates();
+        assertThat(seen).extracting(Appointment::getAppointmentDateTime)
+                .isSortedAccordingTo(Comparator.reverseOrder());
+    }
+
+    @Test
+    @DisplayName("Filter specification combines doctor, status and both date bounds")
+    void matching_CombinesAllCriteria() {
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 9, 0);
+        Appointment inRange = save(base.plusDays(1));
+        save(base.plusDays(5));
+        Appointment scheduled = save(base.plusDays(2));
+        scheduled.setStatus(AppointmentStatus.SCHEDULED);
+        appointmentRepository.save(scheduled);
+
+        List<Appointment> found = appointmentRepository.findAll(AppointmentSpecifications.matching(
+                null, doctorId, AppointmentStatus.COMPLETED, base, base.plusDays(3)));
+
+        assertThat(found).extracting(Appointment::getId).containsExactly(inRange.getId());
+        assertThat(appointmentRepository.count(AppointmentSpecifications.matching(
+                null, doctorId, null, base.plusDays(2), null))).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Day view returns only that day's appointments of the doctor, in time order")
+    void findDoctorDay_BoundsAndOrder() {
+        LocalDateTime day = LocalDateTime.of(2024, 3, 1, 0, 0);
+        Appointment afternoon = save(day.plusHours(15));
+        Appointment morning = save(day.plusHours(9));
+        save(day.minusMinutes(30));
+        save(day.plusDays(1));
+
+        List<DoctorDayRow> rows = appointmentRepository.findDoctorDay(doctorId, day, day.plusDays(1));
+
+        assertThat(rows).extracting(DoctorDayRow::id).containsExactly(morning.getId(), afternoon.getId());
+        assertThat(rows.get(0).patientId()).isEqualTo(patientId);
+        assertThat(rows.get(0).status()).isEqualTo(AppointmentStatus.COMPLETED);
+    }
+
+    @Test
+    @DisplayName("Doctor and patient listings over a date range use the composite indexes")
+    void compositeIndexes_AreUsed() {
+        assertThat(explain("SELECT * FROM appointments WHERE doctor_id = RANDOM_UUID() " +
+                "AND status = 'COMPLETED' AND appointment_date_time BETWEEN CURRENT_TIMESTAMP AND CURRENT_TIMESTAMP " +
+                "ORDER BY appointment_date_time DESC, id DESC"))
+                .containsIgnoringCase("IDX_APPOINTMENT_DOCTOR_DATETIME");
+        assertThat(explain("SELECT * FROM appointments WHERE patient_id = RANDOM_UUID() " +
+                "ORDER BY appointment_date_time DESC, id DESC"))
+                .containsIgnoringCase("IDX_APPOINTMENT_PATIENT_DATETIME");
+    }
+
+    private String explain(String sql) {
+        return String.valueOf(entityManager.createNativeQuery("EXPLAIN " + sql).getSingleResult());
+    }
+
+    private Appointment save(LocalDateTime when) {
+        return appointmentRepository.save(Appointment.builder()
+                .patientId(patientId)
+                .doctorId(doctorId)
+                .appointmentDateTime(when)
+                .status(AppointmentStatus.COMPLETED)
+                .build());
+    }
+
+    private void prescribe(Appointment appointment, String medication) {
+        prescriptionRepository.save(Prescription.builder()
+                .appointmentId(appointment.getId())
+                .patientId(patientId)
+                .doctorId(doctorId)
+                .medicationName(medication)
+                .dosage("1/j")
+                .duration("7 jours")
+                .build());
+    }
+}
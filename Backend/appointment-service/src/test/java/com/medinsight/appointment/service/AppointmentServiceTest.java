@@ -1,5 +1,7 @@
 package com.medinsight.appointment.service;
 
+import com.medinsight.appointment.client.RecordClient;
+import com.medinsight.appointment.client.UserClient;
 import com.medinsight.appointment.dto.*;
 import com.medinsight.appointment.entity.Appointment;
 import com.medinsight.appointment.entity.AppointmentStatus;
@@ -34,6 +36,15 @@ class AppointmentServiceTest {
     @Mock
     private AppointmentRepository appointmentRepository;
 
+    @Mock
+    private RecordClient recordClient;
+
+    @Mock
+    private UserClient userClient;
+
+    @Mock
+    private DoctorDayViewCache doctorDayViewCache;
+
     @InjectMocks
     private AppointmentService appointmentService;
 
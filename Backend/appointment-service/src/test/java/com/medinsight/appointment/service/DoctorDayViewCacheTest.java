@@ -0,0 +1,51 @@
+package com.medinsight.appointment.service;
+
+import com.medinsight.appointment.config.DayViewProperties;
+import com.medinsight.appointment.dto.DoctorDayViewResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DoctorDayViewCacheTest {
+
+    private final DoctorDayViewCache cache = new DoctorDayViewCache(new DayViewProperties(), new SimpleMeterRegistry());
+    private final UUID doctorId = UUID.randomUUID();
+    private final LocalDate date = LocalDate.of(2024, 3, 1);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    @DisplayName("A built view is served from cache until the doctor is evicted")
+    void get_CachesUntilEvicted() {
+        cache.get(doctorId, date, this::load);
+        cache.get(doctorId, date, this::load);
+        assertThat(loads).hasValue(1);
+
+        cache.evictDoctor(doctorId);
+        cache.get(doctorId, date, this::load);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("A view built while the doctor is evicted is returned but not cached")
+    void get_DoesNotCacheViewsBuiltBeforeAnEviction() {
+        DoctorDayViewResponse view = cache.get(doctorId, date, () -> {
+            cache.evictDoctor(doctorId);
+            return load();
+        });
+
+        assertThat(view).isNotNull();
+        cache.get(doctorId, date, this::load);
+        assertThat(loads).hasValue(2);
+    }
+
+    private DoctorDayViewResponse load() {
+        loads.incrementAndGet();
+        return DoctorDayViewResponse.builder().doctorId(doctorId).date(date).build();
+    }
+}
@@ -0,0 +1,72 @@
+package com.medinsight.appointment.service;
+
+import com.medinsight.appointment.config.InteractionProperties;
+import com.medinsight.appointment.dto.InteractionSeverity;
+import com.medinsight.appointment.dto.InteractionWarning;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DrugInteractionCheckerTest {
+
+    @Test
+    @DisplayName("Bundled dataset flags interactions regardless of accents, case and strength")
+    void check_BundledDataset() {
+        DrugInteractionChecker checker = new DrugInteractionChecker(new InteractionProperties(),
+                new SimpleMeterRegistry());
+        UUID activeId = UUID.randomUUID();
+
+        List<InteractionWarning> warnings = checker.check("Ibuprofène 400 mg",
+                List.of(active(activeId, "WARFARINE 5mg"), active(UUID.randomUUID(), "Amoxicilline 1g")));
+
+        assertThat(warnings).hasSize(1);
+        assertThat(warnings.get(0).getSeverity()).isEqualTo(InteractionSeverity.MAJOR);
+        assertThat(warnings.get(0).getInteractingPrescriptionId()).isEqualTo(activeId);
+    }
+
+    @Test
+    @DisplayName("Dataset on disk is reloaded when it changes")
+    void reloadIfChanged(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("interactions.csv");
+        Files.writeString(file, "drug_a,drug_b,severity,description\n");
+        InteractionProperties properties = new InteractionProperties();
+        properties.setFile(file.toString());
+        DrugInteractionChecker checker = new DrugInteractionChecker(properties, new SimpleMeterRegistry());
+
+        assertThat(checker.check("alpha", List.of(active(UUID.randomUUID(), "beta")))).isEmpty();
+
+        Files.writeString(file, "alpha,beta,CONTRAINDICATED,Test\n");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 10_000));
+        checker.reloadIfChanged();
+
+        assertThat(checker.check("alpha", List.of(active(UUID.randomUUID(), "beta"))))
+                .extracting(InteractionWarning::getSeverity)
+                .containsExactly(InteractionSeverity.CONTRAINDICATED);
+    }
+
+    @Test
+    @DisplayName("Treatment durations in French and English are understood")
+    void parseDuration() {
+        assertThat(ActiveMedicationCache.parseDuration("7 jours")).isEqualTo(Duration.ofDays(7));
+        assertThat(ActiveMedicationCache.parseDuration("2 weeks")).isEqualTo(Duration.ofDays(14));
+        assertThat(ActiveMedicationCache.parseDuration("3 mois")).isEqualTo(Duration.ofDays(90));
+        assertThat(ActiveMedicationCache.parseDuration("à vie")).isNull();
+        assertThat(ActiveMedicationCache.parseDuration("99999999999999999999 jours")).isNull();
+        assertThat(ActiveMedicationCache.parseDuration("9223372036854775807 ans")).isNull();
+    }
+
+    private static ActiveMedicationCache.ActiveMedication active(UUID id, String name) {
+        return new ActiveMedicationCache.ActiveMedication(id, name, LocalDateTime.now().plusDays(1));
+    }
+}
@@ -0,0 +1,158 @@
+package com.medinsight.appointment.service;
+
+import com.medinsight.appointment.client.UserClient;
+import com.medinsight.appointment.config.PrescriptionPdfProperties;
+import com.medinsight.appointment.dto.PrescriptionResponse;
+import com.medinsight.appointment.entity.Appointment;
+import com.medinsight.appointment.exception.PdfRenderUnavailableException;
+import com.medinsight.appointment.repository.AppointmentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.security.core.Authentication;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class PrescriptionPdfServiceTest {
+
+    @TempDir
+    Path storageDir;
+
+    private PrescriptionService prescriptionService;
+    private PrescriptionPdfRenderer renderer;
+    private UserClient userClient;
+    private PrescriptionPdfProperties properties;
+    private PrescriptionPdfService pdfService;
+
+    private final UUID appointmentId = UUID.randomUUID();
+    private final Authentication authentication = mock(Authentication.class);
+
+    @BeforeEach
+    void setUp() {
+        prescriptionService = mock(PrescriptionService.class);
+        AppointmentRepository appointmentRepository = mock(AppointmentRepository.class);
+        userClient = mock(UserClient.class);
+        properties = new PrescriptionPdfProperties();
+        properties.setStorageDir(storageDir.toString());
+        renderer = spy(new PrescriptionPdfRenderer(properties));
+        pdfService = new PrescriptionPdfService(prescriptionService, appointmentRepository, userClient, renderer,
+                properties, new SimpleMeterRegistry());
+
+        when(appointmentRepository.findById(appointmentId)).thenReturn(Optional.of(Appointment.builder()
+                .id(appointmentId)
+                .patientId(UUID.randomUUID())
+                .doctorId(UUID.randomUUID())
+                .appointmentDateTime(LocalDateTime.of(2024, 3, 1, 10, 30))
+                .build()));
+        when(userClient.fetchUserName(any())).thenReturn("Amira Ben Salah");
+    }
+
+    @Test
+    @DisplayName("Sheet is rendered once and served from disk while its content is unchanged")
+    void resolve_RendersOnce() throws Exception {
+        when(prescriptionService.getPrescriptionsByAppointment(eq(appointmentId), any()))
+                .thenReturn(List.of(prescription("Paracetamol 1g")));
+
+        PrescriptionPdfService.PrescriptionPdf first = pdfService.prepare(appointmentId, authentication);
+        Path file = pdfService.resolve(first);
+        PrescriptionPdfService.PrescriptionPdf second = pdfService.prepare(appointmentId, authentication);
+
+        assertThat(second.key()).isEqualTo(first.key());
+        assertThat(pdfService.resolve(second)).isEqualTo(file);
+        assertThat(new String(Files.readAllBytes(file), 0, 5)).isEqualTo("%PDF-");
+        verify(renderer, times(1)).render(any(), any());
+    }
+
+    @Test
+    @DisplayName("A changed prescription yields a new content key")
+    void prepare_KeyFollowsContent() {
+        when(prescriptionService.getPrescriptionsByAppointment(eq(appointmentId), any()))
+                .thenReturn(List.of(prescription("Paracetamol 1g")))
+                .thenReturn(List.of(prescription("Paracetamol 500mg")));
+
+        String before = pdfService.prepare(appointmentId, authentication).key();
+        String after = pdfService.prepare(appointmentId, authentication).key();
+
+        assertThat(after).isNotEqualTo(before);
+    }
+
+    @Test
+    @DisplayName("Preparing the sheet, enough to answer If-None-Match, calls no other service")
+    void prepare_KeyFromLocalData() {
+        when(prescriptionService.getPrescriptionsByAppointment(eq(appointmentId), any()))
+                .thenReturn(List.of(prescription("Paracetamol 1g")));
+
+        PrescriptionPdfService.PrescriptionPdf pdf = pdfService.prepare(appointmentId, authentication);
+        verifyNoInteractions(userClient);
+
+        pdfService.resolve(pdf);
+        pdfService.resolve(pdfService.prepare(appointmentId, authentication));
+        verify(userClient, times(2)).fetchUserName(any());
+    }
+
+    @Test
+    @DisplayName("A sheet is neither rendered nor stored while a name is unavailable")
+    void resolve_RefusesWithoutNames() throws Exception {
+        when(prescriptionService.getPrescriptionsByAppointment(eq(appointmentId), any()))
+                .thenReturn(List.of(prescription("Paracetamol 1g")));
+        when(userClient.fetchUserName(any())).thenReturn("Amira Ben Salah", (String) null);
+
+        PrescriptionPdfService.PrescriptionPdf pdf = pdfService.prepare(appointmentId, authentication);
+
+        assertThatThrownBy(() -> pdfService.resolve(pdf)).isInstanceOf(PdfRenderUnavailableException.class);
+        verify(renderer, never()).render(any(), any());
+        try (Stream<Path> files = Files.list(storageDir)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    @Test
+    @DisplayName("Cleanup deletes expired sheets, then the least recently used beyond the size limit")
+    void cleanUp_BoundsStorage() throws Exception {
+        Path expired = storedFile("expired.pdf", Duration.ofDays(8), 10);
+        Path older = storedFile("older.pdf", Duration.ofHours(2), 600);
+        Path recent = storedFile("recent.pdf", Duration.ofHours(1), 600);
+        properties.setMaxStorageSize(DataSize.ofBytes(1_000));
+
+        pdfService.cleanUp();
+
+        assertThat(expired).doesNotExist();
+        assertThat(older).doesNotExist();
+        assertThat(recent).exists();
+    }
+
+    private Path storedFile(String name, Duration age, int size) throws Exception {
+        Path file = Files.write(storageDir.resolve(name), new byte[size]);
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().minus(age)));
+        return file;
+    }
+
+    private PrescriptionResponse prescription(String medication) {
+        return PrescriptionResponse.builder()
+                .id(UUID.nameUUIDFromBytes(medication.getBytes()))
+                .appointmentId(appointmentId)
+                .medicationName(medication)
+                .dosage("1 par jour")
+                .duration("7 jours")
+                .issuedAt(LocalDateTime.of(2024, 3, 1, 10, 45))
+                .build();
+    }
+}
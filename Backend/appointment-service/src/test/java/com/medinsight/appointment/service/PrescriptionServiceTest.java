@@ -0,0 +1,124 @@
+package com.medinsight.appointment.service;
+
+import com.medinsight.appointment.client.RecordClient;
+import com.medinsight.appointment.config.InteractionProperties;
+import com.medinsight.appointment.dto.PrescriptionBatchRequest;
+import com.medinsight.appointment.dto.PrescriptionItemRequest;
+import com.medinsight.appointment.dto.PrescriptionResponse;
+import com.medinsight.appointment.entity.Appointment;
+import com.medinsight.appointment.entity.Prescription;
+import com.medinsight.appointment.exception.UnauthorizedAccessException;
+import com.medinsight.appointment.repository.AppointmentRepository;
+import com.medinsight.appointment.repository.PrescriptionRepository;
+import com.medinsight.common.client.AuditClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class PrescriptionServiceTest {
+
+    private PrescriptionRepository prescriptionRepository;
+    private AppointmentRepository appointmentRepository;
+    private AuditClient auditClient;
+    private RecordClient recordClient;
+    private PrescriptionService prescriptionService;
+
+    private final UUID doctorId = UUID.randomUUID();
+    private final UUID patientId = UUID.randomUUID();
+    private final UUID appointmentId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        prescriptionRepository = mock(PrescriptionRepository.class);
+        appointmentRepository = mock(AppointmentRepository.class);
+        auditClient = mock(AuditClient.class);
+        recordClient = mock(RecordClient.class);
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        InteractionProperties properties = new InteractionProperties();
+        prescriptionService = new PrescriptionService(prescriptionRepository, appointmentRepository, auditClient,
+                recordClient, new ActiveMedicationCache(prescriptionRepository, properties, registry),
+                new DrugInteractionChecker(properties, registry));
+
+        when(appointmentRepository.findById(appointmentId)).thenReturn(Optional.of(Appointment.builder()
+                .id(appointmentId)
+                .patientId(patientId)
+                .doctorId(doctorId)
+                .build()));
+        when(prescriptionRepository.findByPatientIdAndIssuedAtAfter(eq(patientId), any())).thenReturn(List.of());
+        when(prescriptionRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    @DisplayName("Batch is saved at once with one audit event and in-batch interaction warnings")
+    void createPrescriptions_Batch() {
+        PrescriptionBatchRequest request = PrescriptionBatchRequest.builder()
+                .prescriptions(List.of(
+                        item("Warfarine 5mg"),
+                        item("Paracetamol 1g"),
+                        item("Aspirine 100mg")))
+                .build();
+
+        List<PrescriptionResponse> responses = prescriptionService.createPrescriptions(appointmentId, request,
+                authentication(doctorId, "ROLE_MEDECIN"));
+
+        assertThat(responses).hasSize(3);
+        assertThat(responses).allSatisfy(response -> assertThat(response.getPatientId()).isEqualTo(patientId));
+        assertThat(responses.get(0).getWarnings()).isEmpty();
+        assertThat(responses.get(1).getWarnings()).hasSize(1);
+        assertThat(responses.get(2).getWarnings()).hasSize(1);
+
+        verify(appointmentRepository, times(1)).findById(appointmentId);
+        verify(prescriptionRepository, times(1)).saveAll(anyList());
+        verify(prescriptionRepository, never()).save(any(Prescription.class));
+        verify(auditClient, times(1)).log(anyString(), eq("ISSUE_PRESCRIPTION_BATCH"), anyString(), anyString(),
+                anyString(), anyString(), anyString());
+        verify(recordClient, times(1)).notifyHistoryChanged(patientId);
+    }
+
+    @Test
+    @DisplayName("Batch is refused for a doctor not assigned to the appointment")
+    void createPrescriptions_OtherDoctor() {
+        PrescriptionBatchRequest request = PrescriptionBatchRequest.builder()
+                .prescriptions(List.of(item("Paracetamol 1g")))
+                .build();
+
+        assertThatThrownBy(() -> prescriptionService.createPrescriptions(appointmentId, request,
+                authentication(UUID.randomUUID(), "ROLE_MEDECIN")))
+                .isInstanceOf(UnauthorizedAccessException.class);
+        verify(prescriptionRepository, never()).saveAll(anyList());
+    }
+
+    private static PrescriptionItemRequest item(String medication) {
+        return PrescriptionItemRequest.builder()
+                .medicationName(medication)
+                .dosage("1 par jour")
+                .duration("7 jours")
+                .build();
+    }
+
+    private static Authentication authentication(UUID userId, String role) {
+        Jwt jwt = Jwt.withTokenValue("token")
+                .header("alg", "none")
+                .subject(userId.toString())
+                .build();
+        return new JwtAuthenticationToken(jwt, List.of(new SimpleGrantedAuthority(role)));
+    }
+}
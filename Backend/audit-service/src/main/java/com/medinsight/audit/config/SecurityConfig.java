@@ -1,5 +1,7 @@
 package com.medinsight.audit.config;
 
+import com.medinsight.common.security.InternalIdentityAuthenticationFilter;
+import com.medinsight.common.security.MedInsightJwtAuthenticationConverter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -7,20 +9,11 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
-import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+import org.springframework.security.oauth2.server.resource.web.authentication.BearerTokenAuthenticationFilter;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.oauth2.jwt.*;
 import org.springframework.security.oauth2.core.*;
 
-import java.util.Collection;
-import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
-
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity
@@ -28,7 +21,8 @@ import java.util.stream.Stream;
 public class SecurityConfig {
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http,
+            InternalIdentityAuthenticationFilter internalIdentityFilter) throws Exception {
         http
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(auth -> auth
@@ -39,43 +33,17 @@ public class SecurityConfig {
                                                                                                               // logging
                         .requestMatchers("/audit/**").authenticated()
                         .anyRequest().authenticated())
+                .addFilterBefore(internalIdentityFilter, BearerTokenAuthenticationFilter.class)
                 .oauth2ResourceServer(oauth2 -> oauth2
+                        .bearerTokenResolver(internalIdentityFilter.bearerTokenResolver())
                         .jwt(jwt -> jwt.jwtAuthenticationConverter(jwtAuthenticationConverter())));
 
         return http.build();
     }
 
     @Bean
-    public JwtAuthenticationConverter jwtAuthenticationConverter() {
-        JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
-        converter.setJwtGrantedAuthoritiesConverter(jwt -> {
-            // Extract realm roles from Keycloak JWT
-            Map<String, Object> realmAccess = jwt.getClaimAsMap("realm_access");
-            Collection<GrantedAuthority> realmRoles = List.of();
-
-            if (realmAccess != null && realmAccess.containsKey("roles")) {
-                @SuppressWarnings("unchecked")
-                List<String> roles = (List<String>) realmAccess.get("roles");
-                realmRoles = roles.stream()
-                        .map(role -> {
-                            String r = role.toUpperCase();
-                            return new SimpleGrantedAuthority(r.startsWith("ROLE_") ? r : "ROLE_" + r);
-                        })
-                        .collect(Collectors.toList());
-            }
-
-            // Extract scope-based authorities
-            JwtGrantedAuthoritiesConverter scopeConverter = new JwtGrantedAuthoritiesConverter();
-            Collection<GrantedAuthority> scopeAuthorities = scopeConverter.convert(jwt);
-
-            // Combine both
-            Collection<GrantedAuthority> authorities = Stream.concat(realmRoles.stream(), scopeAuthorities.stream())
-                    .collect(Collectors.toList());
-
-            log.info("Audit Service SUCCESS - User: {}, Roles: {}", jwt.getSubject(), authorities);
-            return authorities;
-        });
-        return converter;
+    public MedInsightJwtAuthenticationConverter jwtAuthenticationConverter() {
+        return new MedInsightJwtAuthenticationConverter();
     }
 
     @Bean
@@ -87,7 +55,7 @@ public class SecurityConfig {
                 new JwtTimestampValidator(),
                 jwt -> {
                     String issuer = jwt.getIssuer().toString();
-                    log.info("Audit Service validating token issuer: {}", issuer);
+                    log.debug("Audit Service validating token issuer: {}", issuer);
                     if (issuer.contains("/realms/medinsight")) {
                         return OAuth2TokenValidatorResult.success();
                     }
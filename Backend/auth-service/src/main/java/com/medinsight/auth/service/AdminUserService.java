@@ -1,13 +1,13 @@
 package com.medinsight.auth.service;
 
-import com.medinsight.auth.client.AuditClient;
-import com.medinsight.auth.client.MailClient;
 import com.medinsight.auth.dto.AdminUserCreationRequest;
 import com.medinsight.auth.dto.UserResponse;
 import com.medinsight.auth.entity.MedecinProfile;
 import com.medinsight.auth.entity.PatientProfile;
 import com.medinsight.auth.entity.RoleEnum;
 import com.medinsight.auth.entity.User;
+import com.medinsight.common.client.AuditClient;
+import com.medinsight.common.client.MailClient;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -3,7 +3,6 @@ package com.medinsight.auth.service;
 import com.medinsight.auth.config.KeycloakProperties;
 import com.medinsight.auth.entity.RoleEnum;
 import com.medinsight.auth.exception.KeycloakIntegrationException;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
@@ -22,20 +21,22 @@ import java.util.Map;
  * Service for interacting with Keycloak Admin REST API.
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class KeycloakService {
 
     private final KeycloakProperties keycloakProperties;
-    private final WebClient.Builder webClientBuilder;
+    private final WebClient webClient;
+
+    public KeycloakService(KeycloakProperties keycloakProperties, WebClient.Builder webClientBuilder) {
+        this.keycloakProperties = keycloakProperties;
+        this.webClient = webClientBuilder.build();
+    }
 
     /**
      * Get admin access token from Keycloak.
      */
     private String getAdminToken() {
         try {
-            WebClient webClient = webClientBuilder.build();
-
             MultiValueMap<String, String> formData = new LinkedMultiValueMap<>();
             formData.add("grant_type", "password");
             formData.add("client_id", "admin-cli");
@@ -72,8 +73,6 @@ public class KeycloakService {
     public String createUser(String email, String password, String firstName, String lastName) {
         try {
             String token = getAdminToken();
-            WebClient webClient = webClientBuilder.build();
-
             Map<String, Object> userRepresentation = Map.of(
                     "username", email,
                     "email", email,
@@ -117,8 +116,6 @@ public class KeycloakService {
      */
     private String getUserIdByEmail(String email, String token) {
         try {
-            WebClient webClient = webClientBuilder.build();
-
             String searchUrl = String.format("%s/admin/realms/%s/users?email=%s",
                     keycloakProperties.getServerUrl(),
                     keycloakProperties.getRealm(),
@@ -152,8 +149,6 @@ public class KeycloakService {
     public void assignRoleToUser(String keycloakUserId, RoleEnum role) {
         try {
             String token = getAdminToken();
-            WebClient webClient = webClientBuilder.build();
-
             // Get role representation
             String getRoleUrl = String.format("%s/admin/realms/%s/roles/%s",
                     keycloakProperties.getServerUrl(),
@@ -203,8 +198,6 @@ public class KeycloakService {
     public void setUserEnabled(String keycloakUserId, boolean enabled) {
         try {
             String token = getAdminToken();
-            WebClient webClient = webClientBuilder.build();
-
             String updateUserUrl = String.format("%s/admin/realms/%s/users/%s",
                     keycloakProperties.getServerUrl(),
                     keycloakProperties.getRealm(),
@@ -237,8 +230,6 @@ public class KeycloakService {
     public void deleteUser(String keycloakUserId) {
         try {
             String token = getAdminToken();
-            WebClient webClient = webClientBuilder.build();
-
             String deleteUserUrl = String.format("%s/admin/realms/%s/users/%s",
                     keycloakProperties.getServerUrl(),
                     keycloakProperties.getRealm(),
@@ -265,7 +256,6 @@ public class KeycloakService {
     public List<Map<String, Object>> getAllUsers() {
         try {
             String token = getAdminToken();
-            WebClient webClient = webClientBuilder.build();
             String getUsersUrl = String.format("%s/admin/realms/%s/users",
                     keycloakProperties.getServerUrl(),
                     keycloakProperties.getRealm());
@@ -293,8 +283,6 @@ public class KeycloakService {
     public String getUserPrimaryRole(String keycloakUserId) {
         try {
             String token = getAdminToken();
-            WebClient webClient = webClientBuilder.build();
-
             String getRolesUrl = String.format("%s/admin/realms/%s/users/%s/role-mappings/realm",
                     keycloakProperties.getServerUrl(),
                     keycloakProperties.getRealm(),
@@ -343,8 +331,6 @@ public class KeycloakService {
     public void changeUserPassword(String keycloakUserId, String oldPassword, String newPassword) {
         try {
             // First verify old password by attempting to get a token
-            WebClient webClient = webClientBuilder.build();
-
             // Get user's email first
             String token = getAdminToken();
             String getUserUrl = String.format("%s/admin/realms/%s/users/%s",
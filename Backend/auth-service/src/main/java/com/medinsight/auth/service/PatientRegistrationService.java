@@ -1,7 +1,5 @@
 package com.medinsight.auth.service;
 
-import com.medinsight.auth.client.AuditClient;
-import com.medinsight.auth.client.MailClient;
 import com.medinsight.auth.dto.PatientRegistrationRequest;
 import com.medinsight.auth.dto.UserResponse;
 import com.medinsight.auth.entity.PatientProfile;
@@ -9,6 +7,8 @@ import com.medinsight.auth.entity.RoleEnum;
 import com.medinsight.auth.entity.User;
 import com.medinsight.auth.exception.UserAlreadyExistsException;
 import com.medinsight.auth.repository.PatientProfileRepository;
+import com.medinsight.common.client.AuditClient;
+import com.medinsight.common.client.MailClient;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
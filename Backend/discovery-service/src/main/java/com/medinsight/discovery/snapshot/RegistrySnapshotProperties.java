@@ -0,0 +1,29 @@
+package com.medinsight.discovery.snapshot;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Configuration properties for the registry snapshot written to local disk
+ * and used to warm-start the registry after a restart.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "discovery.snapshot")
+@Data
+public class RegistrySnapshotProperties {
+
+    private boolean enabled = true;
+
+    /** Directory holding the snapshot; mount a volume on it to survive container restarts. */
+    private Path directory = Path.of("data");
+
+    /** How often the registry is written to disk. */
+    private Duration interval = Duration.ofSeconds(30);
+
+    /** Older snapshots are ignored at startup: their instances have likely moved. */
+    private Duration maxAge = Duration.ofMinutes(10);
+}
@@ -0,0 +1,120 @@
+package com.medinsight.discovery.snapshot;
+
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.discovery.converters.EurekaJacksonCodec;
+import com.netflix.discovery.shared.Application;
+import com.netflix.discovery.shared.Applications;
+import com.netflix.eureka.EurekaServerContext;
+import com.netflix.eureka.registry.PeerAwareInstanceRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Writes the registry to local disk periodically and restores it at startup,
+ * so a restarted discovery-service answers with the instances it knew instead
+ * of an empty registry until every client has re-registered. Restored leases
+ * expire as usual if their instance does not renew.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RegistrySnapshotService implements SmartLifecycle {
+
+    static final String SNAPSHOT_FILE = "eureka-registry.json";
+
+    private final EurekaServerContext serverContext;
+    private final RegistrySnapshotProperties properties;
+    private final EurekaJacksonCodec codec = EurekaJacksonCodec.getInstance();
+
+    private volatile boolean running;
+
+    @Override
+    public void start() {
+        if (properties.isEnabled()) {
+            restore();
+        }
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Before the Eureka server lifecycle (phase 0), which opens the registry for traffic.
+     */
+    @Override
+    public int getPhase() {
+        return -1;
+    }
+
+    @Scheduled(initialDelayString = "${discovery.snapshot.interval:PT30S}",
+            fixedDelayString = "${discovery.snapshot.interval:PT30S}")
+    public void write() {
+        if (!running || !properties.isEnabled()) {
+            return;
+        }
+        Path file = properties.getDirectory().resolve(SNAPSHOT_FILE);
+        Path partial = properties.getDirectory().resolve(SNAPSHOT_FILE + ".tmp");
+        try {
+            Files.createDirectories(properties.getDirectory());
+            try (OutputStream out = Files.newOutputStream(partial)) {
+                codec.writeTo(serverContext.getRegistry().getApplications(), out);
+            }
+            Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Could not write registry snapshot to {}: {}", file, e.getMessage());
+        }
+    }
+
+    void restore() {
+        Path file = properties.getDirectory().resolve(SNAPSHOT_FILE);
+        if (!Files.isRegularFile(file)) {
+            log.info("No registry snapshot at {}, starting empty", file);
+            return;
+        }
+        try {
+            Duration age = Duration.between(Files.getLastModifiedTime(file).toInstant(), Instant.now());
+            if (age.compareTo(properties.getMaxAge()) > 0) {
+                log.info("Registry snapshot is {}s old, starting empty", age.toSeconds());
+                return;
+            }
+            Applications applications;
+            try (InputStream in = Files.newInputStream(file)) {
+                applications = codec.readValue(Applications.class, in);
+            }
+            PeerAwareInstanceRegistry registry = serverContext.getRegistry();
+            int restored = 0;
+            for (Application application : applications.getRegisteredApplications()) {
+                for (InstanceInfo instance : application.getInstances()) {
+                    // Registered as a replica: kept local, with the instance's own lease duration
+                    if (registry.getInstanceByAppAndId(application.getName(), instance.getId()) == null) {
+                        registry.register(instance, true);
+                        restored++;
+                    }
+                }
+            }
+            log.info("Restored {} instances from a registry snapshot {}s old", restored, age.toSeconds());
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not restore registry snapshot from {}, starting empty: {}", file, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.medinsight.discovery.snapshot;
+
+import com.netflix.appinfo.DataCenterInfo;
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.appinfo.MyDataCenterInfo;
+import com.netflix.discovery.shared.Application;
+import com.netflix.discovery.shared.Applications;
+import com.netflix.eureka.EurekaServerContext;
+import com.netflix.eureka.registry.PeerAwareInstanceRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RegistrySnapshotServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private final RegistrySnapshotProperties properties = new RegistrySnapshotProperties();
+    private final PeerAwareInstanceRegistry registry = mock(PeerAwareInstanceRegistry.class);
+    private final EurekaServerContext serverContext = mock(EurekaServerContext.class);
+
+    @BeforeEach
+    void setUp() {
+        properties.setDirectory(directory);
+        when(serverContext.getRegistry()).thenReturn(registry);
+    }
+
+    @Test
+    @DisplayName("A written snapshot is registered again at the next startup")
+    void start_RestoresInstancesFromTheLastSnapshot() {
+        Applications applications = new Applications();
+        Application application = new Application("AUTH-SERVICE");
+        application.addInstance(instance("auth-service:8081"));
+        applications.addApplication(application);
+        when(registry.getApplications()).thenReturn(applications);
+        RegistrySnapshotService before = new RegistrySnapshotService(serverContext, properties);
+        before.start();
+        before.write();
+
+        new RegistrySnapshotService(serverContext, properties).start();
+
+        ArgumentCaptor<InstanceInfo> restored = ArgumentCaptor.forClass(InstanceInfo.class);
+        verify(registry).register(restored.capture(), eq(true));
+        assertThat(restored.getValue().getId()).isEqualTo("auth-service:8081");
+        assertThat(restored.getValue().getPort()).isEqualTo(8081);
+    }
+
+    @Test
+    @DisplayName("A snapshot older than max-age is ignored")
+    void start_IgnoresStaleSnapshots() throws Exception {
+        Path snapshot = directory.resolve(RegistrySnapshotService.SNAPSHOT_FILE);
+        Files.writeString(snapshot, "{\"applications\":{\"versions__delta\":\"1\",\"apps__hashcode\":\"\","
+                + "\"application\":[]}}");
+        Files.setLastModifiedTime(snapshot, FileTime.from(Instant.now().minus(Duration.ofHours(1))));
+
+        new RegistrySnapshotService(serverContext, properties).start();
+
+        verify(registry, never()).register(any(InstanceInfo.class), anyBoolean());
+    }
+
+    private static InstanceInfo instance(String id) {
+        return InstanceInfo.Builder.newBuilder()
+                .setAppName("AUTH-SERVICE")
+                .setInstanceId(id)
+                .setHostName("auth-service")
+                .setIPAddr("172.18.0.5")
+                .setPort(8081)
+                .setDataCenterInfo(new MyDataCenterInfo(DataCenterInfo.Name.MyOwn))
+                .setStatus(InstanceInfo.InstanceStatus.UP)
+                .build();
+    }
+}
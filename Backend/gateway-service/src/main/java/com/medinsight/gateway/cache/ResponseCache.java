@@ -0,0 +1,109 @@
+package com.medinsight.gateway.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.medinsight.gateway.config.ResponseCacheProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.http.MediaType;
+import org.springframework.util.DigestUtils;
+
+import java.time.Duration;
+
+/**
+ * Cached GET responses, bounded by the total size of their bodies. An entry is
+ * fresh for the TTL of its route. Entries with an ETag from the backend are
+ * then kept for {@code revalidateFor}, so the backend can confirm them with a
+ * 304 instead of sending the body again.
+ */
+public class ResponseCache {
+
+    private final Cache<String, CachedResponse> cache;
+    private final Ticker ticker;
+    private final long maxEntrySize;
+
+    public ResponseCache(ResponseCacheProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, Ticker.systemTicker());
+    }
+
+    public ResponseCache(ResponseCacheProperties properties, MeterRegistry meterRegistry, Ticker ticker) {
+        this.ticker = ticker;
+        this.maxEntrySize = properties.getMaxEntrySize().toBytes();
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxSize().toBytes())
+                .weigher((String key, CachedResponse entry) -> key.length() + entry.body().length)
+                .expireAfter(new FreshThenRevalidate(properties.getRevalidateFor().toNanos()))
+                .ticker(ticker)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gateway-responses");
+    }
+
+    public CachedResponse get(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    /**
+     * Stores a 200 response. Without a backend ETag, one is derived from the body.
+     *
+     * @return the entry, or null when the body is too large to be cached
+     */
+    public CachedResponse put(String key, byte[] body, MediaType contentType, String backendEtag, Duration ttl) {
+        if (body.length > maxEntrySize) {
+            return null;
+        }
+        String etag = backendEtag != null ? backendEtag : "\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+        CachedResponse entry = new CachedResponse(body, contentType, etag, backendEtag != null,
+                ticker.read() + ttl.toNanos());
+        cache.put(key, entry);
+        return entry;
+    }
+
+    /**
+     * Marks an entry fresh again after the backend answered 304 Not Modified.
+     */
+    public CachedResponse revalidated(String key, CachedResponse entry, Duration ttl) {
+        CachedResponse refreshed = new CachedResponse(entry.body(), entry.contentType(), entry.etag(), true,
+                ticker.read() + ttl.toNanos());
+        cache.put(key, refreshed);
+        return refreshed;
+    }
+
+    public boolean isFresh(CachedResponse entry) {
+        return entry.freshUntil() - ticker.read() > 0;
+    }
+
+    /** Time the entry stays fresh, used as the client's {@code max-age}. */
+    public Duration remainingTtl(CachedResponse entry) {
+        return Duration.ofNanos(Math.max(entry.freshUntil() - ticker.read(), 0));
+    }
+
+    /**
+     * @param revalidatable whether the ETag comes from the backend and can be sent to it in If-None-Match
+     * @param freshUntil    ticker time at which the entry stops being served without asking the backend
+     */
+    public record CachedResponse(byte[] body, MediaType contentType, String etag, boolean revalidatable,
+            long freshUntil) {
+    }
+
+    private record FreshThenRevalidate(long revalidateForNanos) implements Expiry<String, CachedResponse> {
+
+        @Override
+        public long expireAfterCreate(String key, CachedResponse entry, long currentTime) {
+            long fresh = Math.max(entry.freshUntil() - currentTime, 0);
+            return entry.revalidatable() ? fresh + revalidateForNanos : fresh;
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedResponse entry, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, entry, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedResponse entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.medinsight.gateway.compression;
+
+import com.medinsight.gateway.config.CompressionProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.BiPredicate;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * Lets a response be compressed only while the gateway's CPU load is under
+ * budget. When the gateway is CPU bound, compressing makes every request
+ * slower; sending more bytes does not. Combined with the mime type and size
+ * checks of {@code server.compression}, it only sees compressible responses.
+ */
+public class CpuBudgetCompressionPredicate implements BiPredicate<HttpServerRequest, HttpServerResponse> {
+
+    private final double maxCpuLoad;
+    private final long sampleIntervalNanos;
+    private final DoubleSupplier cpuLoad;
+    private final LongSupplier nanoTime;
+    private final Counter skipped;
+
+    private volatile double lastLoad;
+    private volatile long nextSampleAt;
+
+    public CpuBudgetCompressionPredicate(CompressionProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, processCpuLoad(), System::nanoTime);
+    }
+
+    CpuBudgetCompressionPredicate(CompressionProperties properties, MeterRegistry meterRegistry,
+            DoubleSupplier cpuLoad, LongSupplier nanoTime) {
+        this.maxCpuLoad = properties.getMaxCpuLoad();
+        this.sampleIntervalNanos = properties.getCpuSampleInterval().toNanos();
+        this.cpuLoad = cpuLoad;
+        this.nanoTime = nanoTime;
+        this.nextSampleAt = nanoTime.getAsLong();
+        this.skipped = Counter.builder("gateway.compression.skipped")
+                .description("Compressible responses sent uncompressed because the gateway was over its CPU budget")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean test(HttpServerRequest request, HttpServerResponse response) {
+        if (currentLoad() <= maxCpuLoad) {
+            return true;
+        }
+        skipped.increment();
+        return false;
+    }
+
+    private double currentLoad() {
+        long now = nanoTime.getAsLong();
+        if (now - nextSampleAt >= 0) {
+            nextSampleAt = now + sampleIntervalNanos;
+            lastLoad = cpuLoad.getAsDouble();
+        }
+        return lastLoad;
+    }
+
+    /**
+     * Process CPU load between 0 and 1, or 0 (always under budget) where the JVM does not report it.
+     */
+    private static DoubleSupplier processCpuLoad() {
+        if (ManagementFactory.getOperatingSystemMXBean() instanceof com.sun.management.OperatingSystemMXBean os) {
+            return () -> Math.max(os.getProcessCpuLoad(), 0);
+        }
+        return () -> 0;
+    }
+}
@@ -0,0 +1,34 @@
+package com.medinsight.gateway.config;
+
+import com.medinsight.gateway.compression.CpuBudgetCompressionPredicate;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.web.embedded.netty.NettyServerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.util.function.BiPredicate;
+
+/**
+ * Adds the CPU budget to the compression set up by {@code server.compression}.
+ */
+@Configuration
+public class CompressionConfig {
+
+    /**
+     * Runs after Boot's own compression customizer; does nothing when compression is disabled.
+     */
+    @Bean
+    public NettyServerCustomizer compressionBudgetCustomizer(CompressionProperties properties,
+            MeterRegistry meterRegistry) {
+        return server -> {
+            BiPredicate<HttpServerRequest, HttpServerResponse> compressible =
+                    server.configuration().compressPredicate();
+            if (compressible == null) {
+                return server;
+            }
+            return server.compress(compressible.and(new CpuBudgetCompressionPredicate(properties, meterRegistry)));
+        };
+    }
+}
@@ -0,0 +1,23 @@
+package com.medinsight.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * CPU budget for response compression. Which responses are compressed
+ * (mime types, minimum size) is set under {@code server.compression}.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "gateway.compression")
+@Data
+public class CompressionProperties {
+
+    /** Above this share of the CPUs used by the gateway, responses go out uncompressed. */
+    private double maxCpuLoad = 0.8;
+
+    /** How long a CPU load reading is reused. */
+    private Duration cpuSampleInterval = Duration.ofSeconds(1);
+}
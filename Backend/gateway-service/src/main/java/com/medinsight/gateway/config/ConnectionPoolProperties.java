@@ -0,0 +1,92 @@
+package com.medinsight.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import reactor.netty.http.HttpProtocol;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Connection pools used to reach the backend services. Routes whose service ID
+ * (the host of their {@code lb://} URI) is listed under {@code services} get a
+ * pool of their own; the other routes share the default pool. Unset fields of
+ * a service pool are taken from the default pool.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "gateway.connection-pool")
+@Data
+public class ConnectionPoolProperties {
+
+    /** Name of the shared pool, as it appears in the pool metrics. */
+    public static final String DEFAULT_POOL = "gateway-default";
+
+    private Pool defaults = Pool.defaults();
+
+    private Map<String, Pool> services = new HashMap<>();
+
+    /**
+     * Settings of the pool used for a service, with unset fields filled in from {@link #defaults}.
+     */
+    public Pool poolFor(String serviceId) {
+        Pool pool = services.get(serviceId);
+        return pool != null ? pool.withDefaults(defaults) : defaults;
+    }
+
+    /**
+     * Limits apply to each backend instance, since Reactor Netty keeps one pool per remote address.
+     */
+    @Data
+    public static class Pool {
+
+        /** Connections kept open to one instance. */
+        private Integer maxConnections;
+
+        /** Requests waiting for a connection; more are rejected. -1 means no limit. */
+        private Integer pendingAcquireMaxCount;
+
+        /** Longest wait for a connection. */
+        private Duration pendingAcquireTimeout;
+
+        /** Idle connections are closed after this; keep it below the backends' keep-alive timeout. */
+        private Duration maxIdleTime;
+
+        /** Connections are replaced after this, so traffic spreads to new instances. */
+        private Duration maxLifeTime;
+
+        /** How often idle and expired connections are closed in the background. */
+        private Duration evictionInterval;
+
+        /** HTTP11, H2C, or both to upgrade from HTTP/1.1 to h2c. */
+        private List<HttpProtocol> protocols;
+
+        static Pool defaults() {
+            Pool pool = new Pool();
+            pool.setMaxConnections(200);
+            pool.setPendingAcquireMaxCount(1000);
+            pool.setPendingAcquireTimeout(Duration.ofSeconds(2));
+            pool.setMaxIdleTime(Duration.ofSeconds(15));
+            pool.setMaxLifeTime(Duration.ofMinutes(5));
+            pool.setEvictionInterval(Duration.ofSeconds(30));
+            pool.setProtocols(List.of(HttpProtocol.HTTP11));
+            return pool;
+        }
+
+        Pool withDefaults(Pool defaults) {
+            Pool pool = new Pool();
+            pool.setMaxConnections(maxConnections != null ? maxConnections : defaults.getMaxConnections());
+            pool.setPendingAcquireMaxCount(pendingAcquireMaxCount != null ? pendingAcquireMaxCount
+                    : defaults.getPendingAcquireMaxCount());
+            pool.setPendingAcquireTimeout(pendingAcquireTimeout != null ? pendingAcquireTimeout
+                    : defaults.getPendingAcquireTimeout());
+            pool.setMaxIdleTime(maxIdleTime != null ? maxIdleTime : defaults.getMaxIdleTime());
+            pool.setMaxLifeTime(maxLifeTime != null ? maxLifeTime : defaults.getMaxLifeTime());
+            pool.setEvictionInterval(evictionInterval != null ? evictionInterval : defaults.getEvictionInterval());
+            pool.setProtocols(protocols != null ? protocols : defaults.getProtocols());
+            return pool;
+        }
+    }
+}
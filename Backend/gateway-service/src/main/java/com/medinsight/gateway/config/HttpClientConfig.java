@@ -0,0 +1,50 @@
+package com.medinsight.gateway.config;
+
+import com.medinsight.gateway.routing.BackendHttpClientFactory;
+import com.medinsight.gateway.routing.ServicePoolRoutingFilter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.cloud.gateway.config.HttpClientFactory;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.config.HttpClientSslConfigurer;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.netty.http.client.HttpClient;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * HTTP clients used to call the backend services, one per connection pool in
+ * {@link ConnectionPoolProperties}. The stock routing filter is disabled in
+ * application.yml ({@code spring.cloud.gateway.global-filter.netty-routing.enabled})
+ * and replaced by {@link ServicePoolRoutingFilter}.
+ */
+@Configuration
+public class HttpClientConfig {
+
+    /**
+     * Replaces the stock factory so that the shared client uses the default pool.
+     */
+    @Bean
+    public HttpClientFactory gatewayHttpClientFactory(ConnectionPoolProperties pools, HttpClientProperties properties,
+            ServerProperties serverProperties, HttpClientSslConfigurer sslConfigurer,
+            List<HttpClientCustomizer> customizers) {
+        return new BackendHttpClientFactory(ConnectionPoolProperties.DEFAULT_POOL, pools.getDefaults(), properties,
+                serverProperties, sslConfigurer, customizers);
+    }
+
+    @Bean
+    public ServicePoolRoutingFilter servicePoolRoutingFilter(HttpClient httpClient, ConnectionPoolProperties pools,
+            HttpClientProperties properties, ServerProperties serverProperties, HttpClientSslConfigurer sslConfigurer,
+            List<HttpClientCustomizer> customizers, ObjectProvider<List<HttpHeadersFilter>> headersFilters) {
+        Map<String, HttpClient> serviceClients = new HashMap<>();
+        pools.getServices().keySet().forEach(serviceId -> serviceClients.put(serviceId,
+                new BackendHttpClientFactory(serviceId, pools.poolFor(serviceId), properties, serverProperties,
+                        sslConfigurer, customizers).newClient()));
+        return new ServicePoolRoutingFilter(httpClient, serviceClients, headersFilters, properties);
+    }
+}
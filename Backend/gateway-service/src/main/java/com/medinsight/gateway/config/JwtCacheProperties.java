@@ -0,0 +1,21 @@
+package com.medinsight.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the cache of validated access tokens.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "gateway.jwt-cache")
+@Data
+public class JwtCacheProperties {
+
+    private long maxEntries = 10_000;
+
+    /** Upper bound on how long a validated token is reused; tokens never outlive their own expiry. */
+    private Duration maxTtl = Duration.ofMinutes(5);
+}
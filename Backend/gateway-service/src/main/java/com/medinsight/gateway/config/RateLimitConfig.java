@@ -0,0 +1,37 @@
+package com.medinsight.gateway.config;
+
+import com.medinsight.gateway.ratelimit.InMemoryTokenBucketStore;
+import com.medinsight.gateway.ratelimit.QuotaKeyResolver;
+import com.medinsight.gateway.ratelimit.TokenBucketRateLimiter;
+import com.medinsight.gateway.ratelimit.TokenBucketStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Beans referenced by the {@code RequestRateLimiter} default filter in application.yml.
+ */
+@Configuration
+public class RateLimitConfig {
+
+    /**
+     * Buckets kept in memory, per gateway instance; no shared implementation exists yet.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public TokenBucketStore tokenBucketStore(RateLimitProperties properties) {
+        return new InMemoryTokenBucketStore(properties.getMaxBuckets());
+    }
+
+    @Bean
+    public QuotaKeyResolver quotaKeyResolver(RateLimitProperties properties) {
+        return new QuotaKeyResolver(properties);
+    }
+
+    @Bean
+    public TokenBucketRateLimiter tokenBucketRateLimiter(TokenBucketStore store, RateLimitProperties properties,
+            MeterRegistry meterRegistry) {
+        return new TokenBucketRateLimiter(store, properties, meterRegistry);
+    }
+}
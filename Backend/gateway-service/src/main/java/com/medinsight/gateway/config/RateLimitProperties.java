@@ -0,0 +1,69 @@
+package com.medinsight.gateway.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Configuration properties for the per-user, per-route request quotas.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "gateway.rate-limit")
+@Data
+public class RateLimitProperties {
+
+    public static final String ANONYMOUS_TIER = "anonymous";
+    public static final String DEFAULT_TIER = "default";
+
+    /** Lets every request through without removing the filter from the routes. */
+    private boolean enabled = true;
+
+    /**
+     * Reverse proxies in front of the gateway (1 behind the k8s ingress). Anonymous
+     * clients are then identified by the {@code X-Forwarded-For} entry these proxies
+     * added; with 0 the TCP peer is used, which behind a proxy is the proxy itself.
+     */
+    private int trustedProxies = 0;
+
+    /** Upper bound on the number of buckets the in-memory store keeps. */
+    private long maxBuckets = 100_000;
+
+    /** Quota of requests without a token, keyed by client address. */
+    private Quota anonymous = new Quota(5, 10);
+
+    /** Quota of authenticated users whose roles have no quota of their own. */
+    private Quota defaultQuota = new Quota(10, 20);
+
+    /** Quotas by realm role; a user with several roles gets the most generous one. */
+    private Map<String, Quota> roles = new LinkedHashMap<>();
+
+    public Quota quotaFor(String tier) {
+        if (ANONYMOUS_TIER.equals(tier)) {
+            return anonymous;
+        }
+        return roles.getOrDefault(tier, defaultQuota);
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Quota {
+
+        /** Tokens added to the bucket every second, i.e. the sustained request rate. */
+        private int replenishRate;
+
+        /** Size of the bucket, i.e. the largest burst accepted at once. */
+        private int burstCapacity;
+
+        /** Time an empty bucket takes to fill up again. */
+        public Duration refillTime() {
+            return Duration.ofMillis((long) Math.ceil(burstCapacity * 1000.0 / Math.max(replenishRate, 1)));
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.medinsight.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the cache behind the {@code ResponseCache} route filter.
+ * TTLs are set per route, as filter arguments.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "gateway.response-cache")
+@Data
+public class ResponseCacheProperties {
+
+    /** Total size of the cached bodies. */
+    private DataSize maxSize = DataSize.ofMegabytes(64);
+
+    /** Larger responses are passed through without being cached. */
+    private DataSize maxEntrySize = DataSize.ofMegabytes(1);
+
+    /** How long an expired entry with a backend ETag is kept for revalidation with If-None-Match. */
+    private Duration revalidateFor = Duration.ofMinutes(5);
+}
@@ -1,5 +1,7 @@
 package com.medinsight.gateway.config;
 
+import com.medinsight.gateway.security.CachingReactiveJwtDecoder;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Bean;
@@ -76,7 +78,7 @@ public class SecurityConfig {
             }
 
             // 3. Debug logging to understand 401/403 errors
-            log.info("Gateway Auth SUCCESS - User: {}, Roles: {}", jwt.getSubject(), authorities);
+            log.debug("Gateway Auth SUCCESS - User: {}, Roles: {}", jwt.getSubject(), authorities);
 
             return authorities;
         });
@@ -109,6 +111,9 @@ public class SecurityConfig {
                         // Auth Service (Login/Register)
                         .pathMatchers("/api/auth/**").permitAll()
 
+                        // Service-to-service endpoints are only reachable inside the cluster
+                        .pathMatchers("/api/*/internal/**").denyAll()
+
                         // RBAC Routes - Match Roles strictly
                         .pathMatchers("/api/admin/**").hasAnyRole("ADMIN", "GESTIONNAIRE")
                         .pathMatchers("/api/medecins/**").hasAnyRole("PATIENT", "ADMIN", "MEDECIN", "GESTIONNAIRE")
@@ -151,10 +156,11 @@ public class SecurityConfig {
     }
 
     /**
-     * Custom JWT Decoder to handle issuer mismatch (localhost vs keycloak)
+     * Custom JWT Decoder to handle issuer mismatch (localhost vs keycloak).
+     * Validated tokens are cached until they expire.
      */
     @Bean
-    public ReactiveJwtDecoder jwtDecoder() {
+    public ReactiveJwtDecoder jwtDecoder(JwtCacheProperties cacheProperties, MeterRegistry meterRegistry) {
         // Internal Docker URL for JWK Set
         String jwkSetUri = "http://keycloak:8080/realms/medinsight/protocol/openid-connect/certs";
         NimbusReactiveJwtDecoder jwtDecoder = NimbusReactiveJwtDecoder.withJwkSetUri(jwkSetUri).build();
@@ -164,7 +170,7 @@ public class SecurityConfig {
                 new JwtTimestampValidator(),
                 jwt -> {
                     String issuer = (jwt.getIssuer() != null) ? jwt.getIssuer().toString() : "unknown";
-                    log.info("Gateway validating token issuer: {}", issuer);
+                    log.debug("Gateway validating token issuer: {}", issuer);
 
                     // Allow both internal and external Keycloak references
                     if (issuer.contains("/realms/medinsight")) {
@@ -178,6 +184,7 @@ public class SecurityConfig {
                 });
 
         jwtDecoder.setJwtValidator(withIssuer);
-        return jwtDecoder;
+        return new CachingReactiveJwtDecoder(jwtDecoder, cacheProperties.getMaxEntries(),
+                cacheProperties.getMaxTtl(), meterRegistry);
     }
 }
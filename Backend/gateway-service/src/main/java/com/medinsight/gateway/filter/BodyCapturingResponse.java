@@ -0,0 +1,60 @@
+package com.medinsight.gateway.filter;
+
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import reactor.core.publisher.Mono;
+
+/**
+ * Response decorator that reads the whole upstream body into memory before
+ * writing it, for filters that need to share, store or rewrite it. Bodies it
+ * does not capture are streamed through unchanged.
+ */
+abstract class BodyCapturingResponse extends ServerHttpResponseDecorator {
+
+    /**
+     * Order of filters using this decorator: response bodies are only visible
+     * to filters that run before the one writing them.
+     */
+    static final int ORDER = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+
+    BodyCapturingResponse(ServerHttpResponse delegate) {
+        super(delegate);
+    }
+
+    @Override
+    public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+        if (!captures()) {
+            return super.writeWith(body);
+        }
+        return DataBufferUtils.join(body)
+                .map(joined -> {
+                    byte[] bytes = new byte[joined.readableByteCount()];
+                    joined.read(bytes);
+                    DataBufferUtils.release(joined);
+                    return bytes;
+                })
+                .defaultIfEmpty(new byte[0])
+                .flatMap(this::writeBody);
+    }
+
+    /**
+     * Whether the body of this response is captured; read once the status and
+     * headers are known.
+     */
+    protected boolean captures() {
+        return true;
+    }
+
+    /**
+     * Handles the captured body, usually ending with {@link #writeBytes}.
+     */
+    protected abstract Mono<Void> writeBody(byte[] body);
+
+    protected Mono<Void> writeBytes(byte[] bytes) {
+        return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+    }
+}
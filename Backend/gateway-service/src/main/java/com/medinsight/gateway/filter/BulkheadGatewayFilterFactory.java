@@ -0,0 +1,65 @@
+package com.medinsight.gateway.filter;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Caps the number of requests in flight to one downstream service, so a slow
+ * service cannot tie up the gateway for every other route. Limits come from
+ * {@code resilience4j.bulkhead.instances.<name>}; requests over the limit get
+ * 503 Service Unavailable.
+ *
+ * <pre>
+ * filters:
+ *   - Bulkhead=ml-service
+ * </pre>
+ */
+@Slf4j
+@Component
+public class BulkheadGatewayFilterFactory extends AbstractGatewayFilterFactory<BulkheadGatewayFilterFactory.Config> {
+
+    private final BulkheadRegistry registry;
+
+    public BulkheadGatewayFilterFactory(ObjectProvider<BulkheadRegistry> registry) {
+        super(Config.class);
+        this.registry = registry.getIfAvailable(BulkheadRegistry::ofDefaults);
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("name");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        Bulkhead bulkhead = registry.bulkhead(config.getName());
+        return (exchange, chain) -> chain.filter(exchange)
+                .transformDeferred(BulkheadOperator.of(bulkhead))
+                .onErrorResume(BulkheadFullException.class, e -> {
+                    log.warn("Bulkhead full - Service: {}, Path: {}", config.getName(),
+                            exchange.getRequest().getPath());
+                    return Mono.error(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                            config.getName() + " is handling too many requests", e));
+                });
+    }
+
+    @Data
+    public static class Config {
+
+        /** Bulkhead instance, usually the downstream service ID. */
+        private String name;
+    }
+}
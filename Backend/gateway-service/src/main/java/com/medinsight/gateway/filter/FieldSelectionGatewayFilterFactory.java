@@ -0,0 +1,184 @@
+package com.medinsight.gateway.filter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Trims JSON responses to the fields listed in the {@code fields} query
+ * parameter, e.g. {@code ?fields=id,dateTime,doctor.lastName}. Paths start at
+ * the root of the body and arrays are traversed, so {@code content.id} keeps
+ * the {@code id} of every element of a page. The parameter is not forwarded,
+ * so cached and coalesced responses are shared by every field selection.
+ * <p>
+ * A trimmed response has a weak ETag, since it is not the backend's
+ * representation byte for byte; If-None-Match still works.
+ */
+@Slf4j
+@Component
+public class FieldSelectionGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<FieldSelectionGatewayFilterFactory.Config> {
+
+    public static final String FIELDS_PARAM = "fields";
+
+    private final ObjectMapper objectMapper;
+
+    public FieldSelectionGatewayFilterFactory(ObjectMapper objectMapper) {
+        super(Config.class);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        GatewayFilter filter = (exchange, chain) -> {
+            List<String> selection = exchange.getRequest().getQueryParams().get(FIELDS_PARAM);
+            FieldTree fields = selection != null ? FieldTree.parse(selection) : FieldTree.EMPTY;
+            if (fields.isEmpty()) {
+                return chain.filter(exchange);
+            }
+            URI uri = UriComponentsBuilder.fromUri(exchange.getRequest().getURI())
+                    .replaceQueryParam(FIELDS_PARAM)
+                    .build(true)
+                    .toUri();
+            ServerHttpRequest request = exchange.getRequest().mutate()
+                    .uri(uri)
+                    .headers(headers -> headers.setIfNoneMatch(headers.getIfNoneMatch().stream()
+                            .map(FieldSelectionGatewayFilterFactory::strong)
+                            .toList()))
+                    .build();
+            ProjectingResponse response = new ProjectingResponse(exchange.getResponse(), fields,
+                    config.getMaxBodySize());
+            return chain.filter(exchange.mutate().request(request).response(response).build());
+        };
+        return new OrderedGatewayFilter(filter, BodyCapturingResponse.ORDER);
+    }
+
+    private static String strong(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    /**
+     * Selected paths as a tree; an empty subtree keeps the whole value.
+     */
+    record FieldTree(Map<String, FieldTree> children) {
+
+        static final FieldTree EMPTY = new FieldTree(Map.of());
+
+        static FieldTree parse(List<String> values) {
+            FieldTree root = new FieldTree(new LinkedHashMap<>());
+            values.stream()
+                    .flatMap(value -> List.of(value.split(",")).stream())
+                    .map(String::trim)
+                    .filter(path -> !path.isEmpty())
+                    .forEach(path -> {
+                        FieldTree node = root;
+                        for (String name : path.split("\\.")) {
+                            node = node.children().computeIfAbsent(name, n -> new FieldTree(new LinkedHashMap<>()));
+                        }
+                    });
+            return root;
+        }
+
+        boolean isEmpty() {
+            return children.isEmpty();
+        }
+
+        JsonNode project(JsonNode node) {
+            if (isEmpty()) {
+                return node;
+            }
+            if (node instanceof ArrayNode array) {
+                ArrayNode projected = array.arrayNode(array.size());
+                array.forEach(element -> projected.add(project(element)));
+                return projected;
+            }
+            if (node instanceof ObjectNode object) {
+                ObjectNode projected = object.objectNode();
+                children.forEach((name, subtree) -> {
+                    JsonNode value = object.get(name);
+                    if (value != null) {
+                        projected.set(name, subtree.project(value));
+                    }
+                });
+                return projected;
+            }
+            return node;
+        }
+    }
+
+    private class ProjectingResponse extends BodyCapturingResponse {
+
+        private final FieldTree fields;
+        private final DataSize maxBodySize;
+
+        ProjectingResponse(ServerHttpResponse delegate, FieldTree fields, DataSize maxBodySize) {
+            super(delegate);
+            this.fields = fields;
+            this.maxBodySize = maxBodySize;
+            delegate.beforeCommit(() -> {
+                String etag = getHeaders().getETag();
+                if (etag != null && !etag.startsWith("W/")) {
+                    getHeaders().setETag("W/" + etag);
+                }
+                return Mono.empty();
+            });
+        }
+
+        @Override
+        protected Mono<Void> writeBody(byte[] body) {
+            byte[] projected = project(body);
+            getHeaders().setContentLength(projected.length);
+            return writeBytes(projected);
+        }
+
+        @Override
+        protected boolean captures() {
+            MediaType contentType = getHeaders().getContentType();
+            long contentLength = getHeaders().getContentLength();
+            return getStatusCode() != null && getStatusCode().is2xxSuccessful()
+                    && contentType != null
+                    && (contentType.isCompatibleWith(MediaType.APPLICATION_JSON)
+                            || contentType.getSubtype().endsWith("+json"))
+                    && contentLength <= maxBodySize.toBytes();
+        }
+
+        private byte[] project(byte[] body) {
+            if (body.length == 0 || body.length > maxBodySize.toBytes()) {
+                return body;
+            }
+            try {
+                return objectMapper.writeValueAsBytes(fields.project(objectMapper.readTree(body)));
+            } catch (IOException e) {
+                log.debug("Response is not valid JSON, returning it untrimmed: {}", e.getMessage());
+                return body;
+            }
+        }
+    }
+
+    @Data
+    public static class Config {
+
+        /** Larger responses are returned whole. */
+        private DataSize maxBodySize = DataSize.ofMegabytes(4);
+    }
+}
@@ -0,0 +1,66 @@
+package com.medinsight.gateway.filter;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.RetryGatewayFilterFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.retry.Jitter;
+import reactor.retry.Repeat;
+import reactor.retry.Retry;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The standard {@code Retry} filter, restricted to idempotent methods and with
+ * random jitter on the backoff, so retries from many requests do not hit a
+ * recovering service in lockstep. Takes the same arguments as {@code Retry};
+ * non-idempotent methods such as POST are dropped from {@code methods}.
+ * <p>
+ * Unlike {@code Retry}, the defaults only retry GET and HEAD on connection
+ * errors, 502 and 503: a 500 is an application error and a timeout has
+ * already used up the route's time budget.
+ */
+@Slf4j
+@Component
+public class IdempotentRetryGatewayFilterFactory extends RetryGatewayFilterFactory {
+
+    private static final Set<HttpMethod> IDEMPOTENT_METHODS = Set.of(HttpMethod.GET, HttpMethod.HEAD,
+            HttpMethod.OPTIONS, HttpMethod.PUT, HttpMethod.DELETE, HttpMethod.TRACE);
+
+    /** Each backoff delay is picked at random within ±50% of its nominal value. */
+    private static final Jitter JITTER = Jitter.random(0.5);
+
+    @Override
+    public RetryConfig newConfig() {
+        RetryConfig config = new RetryConfig();
+        config.setMethods(HttpMethod.GET, HttpMethod.HEAD);
+        config.setSeries();
+        config.setStatuses(HttpStatus.BAD_GATEWAY, HttpStatus.SERVICE_UNAVAILABLE);
+        config.setExceptions(IOException.class);
+        config.setBackoff(Duration.ofMillis(50), Duration.ofMillis(500), 2, true);
+        return config;
+    }
+
+    @Override
+    public GatewayFilter apply(RetryConfig config) {
+        List<HttpMethod> methods = config.getMethods().stream().filter(IDEMPOTENT_METHODS::contains).toList();
+        if (methods.size() < config.getMethods().size()) {
+            log.warn("Route {}: retries are limited to idempotent methods, ignoring {}", config.getRouteId(),
+                    config.getMethods().stream().filter(method -> !IDEMPOTENT_METHODS.contains(method)).toList());
+        }
+        config.setMethods(methods.toArray(HttpMethod[]::new));
+        return super.apply(config);
+    }
+
+    @Override
+    public GatewayFilter apply(String routeId, Repeat<ServerWebExchange> repeat, Retry<ServerWebExchange> retry) {
+        return super.apply(routeId, repeat != null ? repeat.jitter(JITTER) : null,
+                retry != null ? retry.jitter(JITTER) : null);
+    }
+}
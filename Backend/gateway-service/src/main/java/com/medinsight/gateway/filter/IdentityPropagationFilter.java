@@ -0,0 +1,54 @@
+package com.medinsight.gateway.filter;
+
+import com.medinsight.common.security.InternalIdentity;
+import com.medinsight.common.security.InternalIdentitySigner;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Forwards the identity the gateway verified as signed headers, so services
+ * trust it instead of verifying the JWT again. Identity headers sent by
+ * clients are always dropped; without a shared secret none are added.
+ */
+@Component
+public class IdentityPropagationFilter implements GlobalFilter, Ordered {
+
+    private final InternalIdentitySigner signer;
+
+    public IdentityPropagationFilter(ObjectProvider<InternalIdentitySigner> signer) {
+        this.signer = signer.getIfAvailable();
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        return exchange.getPrincipal()
+                .filter(JwtAuthenticationToken.class::isInstance)
+                .map(principal -> forward(exchange, ((JwtAuthenticationToken) principal).getToken()))
+                .switchIfEmpty(Mono.fromSupplier(() -> forward(exchange, null)))
+                .flatMap(chain::filter);
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    private ServerWebExchange forward(ServerWebExchange exchange, Jwt jwt) {
+        InternalIdentity identity = signer != null && jwt != null ? InternalIdentity.of(jwt) : null;
+        return exchange.mutate()
+                .request(request -> request.headers(headers -> {
+                    InternalIdentity.HEADERS.forEach(headers::remove);
+                    if (identity != null) {
+                        identity.writeHeaders(headers::set, signer.sign(identity, jwt.getTokenValue()));
+                    }
+                }))
+                .build();
+    }
+}
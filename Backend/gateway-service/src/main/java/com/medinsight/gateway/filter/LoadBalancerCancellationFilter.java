@@ -0,0 +1,53 @@
+package com.medinsight.gateway.filter;
+
+import com.medinsight.common.loadbalancer.LoadBalancerStats;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR;
+
+/**
+ * Releases the in-flight slot of a load-balanced call that was cancelled
+ * (client disconnect, route timeout): the load-balancer filter only reports
+ * completions on success or error, so the instance would otherwise look
+ * busy forever.
+ */
+@Component
+public class LoadBalancerCancellationFilter implements GlobalFilter, Ordered {
+
+    private final LoadBalancerStats stats;
+
+    public LoadBalancerCancellationFilter(ObjectProvider<LoadBalancerStats> stats) {
+        this.stats = stats.getIfAvailable();
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (stats == null) {
+            return chain.filter(exchange);
+        }
+        return chain.filter(exchange).doFinally(signal -> {
+            Response<ServiceInstance> response = exchange.getAttribute(GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+            if (signal == SignalType.CANCEL && response != null && response.hasServer()) {
+                stats.cancelled(response.getServer());
+            }
+        });
+    }
+
+    /**
+     * Right after the load-balancer filter, which has chosen the instance by then.
+     */
+    @Override
+    public int getOrder() {
+        return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER + 1;
+    }
+}
@@ -0,0 +1,171 @@
+package com.medinsight.gateway.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Data;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collapses identical GETs that are in flight at the same time into one
+ * upstream call. The first request goes upstream; the others, with the same
+ * key in the route's {@link RequestScope}, wait at most {@code maxWait} for
+ * its response and receive a copy of it. A waiter that times out, or whose
+ * leader fails, makes its own call. Nothing is kept once the response is
+ * sent, so a later request always goes upstream.
+ *
+ * <pre>
+ * filters:
+ *   - RequestCoalescing=2s,ROLES
+ * </pre>
+ */
+@Component
+public class RequestCoalescingGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<RequestCoalescingGatewayFilterFactory.Config> {
+
+    private final Map<String, Sinks.One<SharedResponse>> inFlight = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public RequestCoalescingGatewayFilterFactory(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("maxWait", "scope");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        GatewayFilter filter = (exchange, chain) -> {
+            if (exchange.getRequest().getMethod() != HttpMethod.GET) {
+                return chain.filter(exchange);
+            }
+            return config.getScope().key(exchange).flatMap(scopeKey -> {
+                if (scopeKey.isEmpty()) {
+                    return chain.filter(exchange);
+                }
+                // Conditional requests only share with identical ones, so a 304 never reaches a plain GET
+                String key = scopeKey + " " + exchange.getRequest().getHeaders().getIfNoneMatch();
+                Sinks.One<SharedResponse> leader = Sinks.one();
+                Sinks.One<SharedResponse> existing = inFlight.putIfAbsent(key, leader);
+                if (existing == null) {
+                    return lead(exchange, chain, key, leader);
+                }
+                return follow(exchange, chain, existing, config.getMaxWait());
+            });
+        };
+        return new OrderedGatewayFilter(filter, BodyCapturingResponse.ORDER);
+    }
+
+    private Mono<Void> lead(ServerWebExchange exchange, GatewayFilterChain chain, String key,
+            Sinks.One<SharedResponse> sink) {
+        Set<String> gatewayHeaders = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        gatewayHeaders.addAll(exchange.getResponse().getHeaders().keySet());
+        SharingResponse response = new SharingResponse(exchange.getResponse(), gatewayHeaders, sink);
+        return chain.filter(exchange.mutate().response(response).build())
+                .doFinally(signal -> {
+                    inFlight.remove(key, sink);
+                    // Waiters make their own call when no response was shared
+                    sink.tryEmitEmpty();
+                });
+    }
+
+    private Mono<Void> follow(ServerWebExchange exchange, GatewayFilterChain chain, Sinks.One<SharedResponse> leader,
+            Duration maxWait) {
+        return leader.asMono()
+                .timeout(maxWait)
+                .map(Optional::of)
+                .onErrorResume(e -> Mono.just(Optional.empty()))
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(shared -> {
+                    if (shared.isEmpty()) {
+                        return chain.filter(exchange);
+                    }
+                    Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+                    Counter.builder("gateway.requests.coalesced")
+                            .description("Requests answered with the response of an identical in-flight request")
+                            .tag("route", route != null ? route.getId() : "unknown")
+                            .register(meterRegistry)
+                            .increment();
+                    return shared.get().writeTo(exchange.getResponse());
+                });
+    }
+
+    /**
+     * Upstream status, headers and body, copied to every waiting request.
+     */
+    private record SharedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body) {
+
+        Mono<Void> writeTo(ServerHttpResponse response) {
+            response.setStatusCode(status);
+            response.getHeaders().putAll(headers);
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+        }
+    }
+
+    /**
+     * Buffers the leader's upstream response and publishes it before passing it on.
+     */
+    private static class SharingResponse extends BodyCapturingResponse {
+
+        private final Set<String> gatewayHeaders;
+        private final Sinks.One<SharedResponse> sink;
+
+        SharingResponse(ServerHttpResponse delegate, Set<String> gatewayHeaders, Sinks.One<SharedResponse> sink) {
+            super(delegate);
+            this.gatewayHeaders = gatewayHeaders;
+            this.sink = sink;
+        }
+
+        @Override
+        protected Mono<Void> writeBody(byte[] body) {
+            sink.tryEmitValue(new SharedResponse(getStatusCode(), upstreamHeaders(), body));
+            return writeBytes(body);
+        }
+
+        /**
+         * Headers added by the upstream service. Those the gateway set before
+         * routing, such as CORS and rate-limit headers, belong to each request.
+         */
+        private HttpHeaders upstreamHeaders() {
+            HttpHeaders upstream = new HttpHeaders();
+            getHeaders().forEach((name, values) -> {
+                if (!gatewayHeaders.contains(name)) {
+                    upstream.put(name, List.copyOf(values));
+                }
+            });
+            return upstream;
+        }
+    }
+
+    @Data
+    public static class Config {
+
+        /** Longest time a request waits for an identical in-flight request before going upstream itself. */
+        private Duration maxWait = Duration.ofSeconds(2);
+
+        private RequestScope scope = RequestScope.USER;
+    }
+}
@@ -0,0 +1,66 @@
+package com.medinsight.gateway.filter;
+
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.security.Principal;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Who may share a response with whom, for the filters that reuse one
+ * upstream response across requests.
+ */
+public enum RequestScope {
+
+    /** Every authorized caller; for data that does not depend on who asks. */
+    SHARED,
+
+    /**
+     * Callers with the same roles. Backends authorize by role, so a response
+     * is only shared with callers the backend would have answered the same.
+     */
+    ROLES,
+
+    /** Callers with the same JWT subject. */
+    USER;
+
+    /**
+     * Key of a request within this scope: route, path, sorted query
+     * parameters and, for {@link #ROLES} and {@link #USER}, the roles or the
+     * subject. Empty when the scope is not {@link #SHARED} and the request is
+     * anonymous, i.e. nothing may be shared.
+     */
+    public Mono<String> key(ServerWebExchange exchange) {
+        Mono<String> partition = switch (this) {
+            case SHARED -> Mono.just("*");
+            case ROLES -> exchange.getPrincipal().map(RequestScope::roles).defaultIfEmpty("");
+            case USER -> exchange.getPrincipal().map(Principal::getName).defaultIfEmpty("");
+        };
+        return partition.map(scope -> scope.isEmpty() ? "" : requestKey(exchange) + " " + scope);
+    }
+
+    private static String roles(Principal principal) {
+        if (!(principal instanceof Authentication authentication)) {
+            return "";
+        }
+        return authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .filter(authority -> authority.startsWith("ROLE_"))
+                .sorted()
+                .distinct()
+                .collect(Collectors.joining(","));
+    }
+
+    private static String requestKey(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        ServerHttpRequest request = exchange.getRequest();
+        return (route != null ? route.getId() : "") + " " + request.getPath().value()
+                + "?" + new TreeMap<>(request.getQueryParams());
+    }
+}
@@ -0,0 +1,207 @@
+package com.medinsight.gateway.filter;
+
+import com.medinsight.gateway.cache.ResponseCache;
+import com.medinsight.gateway.cache.ResponseCache.CachedResponse;
+import com.medinsight.gateway.config.ResponseCacheProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Data;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Serves GET responses of a route from {@link ResponseCache} while they are
+ * fresh. Once expired, an entry is revalidated with {@code If-None-Match}
+ * when the backend sent an ETag. Clients get an {@code ETag} and a
+ * {@code Cache-Control: private, max-age} matching the remaining TTL, and a
+ * 304 when their {@code If-None-Match} still matches. Responses the backend
+ * marks {@code no-store}, {@code private} or {@code Vary} pass through unstored.
+ *
+ * <pre>
+ * filters:
+ *   - ResponseCache=60s,ROLES
+ * </pre>
+ */
+@Component
+public class ResponseCacheGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<ResponseCacheGatewayFilterFactory.Config> {
+
+    public static final String CACHE_STATUS_HEADER = "X-Cache";
+
+    private final ResponseCache cache;
+
+    @Autowired
+    public ResponseCacheGatewayFilterFactory(ResponseCacheProperties properties, MeterRegistry meterRegistry) {
+        this(new ResponseCache(properties, meterRegistry));
+    }
+
+    ResponseCacheGatewayFilterFactory(ResponseCache cache) {
+        super(Config.class);
+        this.cache = cache;
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("ttl", "scope");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        GatewayFilter filter = (exchange, chain) -> {
+            if (exchange.getRequest().getMethod() != HttpMethod.GET) {
+                return chain.filter(exchange);
+            }
+            return config.getScope().key(exchange).flatMap(key -> {
+                if (key.isEmpty()) {
+                    return chain.filter(exchange);
+                }
+                List<String> clientEtags = exchange.getRequest().getHeaders().getIfNoneMatch();
+                CachedResponse cached = cache.get(key);
+                if (cached != null && cache.isFresh(cached)) {
+                    return respond(exchange.getResponse(), cached, clientEtags, "HIT");
+                }
+
+                // The gateway answers If-None-Match itself; the backend only sees the cached entry's ETag
+                ServerHttpRequest request = exchange.getRequest().mutate()
+                        .headers(headers -> {
+                            headers.remove(HttpHeaders.IF_NONE_MATCH);
+                            if (cached != null && cached.revalidatable()) {
+                                headers.setIfNoneMatch(cached.etag());
+                            }
+                        })
+                        .build();
+                CachingResponse response = new CachingResponse(exchange, key, cached, clientEtags, config.getTtl());
+                return chain.filter(exchange.mutate().request(request).response(response).build());
+            });
+        };
+        return new OrderedGatewayFilter(filter, BodyCapturingResponse.ORDER);
+    }
+
+    private Mono<Void> respond(ServerHttpResponse response, CachedResponse entry, List<String> clientEtags,
+            String cacheStatus) {
+        HttpHeaders headers = response.getHeaders();
+        headers.setETag(entry.etag());
+        headers.setCacheControl(CacheControl.maxAge(cache.remainingTtl(entry)).cachePrivate());
+        headers.remove(HttpHeaders.PRAGMA);
+        headers.remove(HttpHeaders.EXPIRES);
+        headers.set(CACHE_STATUS_HEADER, cacheStatus);
+        if (clientEtags.contains(entry.etag()) || clientEtags.contains("*")) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+            return response.setComplete();
+        }
+        response.setStatusCode(HttpStatus.OK);
+        headers.setContentType(entry.contentType());
+        headers.setContentLength(entry.body().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(entry.body())));
+    }
+
+    /**
+     * Whether the backend lets the gateway keep its response: no
+     * {@code Cache-Control: no-store} or {@code private}, and no {@code Vary},
+     * since entries are not keyed on the headers it would name.
+     */
+    private static boolean storable(HttpHeaders backendHeaders) {
+        if (backendHeaders.containsKey(HttpHeaders.VARY)) {
+            return false;
+        }
+        for (String value : backendHeaders.getOrEmpty(HttpHeaders.CACHE_CONTROL)) {
+            for (String directive : value.split(",")) {
+                String name = directive.split("=", 2)[0].trim().toLowerCase(Locale.ROOT);
+                if (name.equals("no-store") || name.equals("private")) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Stores 200 responses and replaces a backend 304 with the revalidated entry.
+     */
+    private class CachingResponse extends BodyCapturingResponse {
+
+        private final ServerWebExchange exchange;
+        private final String key;
+        private final CachedResponse stale;
+        private final List<String> clientEtags;
+        private final Duration ttl;
+
+        CachingResponse(ServerWebExchange exchange, String key, CachedResponse stale, List<String> clientEtags,
+                Duration ttl) {
+            super(exchange.getResponse());
+            this.exchange = exchange;
+            this.key = key;
+            this.stale = stale;
+            this.clientEtags = clientEtags;
+            this.ttl = ttl;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            if (getStatusCode() == HttpStatus.NOT_MODIFIED && stale != null && stale.revalidatable()) {
+                return Flux.from(body)
+                        .doOnNext(DataBufferUtils::release)
+                        .then(Mono.defer(() -> respond(getDelegate(), cache.revalidated(key, stale, ttl), clientEtags,
+                                "REVALIDATED")));
+            }
+            return super.writeWith(body);
+        }
+
+        @Override
+        protected boolean captures() {
+            return getStatusCode() == HttpStatus.OK && !getHeaders().containsKey(HttpHeaders.SET_COOKIE)
+                    && storable(backendHeaders());
+        }
+
+        /**
+         * The response headers the backend sent, as listed by the routing
+         * filter; the response also holds the gateway's own, such as the
+         * {@code Vary} of its CORS filter.
+         */
+        private HttpHeaders backendHeaders() {
+            Set<String> names = exchange.getAttributeOrDefault(ServerWebExchangeUtils.CLIENT_RESPONSE_HEADER_NAMES,
+                    getHeaders().keySet());
+            HttpHeaders headers = new HttpHeaders();
+            names.forEach(name -> headers.addAll(name, getHeaders().getOrEmpty(name)));
+            return headers;
+        }
+
+        @Override
+        protected Mono<Void> writeBody(byte[] body) {
+            CachedResponse entry = cache.put(key, body, getHeaders().getContentType(), getHeaders().getETag(), ttl);
+            if (entry == null) {
+                return writeBytes(body);
+            }
+            return respond(getDelegate(), entry, clientEtags, "MISS");
+        }
+    }
+
+    @Data
+    public static class Config {
+
+        private Duration ttl = Duration.ofSeconds(30);
+
+        private RequestScope scope = RequestScope.USER;
+    }
+}
@@ -0,0 +1,83 @@
+package com.medinsight.gateway.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.medinsight.gateway.config.RateLimitProperties.Quota;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token buckets held in the gateway's memory. A bucket is dropped once it has
+ * been idle long enough to be full again, since a new bucket is then identical.
+ */
+public class InMemoryTokenBucketStore implements TokenBucketStore {
+
+    private final Cache<String, Bucket> buckets;
+    private final Ticker ticker;
+
+    public InMemoryTokenBucketStore(long maxBuckets) {
+        this(maxBuckets, Ticker.systemTicker());
+    }
+
+    InMemoryTokenBucketStore(long maxBuckets, Ticker ticker) {
+        this.ticker = ticker;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxBuckets)
+                .expireAfter(new IdleUntilFull())
+                .ticker(ticker)
+                .build();
+    }
+
+    @Override
+    public Mono<Consumption> tryConsume(String key, Quota quota) {
+        return Mono.fromSupplier(() -> {
+            long now = ticker.read();
+            return buckets.get(key, k -> new Bucket(quota, now)).tryConsume(quota, now);
+        });
+    }
+
+    private static final class Bucket {
+
+        private final long refillNanos;
+        private double tokens;
+        private long refilledAt;
+
+        private Bucket(Quota quota, long now) {
+            this.refillNanos = quota.refillTime().toNanos();
+            this.tokens = quota.getBurstCapacity();
+            this.refilledAt = now;
+        }
+
+        synchronized Consumption tryConsume(Quota quota, long now) {
+            double rate = Math.max(quota.getReplenishRate(), 1);
+            tokens = Math.min(quota.getBurstCapacity(), tokens + (now - refilledAt) * rate / TimeUnit.SECONDS.toNanos(1));
+            refilledAt = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return new Consumption(true, (long) tokens, 0);
+            }
+            return new Consumption(false, 0, Math.max((long) Math.ceil((1 - tokens) / rate), 1));
+        }
+    }
+
+    private static final class IdleUntilFull implements Expiry<String, Bucket> {
+
+        @Override
+        public long expireAfterCreate(String key, Bucket bucket, long currentTime) {
+            return bucket.refillNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Bucket bucket, long currentTime, long currentDuration) {
+            return bucket.refillNanos;
+        }
+
+        @Override
+        public long expireAfterRead(String key, Bucket bucket, long currentTime, long currentDuration) {
+            return bucket.refillNanos;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.medinsight.gateway.ratelimit;
+
+import com.medinsight.common.security.MedInsightPrincipal;
+import com.medinsight.common.security.Role;
+import com.medinsight.gateway.config.RateLimitProperties;
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.cloud.gateway.support.ipresolver.RemoteAddressResolver;
+import org.springframework.cloud.gateway.support.ipresolver.XForwardedRemoteAddressResolver;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.Comparator;
+
+/**
+ * Rate-limit key of a request, as {@code <tier>:<id>}. Authenticated users are
+ * keyed by their JWT subject under the role with the most generous quota;
+ * anonymous requests are keyed by client address. Behind a reverse proxy the
+ * client address is read from {@code X-Forwarded-For}, trusting only the
+ * last {@code trusted-proxies} entries, which the proxies appended themselves.
+ */
+public class QuotaKeyResolver implements KeyResolver {
+
+    private final RateLimitProperties properties;
+    private final RemoteAddressResolver addressResolver;
+
+    public QuotaKeyResolver(RateLimitProperties properties) {
+        this.properties = properties;
+        this.addressResolver = properties.getTrustedProxies() > 0
+                ? XForwardedRemoteAddressResolver.maxTrustedIndex(properties.getTrustedProxies())
+                : new RemoteAddressResolver() {
+                };
+    }
+
+    @Override
+    public Mono<String> resolve(ServerWebExchange exchange) {
+        return exchange.getPrincipal()
+                .filter(Authentication.class::isInstance)
+                .mapNotNull(principal -> MedInsightPrincipal.from((Authentication) principal))
+                .map(principal -> tier(principal) + ":" + principal.id())
+                .switchIfEmpty(Mono.fromSupplier(() -> RateLimitProperties.ANONYMOUS_TIER + ":" + clientAddress(exchange)));
+    }
+
+    private String tier(MedInsightPrincipal principal) {
+        return principal.roles().stream()
+                .map(Role::name)
+                .filter(properties.getRoles()::containsKey)
+                .max(Comparator.comparingInt(role -> properties.quotaFor(role).getReplenishRate()))
+                .orElse(RateLimitProperties.DEFAULT_TIER);
+    }
+
+    private String clientAddress(ServerWebExchange exchange) {
+        InetSocketAddress address = addressResolver.resolve(exchange);
+        return address != null ? address.getHostString() : "unknown";
+    }
+}
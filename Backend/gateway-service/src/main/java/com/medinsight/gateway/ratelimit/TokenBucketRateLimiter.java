@@ -0,0 +1,75 @@
+package com.medinsight.gateway.ratelimit;
+
+import com.medinsight.gateway.config.RateLimitProperties;
+import com.medinsight.gateway.config.RateLimitProperties.Quota;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Token-bucket limiter for the {@code RequestRateLimiter} filter. Each key
+ * from {@link QuotaKeyResolver} gets one bucket per route, sized by the quota
+ * of its tier. Rejections are counted in {@code gateway.ratelimit.rejected}.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class TokenBucketRateLimiter implements RateLimiter<Object> {
+
+    public static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+    public static final String REPLENISH_RATE_HEADER = "X-RateLimit-Replenish-Rate";
+    public static final String BURST_CAPACITY_HEADER = "X-RateLimit-Burst-Capacity";
+    public static final String RETRY_AFTER_HEADER = "Retry-After";
+
+    private final TokenBucketStore store;
+    private final RateLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        if (!properties.isEnabled()) {
+            return Mono.just(new Response(true, Map.of()));
+        }
+        int separator = id.indexOf(':');
+        String tier = separator > 0 ? id.substring(0, separator) : RateLimitProperties.DEFAULT_TIER;
+        Quota quota = properties.quotaFor(tier);
+
+        return store.tryConsume(routeId + "|" + id, quota).map(consumption -> {
+            Map<String, String> headers = new HashMap<>();
+            headers.put(REMAINING_HEADER, String.valueOf(consumption.remaining()));
+            headers.put(REPLENISH_RATE_HEADER, String.valueOf(quota.getReplenishRate()));
+            headers.put(BURST_CAPACITY_HEADER, String.valueOf(quota.getBurstCapacity()));
+            if (!consumption.allowed()) {
+                headers.put(RETRY_AFTER_HEADER, String.valueOf(consumption.retryAfterSeconds()));
+                log.debug("Rate limit exceeded - Route: {}, Key: {}", routeId, id);
+                Counter.builder("gateway.ratelimit.rejected")
+                        .description("Requests rejected because the caller's quota was exhausted")
+                        .tag("route", routeId)
+                        .tag("tier", tier)
+                        .register(meterRegistry)
+                        .increment();
+            }
+            return new Response(consumption.allowed(), headers);
+        });
+    }
+
+    @Override
+    public Map<String, Object> getConfig() {
+        return Map.of();
+    }
+
+    @Override
+    public Class<Object> getConfigClass() {
+        return Object.class;
+    }
+
+    @Override
+    public Object newConfig() {
+        return new Object();
+    }
+}
@@ -0,0 +1,27 @@
+package com.medinsight.gateway.ratelimit;
+
+import com.medinsight.gateway.config.RateLimitProperties.Quota;
+import reactor.core.publisher.Mono;
+
+/**
+ * Holds the token buckets behind {@link TokenBucketRateLimiter}. Only
+ * {@link InMemoryTokenBucketStore} exists, which suits the single gateway
+ * instance deployed today; with several instances each one enforces the full
+ * quota, until a bean backed by a shared store is declared here.
+ */
+public interface TokenBucketStore {
+
+    /**
+     * Takes one token from the bucket of {@code key}, creating a full bucket
+     * sized by {@code quota} when there is none yet.
+     */
+    Mono<Consumption> tryConsume(String key, Quota quota);
+
+    /**
+     * @param allowed           whether a token was available
+     * @param remaining         tokens left in the bucket
+     * @param retryAfterSeconds when rejected, seconds until the next token is available
+     */
+    record Consumption(boolean allowed, long remaining, long retryAfterSeconds) {
+    }
+}
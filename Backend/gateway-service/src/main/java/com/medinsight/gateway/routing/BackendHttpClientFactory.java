@@ -0,0 +1,62 @@
+package com.medinsight.gateway.routing;
+
+import com.medinsight.gateway.config.ConnectionPoolProperties;
+import io.netty.channel.ChannelOption;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.cloud.gateway.config.HttpClientFactory;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.config.HttpClientSslConfigurer;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.List;
+
+/**
+ * Builds a gateway {@link HttpClient} on a named connection pool. Everything
+ * except the pool and the protocols comes from
+ * {@code spring.cloud.gateway.httpclient}, as for the stock client. Pool
+ * metrics are published as {@code reactor_netty_connection_provider_*}, tagged
+ * with the pool name.
+ */
+public class BackendHttpClientFactory extends HttpClientFactory {
+
+    private final String poolName;
+    private final ConnectionPoolProperties.Pool pool;
+
+    public BackendHttpClientFactory(String poolName, ConnectionPoolProperties.Pool pool,
+            HttpClientProperties properties, ServerProperties serverProperties,
+            HttpClientSslConfigurer sslConfigurer, List<HttpClientCustomizer> customizers) {
+        super(properties, serverProperties, sslConfigurer, customizers);
+        this.poolName = poolName;
+        this.pool = pool;
+    }
+
+    /**
+     * A client on this factory's pool, for use outside the bean factory.
+     */
+    public HttpClient newClient() {
+        return createInstance();
+    }
+
+    @Override
+    protected HttpClient createInstance() {
+        return super.createInstance()
+                .protocol(pool.getProtocols().toArray(HttpProtocol[]::new))
+                .option(ChannelOption.SO_KEEPALIVE, true);
+    }
+
+    @Override
+    protected ConnectionProvider buildConnectionProvider(HttpClientProperties properties) {
+        return ConnectionProvider.builder(poolName)
+                .maxConnections(pool.getMaxConnections())
+                .pendingAcquireMaxCount(pool.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(pool.getPendingAcquireTimeout())
+                .maxIdleTime(pool.getMaxIdleTime())
+                .maxLifeTime(pool.getMaxLifeTime())
+                .evictInBackground(pool.getEvictionInterval())
+                .metrics(true)
+                .build();
+    }
+}
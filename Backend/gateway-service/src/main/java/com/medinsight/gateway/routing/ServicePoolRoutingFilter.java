@@ -0,0 +1,52 @@
+package com.medinsight.gateway.routing;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.netty.http.client.HttpClient;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.springframework.cloud.gateway.support.RouteMetadataUtils.CONNECT_TIMEOUT_ATTR;
+
+/**
+ * The stock routing filter, except that routes to a service with its own
+ * connection pool use that pool's client. The route's service is the host of
+ * its {@code lb://} URI; other routes use the shared client.
+ */
+public class ServicePoolRoutingFilter extends NettyRoutingFilter implements DisposableBean {
+
+    private final Map<String, HttpClient> serviceClients;
+
+    public ServicePoolRoutingFilter(HttpClient httpClient, Map<String, HttpClient> serviceClients,
+            ObjectProvider<List<HttpHeadersFilter>> headersFilters, HttpClientProperties properties) {
+        super(httpClient, headersFilters, properties);
+        this.serviceClients = Map.copyOf(serviceClients);
+    }
+
+    @Override
+    protected HttpClient getHttpClient(Route route, ServerWebExchange exchange) {
+        HttpClient client = serviceClients.get(route.getUri().getHost());
+        if (client == null) {
+            return super.getHttpClient(route, exchange);
+        }
+        Object connectTimeout = route.getMetadata().get(CONNECT_TIMEOUT_ATTR);
+        if (connectTimeout != null) {
+            int millis = connectTimeout instanceof Number number ? number.intValue()
+                    : Integer.parseInt(connectTimeout.toString());
+            return client.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, millis);
+        }
+        return client;
+    }
+
+    @Override
+    public void destroy() {
+        serviceClients.values().forEach(client -> client.configuration().connectionProvider().dispose());
+    }
+}
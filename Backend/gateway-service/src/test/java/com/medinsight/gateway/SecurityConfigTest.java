@@ -14,6 +14,7 @@ import static org.springframework.security.test.web.reactive.server.SecurityMock
 
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 /**
  * Security integration tests for the Gateway.
@@ -138,4 +139,17 @@ class SecurityConfigTest {
                     .expectStatus().isUnauthorized();
         }
     }
+
+    @Nested
+    class InternalEndpoints {
+        @Test
+        @DisplayName("/api/*/internal/** is refused even with a valid token -> 403")
+        void internalEndpointsNotExposed() {
+            webTestClient.mutateWith(mockJwt().jwt(jwt ->
+                            jwt.claim("realm_access", Map.of("roles", List.of("ADMIN")))))
+                    .post().uri("/api/records/internal/patients/" + UUID.randomUUID() + "/history-changed")
+                    .exchange()
+                    .expectStatus().isForbidden();
+        }
+    }
 }
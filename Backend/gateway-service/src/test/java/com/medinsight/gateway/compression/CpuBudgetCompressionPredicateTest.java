@@ -0,0 +1,33 @@
+package com.medinsight.gateway.compression;
+
+import com.medinsight.gateway.config.CompressionProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CpuBudgetCompressionPredicateTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong now = new AtomicLong();
+    private double load = 0.5;
+
+    @Test
+    @DisplayName("Compression stops while the CPU load is over budget, re-reading the load once per interval")
+    void test_FollowsSampledCpuLoad() {
+        CpuBudgetCompressionPredicate predicate = new CpuBudgetCompressionPredicate(new CompressionProperties(),
+                meterRegistry, () -> load, now::get);
+        assertThat(predicate.test(null, null)).isTrue();
+
+        load = 0.95;
+        assertThat(predicate.test(null, null)).isTrue();
+
+        now.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertThat(predicate.test(null, null)).isFalse();
+        assertThat(meterRegistry.get("gateway.compression.skipped").counter().count()).isEqualTo(1.0);
+    }
+}
@@ -0,0 +1,105 @@
+package com.medinsight.gateway.filter;
+
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cloud.circuitbreaker.resilience4j.ReactiveResilience4JCircuitBreakerFactory;
+import org.springframework.cloud.circuitbreaker.resilience4j.Resilience4JConfigBuilder;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.factory.SpringCloudCircuitBreakerFilterFactory;
+import org.springframework.cloud.gateway.filter.factory.SpringCloudCircuitBreakerResilience4JFilterFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.DispatcherHandler;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BulkheadGatewayFilterFactoryTest {
+
+    @Test
+    @DisplayName("Requests over the concurrency limit are rejected with 503 until a slot frees up")
+    void filter_RejectsRequestsOverTheLimit() {
+        BulkheadRegistry registry = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(1)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("bulkheadRegistry", registry);
+        BulkheadGatewayFilterFactory.Config config = new BulkheadGatewayFilterFactory.Config();
+        config.setName("ml-service");
+        GatewayFilter filter = new BulkheadGatewayFilterFactory(beanFactory.getBeanProvider(BulkheadRegistry.class))
+                .apply(config);
+        Sinks.Empty<Void> upstream = Sinks.empty();
+
+        filter.filter(exchange(), exchange -> upstream.asMono()).subscribe();
+
+        assertThatThrownBy(() -> filter.filter(exchange(), exchange -> upstream.asMono()).block(Duration.ofSeconds(5)))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+
+        upstream.tryEmitEmpty();
+        assertThat(registry.bulkhead("ml-service").getMetrics().getAvailableConcurrentCalls()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Rejections by a bulkhead placed before the circuit breaker leave the breaker closed")
+    void filter_RejectionsDoNotTripTheCircuitBreaker() {
+        BulkheadRegistry bulkheads = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(1)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("bulkheadRegistry", bulkheads);
+        BulkheadGatewayFilterFactory.Config bulkheadConfig = new BulkheadGatewayFilterFactory.Config();
+        bulkheadConfig.setName("ml-service");
+        GatewayFilter bulkhead = new BulkheadGatewayFilterFactory(beanFactory.getBeanProvider(BulkheadRegistry.class))
+                .apply(bulkheadConfig);
+
+        CircuitBreakerRegistry breakers = CircuitBreakerRegistry.ofDefaults();
+        ReactiveResilience4JCircuitBreakerFactory breakerFactory =
+                new ReactiveResilience4JCircuitBreakerFactory(breakers, TimeLimiterRegistry.ofDefaults());
+        breakerFactory.configureDefault(id -> new Resilience4JConfigBuilder(id)
+                .circuitBreakerConfig(CircuitBreakerConfig.custom()
+                        .slidingWindowSize(2)
+                        .minimumNumberOfCalls(2)
+                        .build())
+                .build());
+        SpringCloudCircuitBreakerFilterFactory.Config breakerConfig = new SpringCloudCircuitBreakerFilterFactory.Config();
+        breakerConfig.setName("ml-service");
+        GatewayFilter circuitBreaker = new SpringCloudCircuitBreakerResilience4JFilterFactory(breakerFactory,
+                new StaticListableBeanFactory().getBeanProvider(DispatcherHandler.class)).apply(breakerConfig);
+
+        // Same order as the routes: Bulkhead, then CircuitBreaker
+        Sinks.Empty<Void> upstream = Sinks.empty();
+        GatewayFilterChain route = exchange -> bulkhead.filter(exchange,
+                inner -> circuitBreaker.filter(inner, last -> upstream.asMono()));
+
+        route.filter(exchange()).subscribe();
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> route.filter(exchange()).block(Duration.ofSeconds(5)))
+                    .isInstanceOf(ResponseStatusException.class);
+        }
+
+        CircuitBreaker breaker = breakers.circuitBreaker("ml-service");
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.getMetrics().getNumberOfFailedCalls()).isZero();
+        upstream.tryEmitEmpty();
+    }
+
+    private static MockServerWebExchange exchange() {
+        return MockServerWebExchange.from(MockServerHttpRequest.post("/api/ml/predict"));
+    }
+}
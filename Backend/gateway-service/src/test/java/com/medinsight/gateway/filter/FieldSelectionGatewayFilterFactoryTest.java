@@ -0,0 +1,70 @@
+package com.medinsight.gateway.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FieldSelectionGatewayFilterFactoryTest {
+
+    private static final String PAGE = """
+            {"content":[{"id":1,"dateTime":"2026-03-02T09:00","doctor":{"id":42,"lastName":"House","email":"h@x"}},
+                        {"id":2,"dateTime":"2026-03-02T10:00","doctor":{"id":42,"lastName":"House","email":"h@x"}}],
+             "totalElements":2,"pageable":{"pageNumber":0}}
+            """;
+
+    private final GatewayFilter filter = new FieldSelectionGatewayFilterFactory(new ObjectMapper())
+            .apply(new FieldSelectionGatewayFilterFactory.Config());
+    private final AtomicReference<ServerHttpRequest> forwarded = new AtomicReference<>();
+
+    @Test
+    @DisplayName("Keeps only the selected paths, through arrays, without forwarding the parameter")
+    void filter_TrimsJsonToSelectedFields() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest
+                .get("/api/appointments/patient/7?page=0&fields=content.id,content.doctor.lastName,totalElements"));
+
+        filter.filter(exchange, backend(MediaType.APPLICATION_JSON, PAGE)).block();
+
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo(
+                "{\"content\":[{\"id\":1,\"doctor\":{\"lastName\":\"House\"}},{\"id\":2,\"doctor\":{\"lastName\":\"House\"}}],"
+                        + "\"totalElements\":2}");
+        assertThat(exchange.getResponse().getHeaders().getETag()).isEqualTo("W/\"v1\"");
+        assertThat(forwarded.get().getQueryParams()).containsOnlyKeys("page");
+    }
+
+    @Test
+    @DisplayName("Responses that are not JSON are returned unchanged")
+    void filter_LeavesOtherContentTypesAlone() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest
+                .get("/api/records/7/report?fields=id"));
+
+        filter.filter(exchange, backend(MediaType.TEXT_PLAIN, "id,name")).block();
+
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("id,name");
+    }
+
+    private GatewayFilterChain backend(MediaType contentType, String body) {
+        return exchange -> {
+            forwarded.set(exchange.getRequest());
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.OK);
+            response.getHeaders().setContentType(contentType);
+            response.getHeaders().set(HttpHeaders.ETAG, "\"v1\"");
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(body.getBytes(StandardCharsets.UTF_8))));
+        };
+    }
+}
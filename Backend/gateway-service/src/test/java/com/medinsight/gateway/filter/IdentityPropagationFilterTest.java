@@ -0,0 +1,86 @@
+package com.medinsight.gateway.filter;
+
+import com.medinsight.common.security.InternalIdentity;
+import com.medinsight.common.security.InternalIdentitySigner;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.security.Principal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdentityPropagationFilterTest {
+
+    private final InternalIdentitySigner signer = new InternalIdentitySigner("test-secret-of-at-least-32-bytes!!");
+
+    @Test
+    @DisplayName("Forged identity headers are replaced by the signed identity of the verified token")
+    void filter_SignsVerifiedIdentity() {
+        Jwt jwt = Jwt.withTokenValue("token")
+                .header("alg", "RS256")
+                .subject("user-1")
+                .expiresAt(Instant.now().plusSeconds(300))
+                .claim("realm_access", Map.of("roles", List.of("PATIENT")))
+                .build();
+
+        HttpHeaders forwarded = forward(filter(signer), new JwtAuthenticationToken(jwt));
+
+        assertThat(forwarded.getFirst(InternalIdentity.ROLES_HEADER)).isEqualTo("PATIENT");
+        InternalIdentity identity = InternalIdentity.fromHeaders(forwarded::getFirst);
+        assertThat(signer.verify(identity, "token", forwarded.getFirst(InternalIdentity.SIGNATURE_HEADER))).isTrue();
+    }
+
+    @Test
+    @DisplayName("Identity headers are dropped for anonymous requests and when no secret is configured")
+    void filter_StripsIdentityHeaders() {
+        assertThat(forward(filter(signer), null).keySet()).doesNotContainAnyElementsOf(InternalIdentity.HEADERS);
+
+        Jwt jwt = Jwt.withTokenValue("token").header("alg", "RS256").subject("user-1")
+                .expiresAt(Instant.now().plusSeconds(300)).build();
+        assertThat(forward(filter(null), new JwtAuthenticationToken(jwt)).keySet())
+                .doesNotContainAnyElementsOf(InternalIdentity.HEADERS);
+    }
+
+    private static IdentityPropagationFilter filter(InternalIdentitySigner signer) {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        if (signer != null) {
+            beanFactory.addBean("internalIdentitySigner", signer);
+        }
+        ObjectProvider<InternalIdentitySigner> provider = beanFactory.getBeanProvider(InternalIdentitySigner.class);
+        return new IdentityPropagationFilter(provider);
+    }
+
+    private static HttpHeaders forward(IdentityPropagationFilter filter, Principal principal) {
+        MockServerHttpRequest request = MockServerHttpRequest.get("/api/appointments")
+                .header(InternalIdentity.SUBJECT_HEADER, "admin")
+                .header(InternalIdentity.ROLES_HEADER, "ADMIN")
+                .header(InternalIdentity.EXPIRES_HEADER, "4102444800")
+                .header(InternalIdentity.SIGNATURE_HEADER, "forged")
+                .build();
+        ServerWebExchange exchange = MockServerWebExchange.from(request);
+        if (principal != null) {
+            exchange = exchange.mutate().principal(Mono.just(principal)).build();
+        }
+        AtomicReference<HttpHeaders> headers = new AtomicReference<>();
+        GatewayFilterChain chain = forwardedExchange -> {
+            headers.set(forwardedExchange.getRequest().getHeaders());
+            return Mono.empty();
+        };
+        filter.filter(exchange, chain).block();
+        return headers.get();
+    }
+}
@@ -0,0 +1,57 @@
+package com.medinsight.gateway.filter;
+
+import com.medinsight.common.loadbalancer.LoadBalancerStats;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR;
+
+class LoadBalancerCancellationFilterTest {
+
+    private final LoadBalancerStats stats = mock(LoadBalancerStats.class);
+    private final ServiceInstance instance =
+            new DefaultServiceInstance("appointment-1", "appointment-service", "10.0.0.5", 8082, false);
+
+    @SuppressWarnings("unchecked")
+    private LoadBalancerCancellationFilter filter() {
+        ObjectProvider<LoadBalancerStats> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(stats);
+        return new LoadBalancerCancellationFilter(provider);
+    }
+
+    @Test
+    @DisplayName("A call cancelled after the instance was chosen releases its slot")
+    void filter_ReleasesOnCancel() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/appointments"));
+        exchange.getAttributes().put(GATEWAY_LOADBALANCER_RESPONSE_ATTR, new DefaultResponse(instance));
+
+        Disposable call = filter().filter(exchange, ex -> Mono.never()).subscribe();
+        call.dispose();
+
+        verify(stats).cancelled(instance);
+    }
+
+    @Test
+    @DisplayName("Completed calls are left to the load-balancer lifecycle")
+    void filter_IgnoresCompletion() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/appointments"));
+        exchange.getAttributes().put(GATEWAY_LOADBALANCER_RESPONSE_ATTR, new DefaultResponse(instance));
+
+        filter().filter(exchange, ex -> Mono.empty()).block();
+
+        verify(stats, never()).cancelled(any());
+    }
+}
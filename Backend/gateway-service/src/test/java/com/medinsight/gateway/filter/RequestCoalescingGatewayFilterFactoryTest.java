@@ -0,0 +1,91 @@
+package com.medinsight.gateway.filter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestCoalescingGatewayFilterFactoryTest {
+
+    private static final String SLOTS = "/api/appointments/slots/available?doctorId=42&date=2026-03-02";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private final Sinks.Empty<Void> upstreamReady = Sinks.empty();
+
+    @Test
+    @DisplayName("Identical concurrent GETs share one upstream call and its response")
+    void filter_SharesInFlightResponse() throws Exception {
+        GatewayFilter filter = filter(Duration.ofSeconds(5));
+        MockServerWebExchange leader = MockServerWebExchange.from(MockServerHttpRequest.get(SLOTS));
+        MockServerWebExchange follower = MockServerWebExchange.from(MockServerHttpRequest.get(SLOTS));
+
+        CompletableFuture<Void> first = filter.filter(leader, upstream()).toFuture();
+        CompletableFuture<Void> second = filter.filter(follower, upstream()).toFuture();
+        upstreamReady.tryEmitEmpty();
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+
+        assertThat(upstreamCalls).hasValue(1);
+        assertThat(follower.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(follower.getResponse().getBodyAsString().block()).isEqualTo("[\"09:00\"]");
+        assertThat(meterRegistry.get("gateway.requests.coalesced").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("A waiter goes upstream itself once the wait bound is reached")
+    void filter_StopsWaitingAfterMaxWait() {
+        GatewayFilter filter = filter(Duration.ofMillis(50));
+        MockServerWebExchange leader = MockServerWebExchange.from(MockServerHttpRequest.get(SLOTS));
+        MockServerWebExchange follower = MockServerWebExchange.from(MockServerHttpRequest.get(SLOTS));
+
+        filter.filter(leader, upstream()).subscribe();
+        filter.filter(follower, exchange -> {
+            upstreamCalls.incrementAndGet();
+            return write(exchange.getResponse());
+        }).block(Duration.ofSeconds(5));
+
+        assertThat(upstreamCalls).hasValue(2);
+        assertThat(follower.getResponse().getBodyAsString().block()).isEqualTo("[\"09:00\"]");
+    }
+
+    private GatewayFilter filter(Duration maxWait) {
+        RequestCoalescingGatewayFilterFactory.Config config = new RequestCoalescingGatewayFilterFactory.Config();
+        config.setMaxWait(maxWait);
+        config.setScope(RequestScope.SHARED);
+        return new RequestCoalescingGatewayFilterFactory(meterRegistry).apply(config);
+    }
+
+    /**
+     * An upstream that answers only once {@link #upstreamReady} completes.
+     */
+    private GatewayFilterChain upstream() {
+        return exchange -> {
+            upstreamCalls.incrementAndGet();
+            return upstreamReady.asMono().then(Mono.defer(() -> write(exchange.getResponse())));
+        };
+    }
+
+    private static Mono<Void> write(ServerHttpResponse response) {
+        response.setStatusCode(HttpStatus.OK);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return response.writeWith(Mono.just(response.bufferFactory()
+                .wrap("[\"09:00\"]".getBytes(StandardCharsets.UTF_8))));
+    }
+}
@@ -0,0 +1,41 @@
+package com.medinsight.gateway.filter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestScopeTest {
+
+    @Test
+    @DisplayName("ROLES shares between callers with the same roles only")
+    void key_RolesPartitionsByRoleSet() {
+        String doctor = RequestScope.ROLES.key(exchange("dr-house", "ROLE_MEDECIN")).block();
+        String otherDoctor = RequestScope.ROLES.key(exchange("dr-wilson", "ROLE_MEDECIN")).block();
+        String patient = RequestScope.ROLES.key(exchange("patient-1", "ROLE_PATIENT")).block();
+
+        assertThat(doctor).isEqualTo(otherDoctor);
+        assertThat(patient).isNotEqualTo(doctor);
+    }
+
+    @Test
+    @DisplayName("ROLES shares nothing with anonymous callers")
+    void key_RolesIsEmptyWhenAnonymous() {
+        ServerWebExchange anonymous = MockServerWebExchange.from(MockServerHttpRequest.get("/api/medecins"));
+
+        assertThat(RequestScope.ROLES.key(anonymous).block()).isEmpty();
+    }
+
+    private static ServerWebExchange exchange(String subject, String... roles) {
+        TestingAuthenticationToken authentication = new TestingAuthenticationToken(subject, null, roles);
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/api/medecins"))
+                .mutate()
+                .principal(Mono.just(authentication))
+                .build();
+    }
+}
@@ -0,0 +1,145 @@
+package com.medinsight.gateway.filter;
+
+import com.medinsight.gateway.cache.ResponseCache;
+import com.medinsight.gateway.config.ResponseCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseCacheGatewayFilterFactoryTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final GatewayFilter filter;
+    private final List<HttpHeaders> backendRequests = new ArrayList<>();
+
+    ResponseCacheGatewayFilterFactoryTest() {
+        ResponseCache cache = new ResponseCache(new ResponseCacheProperties(), new SimpleMeterRegistry(), now::get);
+        ResponseCacheGatewayFilterFactory.Config config = new ResponseCacheGatewayFilterFactory.Config();
+        config.setTtl(Duration.ofSeconds(60));
+        config.setScope(RequestScope.SHARED);
+        filter = new ResponseCacheGatewayFilterFactory(cache).apply(config);
+    }
+
+    @Test
+    @DisplayName("A fresh entry is served without reaching the backend, and a matching ETag gets a 304")
+    void filter_ServesFreshEntriesFromCache() {
+        MockServerHttpResponse first = get(null, backend(HttpStatus.OK, "\"v1\"", "[\"Dr House\"]"));
+        assertThat(first.getHeaders().getFirst(ResponseCacheGatewayFilterFactory.CACHE_STATUS_HEADER)).isEqualTo("MISS");
+        assertThat(first.getHeaders().getCacheControl()).isEqualTo("max-age=60, private");
+
+        MockServerHttpResponse second = get(null, backend(HttpStatus.OK, "\"v2\"", "[]"));
+        assertThat(second.getHeaders().getFirst(ResponseCacheGatewayFilterFactory.CACHE_STATUS_HEADER)).isEqualTo("HIT");
+        assertThat(second.getBodyAsString().block()).isEqualTo("[\"Dr House\"]");
+
+        MockServerHttpResponse conditional = get("\"v1\"", backend(HttpStatus.OK, "\"v2\"", "[]"));
+        assertThat(conditional.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(backendRequests).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("An expired entry is revalidated with If-None-Match and served again on a backend 304")
+    void filter_RevalidatesExpiredEntries() {
+        get(null, backend(HttpStatus.OK, "\"v1\"", "[\"Dr House\"]"));
+        now.addAndGet(Duration.ofSeconds(61).toNanos());
+
+        MockServerHttpResponse revalidated = get(null, backend(HttpStatus.NOT_MODIFIED, "\"v1\"", null));
+
+        assertThat(backendRequests).hasSize(2);
+        assertThat(backendRequests.get(1).getIfNoneMatch()).containsExactly("\"v1\"");
+        assertThat(revalidated.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(revalidated.getHeaders().getFirst(ResponseCacheGatewayFilterFactory.CACHE_STATUS_HEADER))
+                .isEqualTo("REVALIDATED");
+        assertThat(revalidated.getBodyAsString().block()).isEqualTo("[\"Dr House\"]");
+    }
+
+    @Test
+    @DisplayName("Responses the backend marks no-store, private or Vary are passed through, not stored")
+    void filter_HonoursBackendCacheHeaders() {
+        for (String[] header : new String[][] {
+                {HttpHeaders.CACHE_CONTROL, "no-cache, no-store, max-age=0, must-revalidate"},
+                {HttpHeaders.CACHE_CONTROL, "private=\"Authorization\", max-age=60"},
+                {HttpHeaders.VARY, "Accept-Language"}}) {
+            get(null, backend(HttpStatus.OK, "\"v1\"", "[\"Dr House\"]", header[0], header[1]));
+            MockServerHttpResponse next = get(null, backend(HttpStatus.OK, "\"v2\"", "[]", header[0], header[1]));
+
+            assertThat(next.getHeaders().containsKey(ResponseCacheGatewayFilterFactory.CACHE_STATUS_HEADER))
+                    .as(header[1]).isFalse();
+            assertThat(next.getBodyAsString().block()).isEqualTo("[]");
+        }
+        assertThat(backendRequests).hasSize(6);
+    }
+
+    @Test
+    @DisplayName("A Vary added by the gateway itself, for CORS, does not prevent caching")
+    void filter_IgnoresTheGatewayOwnVary() {
+        GatewayFilterChain backend = backend(HttpStatus.OK, "\"v1\"", "[\"Dr House\"]");
+        GatewayFilterChain withCors = exchange -> {
+            exchange.getResponse().getHeaders().add(HttpHeaders.VARY, HttpHeaders.ORIGIN);
+            return backend.filter(exchange);
+        };
+        get(null, withCors);
+
+        assertThat(get(null, withCors).getHeaders().getFirst(ResponseCacheGatewayFilterFactory.CACHE_STATUS_HEADER))
+                .isEqualTo("HIT");
+    }
+
+    @Test
+    @DisplayName("Runs before the gateway writes the backend response, so it sees the body")
+    void apply_OrdersBeforeTheResponseWriter() {
+        assertThat(((Ordered) filter).getOrder()).isLessThan(NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER);
+    }
+
+    private MockServerHttpResponse get(String ifNoneMatch, GatewayFilterChain backend) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get("/api/medecins?page=0");
+        if (ifNoneMatch != null) {
+            request.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        filter.filter(exchange, backend).block();
+        return exchange.getResponse();
+    }
+
+    /**
+     * Answers like the routing filter: the backend headers are added to the
+     * response and their names kept as an exchange attribute.
+     */
+    private GatewayFilterChain backend(HttpStatus status, String etag, String body, String... headerAndValue) {
+        return exchange -> {
+            backendRequests.add(exchange.getRequest().getHeaders());
+            HttpHeaders backendHeaders = new HttpHeaders();
+            backendHeaders.setETag(etag);
+            backendHeaders.setContentType(MediaType.APPLICATION_JSON);
+            for (int i = 0; i < headerAndValue.length; i += 2) {
+                backendHeaders.add(headerAndValue[i], headerAndValue[i + 1]);
+            }
+            exchange.getAttributes().put(ServerWebExchangeUtils.CLIENT_RESPONSE_HEADER_NAMES, backendHeaders.keySet());
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(status);
+            response.getHeaders().addAll(backendHeaders);
+            return response.writeWith(body == null ? Flux.empty()
+                    : Mono.just(response.bufferFactory().wrap(body.getBytes(StandardCharsets.UTF_8))));
+        };
+    }
+}
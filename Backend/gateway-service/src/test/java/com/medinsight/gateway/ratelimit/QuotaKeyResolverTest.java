@@ -0,0 +1,38 @@
+package com.medinsight.gateway.ratelimit;
+
+import com.medinsight.gateway.config.RateLimitProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import java.net.InetSocketAddress;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QuotaKeyResolverTest {
+
+    private final RateLimitProperties properties = new RateLimitProperties();
+
+    @Test
+    @DisplayName("Without trusted proxies, anonymous clients are keyed by the TCP peer")
+    void resolve_UsesPeerAddressByDefault() {
+        assertThat(resolve("203.0.113.7")).isEqualTo("anonymous:10.0.0.9");
+    }
+
+    @Test
+    @DisplayName("Behind a trusted proxy, the address it forwarded is used, not one the client sent")
+    void resolve_UsesAddressAddedByTrustedProxy() {
+        properties.setTrustedProxies(1);
+
+        assertThat(resolve("203.0.113.7")).isEqualTo("anonymous:203.0.113.7");
+        assertThat(resolve("198.51.100.1, 203.0.113.7")).isEqualTo("anonymous:203.0.113.7");
+    }
+
+    private String resolve(String forwardedFor) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/api/auth/login")
+                .remoteAddress(new InetSocketAddress("10.0.0.9", 41000))
+                .header("X-Forwarded-For", forwardedFor));
+        return new QuotaKeyResolver(properties).resolve(exchange).block();
+    }
+}
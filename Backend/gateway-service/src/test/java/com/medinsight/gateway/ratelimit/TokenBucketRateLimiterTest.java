@@ -0,0 +1,60 @@
+package com.medinsight.gateway.ratelimit;
+
+import com.medinsight.gateway.config.RateLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter.Response;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketRateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RateLimitProperties properties = new RateLimitProperties();
+    private final TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(
+            new InMemoryTokenBucketStore(1_000, now::get), properties, meterRegistry);
+
+    @Test
+    @DisplayName("A burst beyond the quota is rejected and counted, then tokens refill over time")
+    void isAllowed_RejectsBurstBeyondQuota() {
+        properties.getRoles().put("PATIENT", new RateLimitProperties.Quota(2, 3));
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(allowed("slots-route", "PATIENT:user-1")).isTrue();
+        }
+        Response rejected = limiter.isAllowed("slots-route", "PATIENT:user-1").block();
+        assertThat(rejected.isAllowed()).isFalse();
+        assertThat(rejected.getHeaders()).containsEntry(TokenBucketRateLimiter.RETRY_AFTER_HEADER, "1");
+        assertThat(meterRegistry.get("gateway.ratelimit.rejected").tag("tier", "PATIENT").counter().count())
+                .isEqualTo(1.0);
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        assertThat(allowed("slots-route", "PATIENT:user-1")).isTrue();
+        assertThat(allowed("slots-route", "PATIENT:user-1")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Buckets are separate per route and per user, and sized by the caller's tier")
+    void isAllowed_KeepsOneBucketPerRouteAndUser() {
+        properties.setDefaultQuota(new RateLimitProperties.Quota(1, 1));
+        properties.getRoles().put("ADMIN", new RateLimitProperties.Quota(1, 2));
+
+        assertThat(allowed("appointments-route", "default:user-1")).isTrue();
+        assertThat(allowed("appointments-route", "default:user-1")).isFalse();
+        assertThat(allowed("records-route", "default:user-1")).isTrue();
+        assertThat(allowed("appointments-route", "default:user-2")).isTrue();
+
+        assertThat(allowed("appointments-route", "ADMIN:user-3")).isTrue();
+        assertThat(allowed("appointments-route", "ADMIN:user-3")).isTrue();
+        assertThat(allowed("appointments-route", "ADMIN:user-3")).isFalse();
+    }
+
+    private boolean allowed(String routeId, String key) {
+        return limiter.isAllowed(routeId, key).block().isAllowed();
+    }
+}
@@ -0,0 +1,86 @@
+package com.medinsight.gateway.routing;
+
+import com.medinsight.gateway.config.ConnectionPoolProperties;
+import io.netty.channel.ChannelOption;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.config.HttpClientSslConfigurer;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.RouteMetadataUtils;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class ServicePoolRoutingFilterTest {
+
+    private final HttpClientProperties httpClientProperties = new HttpClientProperties();
+    private final ConnectionPoolProperties pools = new ConnectionPoolProperties();
+    private final HttpClient sharedClient = client(ConnectionPoolProperties.DEFAULT_POOL);
+    private final HttpClient mlClient;
+    private final ServicePoolRoutingFilter filter;
+
+    @SuppressWarnings("unchecked")
+    ServicePoolRoutingFilterTest() {
+        ConnectionPoolProperties.Pool ml = new ConnectionPoolProperties.Pool();
+        ml.setMaxConnections(20);
+        ml.setProtocols(List.of(HttpProtocol.H2C));
+        pools.getServices().put("ml-service", ml);
+        mlClient = client("ml-service");
+        filter = new ServicePoolRoutingFilter(sharedClient, Map.of("ml-service", mlClient),
+                mock(ObjectProvider.class), httpClientProperties);
+    }
+
+    @AfterEach
+    void disposePools() {
+        filter.destroy();
+        sharedClient.configuration().connectionProvider().dispose();
+    }
+
+    @Test
+    @DisplayName("Routes to a service with its own pool use that pool's client, merged with the defaults")
+    void getHttpClient_UsesTheServicePool() {
+        assertThat(filter.getHttpClient(route("lb://ml-service", Map.of()), exchange())).isSameAs(mlClient);
+        assertThat(filter.getHttpClient(route("lb://auth-service", Map.of()), exchange())).isSameAs(sharedClient);
+
+        ConnectionPoolProperties.Pool ml = pools.poolFor("ml-service");
+        assertThat(ml.getMaxConnections()).isEqualTo(20);
+        assertThat(ml.getMaxIdleTime()).isEqualTo(Duration.ofSeconds(15));
+        assertThat(mlClient.configuration().protocols()).containsExactly(HttpProtocol.H2C);
+        assertThat(mlClient.configuration().connectionProvider().maxConnections()).isEqualTo(20);
+    }
+
+    @Test
+    @DisplayName("A route's connect-timeout metadata still applies to a service pool")
+    void getHttpClient_AppliesRouteConnectTimeout() {
+        HttpClient client = filter.getHttpClient(
+                route("lb://ml-service", Map.of(RouteMetadataUtils.CONNECT_TIMEOUT_ATTR, 500)), exchange());
+
+        assertThat(client.configuration().options().get(ChannelOption.CONNECT_TIMEOUT_MILLIS)).isEqualTo(500);
+    }
+
+    private HttpClient client(String serviceId) {
+        ServerProperties serverProperties = new ServerProperties();
+        return new BackendHttpClientFactory(serviceId, pools.poolFor(serviceId), httpClientProperties, serverProperties,
+                new HttpClientSslConfigurer(httpClientProperties.getSsl(), serverProperties), List.of()).newClient();
+    }
+
+    private static Route route(String uri, Map<String, Object> metadata) {
+        return Route.async().id("test-route").uri(uri).metadata(metadata).predicate(exchange -> true).build();
+    }
+
+    private static MockServerWebExchange exchange() {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/api/ml/predict"));
+    }
+}
@@ -0,0 +1,62 @@
+package com.medinsight.gateway.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CachingReactiveJwtDecoderTest {
+
+    private final ReactiveJwtDecoder delegate = mock(ReactiveJwtDecoder.class);
+    private final CachingReactiveJwtDecoder decoder = new CachingReactiveJwtDecoder(delegate, 100,
+            Duration.ofMinutes(5), new SimpleMeterRegistry());
+
+    @Test
+    @DisplayName("A valid token is verified once and then served from the cache")
+    void decode_CachesValidTokens() {
+        Jwt jwt = jwt("valid", Instant.now().plusSeconds(300));
+        when(delegate.decode("valid")).thenReturn(Mono.just(jwt));
+
+        assertThat(decoder.decode("valid").block()).isSameAs(jwt);
+        assertThat(decoder.decode("valid").block()).isSameAs(jwt);
+
+        verify(delegate, times(1)).decode("valid");
+    }
+
+    @Test
+    @DisplayName("Rejected and already expired tokens are verified every time")
+    void decode_DoesNotCacheInvalidTokens() {
+        when(delegate.decode("forged")).thenReturn(Mono.error(new BadJwtException("Invalid signature")));
+        when(delegate.decode("expiring")).thenReturn(Mono.just(jwt("expiring", Instant.now().minusSeconds(1))));
+
+        assertThatThrownBy(() -> decoder.decode("forged").block()).isInstanceOf(BadJwtException.class);
+        assertThatThrownBy(() -> decoder.decode("forged").block()).isInstanceOf(BadJwtException.class);
+        decoder.decode("expiring").block();
+        decoder.decode("expiring").block();
+
+        verify(delegate, times(2)).decode("forged");
+        verify(delegate, times(2)).decode("expiring");
+    }
+
+    private static Jwt jwt(String token, Instant expiresAt) {
+        return Jwt.withTokenValue(token)
+                .header("alg", "RS256")
+                .subject("user")
+                .issuedAt(expiresAt.minusSeconds(600))
+                .expiresAt(expiresAt)
+                .build();
+    }
+}
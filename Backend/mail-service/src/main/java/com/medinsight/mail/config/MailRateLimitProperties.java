@@ -0,0 +1,44 @@
+package com.medinsight.mail.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Configuration properties for outbound mail throttling.
+ * A global token bucket protects the SMTP account, and one bucket per
+ * recipient domain protects individual providers (gmail.com, outlook.com...).
+ */
+@Configuration
+@ConfigurationProperties(prefix = "mail.rate-limit")
+@Data
+public class MailRateLimitProperties {
+    private boolean enabled = true;
+
+    /** Sustained sends per second across all recipients. */
+    private double globalPermitsPerSecond = 5.0;
+
+    /** Sends allowed in a burst before the global rate applies. */
+    private int globalBurst = 10;
+
+    /** Sustained sends per second towards a single recipient domain. */
+    private double domainPermitsPerSecond = 2.0;
+
+    /** Sends allowed in a burst towards a single recipient domain. */
+    private int domainBurst = 5;
+
+    /** Per-domain rate overrides, e.g. {@code gmail.com: 1.0}. */
+    private Map<String, Double> domainOverrides = new HashMap<>();
+
+    /**
+     * Longest a request may wait for a permit before it is refused with 429.
+     * Must stay well below the callers' response timeout (10s for
+     * {@code MailClient}), which would otherwise give up on a mail that is
+     * still sent afterwards.
+     */
+    private Duration maxWait = Duration.ofSeconds(5);
+}
@@ -1,33 +1,26 @@
 package com.medinsight.mail.config;
 
+import com.medinsight.common.security.InternalIdentityAuthenticationFilter;
+import com.medinsight.common.security.MedInsightJwtAuthenticationConverter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
-import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+import org.springframework.security.oauth2.server.resource.web.authentication.BearerTokenAuthenticationFilter;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.oauth2.jwt.*;
 import org.springframework.security.oauth2.core.*;
 
-
-import java.util.Collection;
-import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
-
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity
 public class SecurityConfig {
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http,
+            InternalIdentityAuthenticationFilter internalIdentityFilter) throws Exception {
         http
             .csrf(AbstractHttpConfigurer::disable)
             .csrf(AbstractHttpConfigurer::disable)
@@ -36,7 +29,9 @@ public class SecurityConfig {
                 .requestMatchers("/mail/**").authenticated()
                 .anyRequest().authenticated()
             )
+            .addFilterBefore(internalIdentityFilter, BearerTokenAuthenticationFilter.class)
             .oauth2ResourceServer(oauth2 -> oauth2
+                .bearerTokenResolver(internalIdentityFilter.bearerTokenResolver())
                 .jwt(jwt -> jwt.jwtAuthenticationConverter(jwtAuthenticationConverter()))
             );
 
@@ -44,33 +39,8 @@ public class SecurityConfig {
     }
 
     @Bean
-    public JwtAuthenticationConverter jwtAuthenticationConverter() {
-        JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
-        converter.setJwtGrantedAuthoritiesConverter(jwt -> {
-            // Extract realm roles from Keycloak JWT
-            Map<String, Object> realmAccess = jwt.getClaimAsMap("realm_access");
-            Collection<GrantedAuthority> realmRoles = List.of();
-            
-            if (realmAccess != null && realmAccess.containsKey("roles")) {
-                @SuppressWarnings("unchecked")
-                List<String> roles = (List<String>) realmAccess.get("roles");
-                realmRoles = roles.stream()
-                        .map(role -> {
-                            String r = role.toUpperCase();
-                            return new SimpleGrantedAuthority(r.startsWith("ROLE_") ? r : "ROLE_" + r);
-                        })
-                        .collect(Collectors.toList());
-            }
-
-            // Extract scope-based authorities
-            JwtGrantedAuthoritiesConverter scopeConverter = new JwtGrantedAuthoritiesConverter();
-            Collection<GrantedAuthority> scopeAuthorities = scopeConverter.convert(jwt);
-
-            // Combine both
-            return Stream.concat(realmRoles.stream(), scopeAuthorities.stream())
-                    .collect(Collectors.toList());
-        });
-        return converter;
+    public MedInsightJwtAuthenticationConverter jwtAuthenticationConverter() {
+        return new MedInsightJwtAuthenticationConverter();
     }
 
 
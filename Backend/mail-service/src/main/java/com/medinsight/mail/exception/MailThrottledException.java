@@ -0,0 +1,11 @@
+package com.medinsight.mail.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class MailThrottledException extends RuntimeException {
+    public MailThrottledException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,100 @@
+package com.medinsight.mail.service;
+
+import com.medinsight.mail.config.MailRateLimitProperties;
+import com.medinsight.mail.exception.MailThrottledException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Smooths outbound mail bursts with a global token bucket and one bucket per
+ * recipient domain. Callers over the rate wait for their turn rather than
+ * being rejected; only a wait longer than {@code mail.rate-limit.max-wait}
+ * is refused, straight away, so the caller can retry before its own timeout.
+ */
+@Component
+@Slf4j
+public class MailRateLimiter {
+
+    private final MailRateLimitProperties properties;
+    private final TokenBucket globalBucket;
+    private final Map<String, TokenBucket> domainBuckets = new ConcurrentHashMap<>();
+
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final Timer waitTimer;
+    private final Counter throttledCounter;
+
+    public MailRateLimiter(MailRateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.globalBucket = new TokenBucket(properties.getGlobalPermitsPerSecond(), properties.getGlobalBurst(),
+                System.nanoTime());
+
+        meterRegistry.gauge("mail.ratelimit.queue.depth", waiting);
+        this.waitTimer = Timer.builder("mail.ratelimit.wait")
+                .description("Time spent waiting for a send permit")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.throttledCounter = Counter.builder("mail.ratelimit.rejected")
+                .description("Sends refused because the wait exceeded the configured maximum")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Block until a send towards the given recipient is allowed.
+     */
+    public void acquire(String recipient) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        String domain = extractDomain(recipient);
+        TokenBucket domainBucket = domainBuckets.computeIfAbsent(domain, this::createDomainBucket);
+
+        long now = System.nanoTime();
+        long waitNanos = Math.max(globalBucket.reserve(now), domainBucket.reserve(now));
+
+        if (waitNanos > properties.getMaxWait().toNanos()) {
+            globalBucket.refund();
+            domainBucket.refund();
+            throttledCounter.increment();
+            log.warn("Refusing email to domain {}: would wait {} ms", domain,
+                    TimeUnit.NANOSECONDS.toMillis(waitNanos));
+            throw new MailThrottledException("Mail rate limit exceeded, retry later");
+        }
+
+        waitTimer.record(waitNanos, TimeUnit.NANOSECONDS);
+        if (waitNanos == 0) {
+            return;
+        }
+
+        log.debug("Throttling email to domain {} for {} ms", domain, TimeUnit.NANOSECONDS.toMillis(waitNanos));
+        waiting.incrementAndGet();
+        try {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MailThrottledException("Interrupted while waiting for a send permit");
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    private TokenBucket createDomainBucket(String domain) {
+        double rate = properties.getDomainOverrides()
+                .getOrDefault(domain, properties.getDomainPermitsPerSecond());
+        return new TokenBucket(rate, properties.getDomainBurst(), System.nanoTime());
+    }
+
+    private static String extractDomain(String recipient) {
+        int at = recipient.lastIndexOf('@');
+        return at >= 0 ? recipient.substring(at + 1).toLowerCase(Locale.ROOT) : "unknown";
+    }
+}
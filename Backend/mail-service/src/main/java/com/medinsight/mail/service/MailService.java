@@ -2,6 +2,7 @@ package com.medinsight.mail.service;
 
 import com.medinsight.mail.dto.AppointmentReminderRequest;
 import com.medinsight.mail.dto.MailRequest;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
@@ -22,12 +23,15 @@ public class MailService {
 
     private final JavaMailSender mailSender;
     private final TemplateEngine templateEngine;
+    private final MailRateLimiter rateLimiter;
+    private final MeterRegistry meterRegistry;
 
     @org.springframework.beans.factory.annotation.Value("${spring.mail.username}")
     private String fromEmail;
 
     public void sendSimpleMail(MailRequest request) {
         log.info("Sending simple email to: {}", request.getTo());
+        rateLimiter.acquire(request.getTo());
         try {
             if (request.isHtml()) {
                 sendHtmlEmail(request.getTo(), request.getSubject(), request.getBody());
@@ -38,8 +42,10 @@ public class MailService {
                 message.setSubject(request.getSubject());
                 message.setText(request.getBody());
                 mailSender.send(message);
+                recordSend("simple", "success");
             }
         } catch (Exception e) {
+            recordSend(request.isHtml() ? "html" : "simple", "failure");
             log.error("Failed to send email to {}: {}", request.getTo(), e.getMessage());
             throw new RuntimeException("Email sending failed", e);
         }
@@ -56,10 +62,12 @@ public class MailService {
         context.setVariable("location", request.getLocation());
 
         String process = templateEngine.process("appointment-reminder", context);
-        
+
+        rateLimiter.acquire(request.getTo());
         try {
             sendHtmlEmail(request.getTo(), "Rappel de rendez-vous - MedInsight", process);
         } catch (MessagingException e) {
+            recordSend("html", "failure");
             log.error("Failed to send appointment reminder: {}", e.getMessage());
             throw new RuntimeException("Reminder sending failed", e);
         }
@@ -75,5 +83,10 @@ public class MailService {
         helper.setText(body, true);
         
         mailSender.send(message);
+        recordSend("html", "success");
+    }
+
+    private void recordSend(String type, String outcome) {
+        meterRegistry.counter("mail.sent", "type", type, "outcome", outcome).increment();
     }
 }
@@ -0,0 +1,48 @@
+package com.medinsight.mail.service;
+
+/**
+ * Reservation-based token bucket.
+ * Tokens may go negative: a negative balance is the backlog of callers that
+ * already hold a reservation, so each new caller waits behind them instead of
+ * being rejected.
+ */
+class TokenBucket {
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+
+    private final double permitsPerSecond;
+    private final double capacity;
+    private double tokens;
+    private long lastRefillNanos;
+
+    TokenBucket(double permitsPerSecond, int capacity, long nowNanos) {
+        this.permitsPerSecond = permitsPerSecond;
+        this.capacity = Math.max(1, capacity);
+        this.tokens = this.capacity;
+        this.lastRefillNanos = nowNanos;
+    }
+
+    /**
+     * Reserve one permit and return how long the caller must wait before using it.
+     */
+    synchronized long reserve(long nowNanos) {
+        refill(nowNanos);
+        tokens -= 1;
+        return tokens >= 0 ? 0 : (long) (-tokens / permitsPerSecond * NANOS_PER_SECOND);
+    }
+
+    /**
+     * Give back a permit that was reserved but will not be used.
+     */
+    synchronized void refund() {
+        tokens = Math.min(capacity, tokens + 1);
+    }
+
+    private void refill(long nowNanos) {
+        long elapsed = nowNanos - lastRefillNanos;
+        if (elapsed > 0) {
+            tokens = Math.min(capacity, tokens + elapsed / NANOS_PER_SECOND * permitsPerSecond);
+            lastRefillNanos = nowNanos;
+        }
+    }
+}
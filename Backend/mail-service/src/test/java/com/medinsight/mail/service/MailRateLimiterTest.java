@@ -0,0 +1,33 @@
+package com.medinsight.mail.service;
+
+import com.medinsight.mail.config.MailRateLimitProperties;
+import com.medinsight.mail.exception.MailThrottledException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MailRateLimiterTest {
+
+    @Test
+    void waitBeyondMaximumIsRefusedWithoutSleeping() {
+        MailRateLimitProperties properties = new MailRateLimitProperties();
+        properties.setDomainPermitsPerSecond(0.1);
+        properties.setDomainBurst(1);
+        MailRateLimiter limiter = new MailRateLimiter(properties, new SimpleMeterRegistry());
+        limiter.acquire("first@example.com");
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> limiter.acquire("second@example.com"))
+                .isInstanceOf(MailThrottledException.class);
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void defaultMaximumWaitIsBelowTheClientTimeout() {
+        assertThat(new MailRateLimitProperties().getMaxWait()).isLessThan(Duration.ofSeconds(10));
+    }
+}
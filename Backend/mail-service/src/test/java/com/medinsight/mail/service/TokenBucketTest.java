@@ -0,0 +1,51 @@
+package com.medinsight.mail.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void burstIsServedWithoutWaiting() {
+        TokenBucket bucket = new TokenBucket(1.0, 3, 0);
+
+        assertThat(bucket.reserve(0)).isZero();
+        assertThat(bucket.reserve(0)).isZero();
+        assertThat(bucket.reserve(0)).isZero();
+    }
+
+    @Test
+    void callersBeyondBurstQueueBehindEachOther() {
+        TokenBucket bucket = new TokenBucket(2.0, 1, 0);
+
+        assertThat(bucket.reserve(0)).isZero();
+        assertThat(bucket.reserve(0)).isEqualTo(SECOND / 2);
+        assertThat(bucket.reserve(0)).isEqualTo(SECOND);
+    }
+
+    @Test
+    void tokensRefillOverTimeUpToCapacity() {
+        TokenBucket bucket = new TokenBucket(1.0, 2, 0);
+        bucket.reserve(0);
+        bucket.reserve(0);
+
+        assertThat(bucket.reserve(10 * SECOND)).isZero();
+        assertThat(bucket.reserve(10 * SECOND)).isZero();
+        assertThat(bucket.reserve(10 * SECOND)).isEqualTo(SECOND);
+    }
+
+    @Test
+    void refundReleasesReservation() {
+        TokenBucket bucket = new TokenBucket(1.0, 1, 0);
+        bucket.reserve(0);
+        bucket.reserve(0);
+        bucket.refund();
+
+        assertThat(bucket.reserve(0)).isEqualTo(SECOND);
+    }
+}
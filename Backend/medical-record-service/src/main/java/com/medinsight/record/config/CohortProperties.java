@@ -0,0 +1,25 @@
+package com.medinsight.record.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the cohort index.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "cohort")
+@Data
+public class CohortProperties {
+
+    /**
+     * Full rebuild from the database, which picks up writes made by other
+     * instances. Local writes are applied to the index immediately.
+     */
+    private Duration refreshInterval = Duration.ofMinutes(10);
+
+    /** Upper bound on patient IDs returned by a cohort query; the count is always exact. */
+    private int maxPatientIds = 1_000;
+}
@@ -0,0 +1,38 @@
+package com.medinsight.record.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.task.DelegatingSecurityContextAsyncTaskExecutor;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Bounded executor used to load dossier sections in parallel.
+ * The caller's security context is propagated so Feign interceptors and
+ * auditing see the same principal as the request thread.
+ */
+@Configuration
+public class DossierExecutorConfig {
+
+    @Bean
+    public AsyncTaskExecutor dossierExecutor(DossierProperties properties,
+            @Qualifier("virtualThreadExecutor") ObjectProvider<ExecutorService> virtualThreadExecutor) {
+        ExecutorService virtualThreads = virtualThreadExecutor.getIfAvailable();
+        if (virtualThreads != null) {
+            // Sections block on JDBC and Feign, whose connection pools already bound them
+            return new DelegatingSecurityContextAsyncTaskExecutor(new TaskExecutorAdapter(virtualThreads));
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getPoolSize());
+        executor.setMaxPoolSize(properties.getPoolSize());
+        executor.setQueueCapacity(properties.getQueueCapacity());
+        executor.setThreadNamePrefix("dossier-");
+        executor.initialize();
+        return new DelegatingSecurityContextAsyncTaskExecutor(executor);
+    }
+}
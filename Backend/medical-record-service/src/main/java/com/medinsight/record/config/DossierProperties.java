@@ -0,0 +1,39 @@
+package com.medinsight.record.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for dossier aggregation.
+ * Each section is loaded concurrently and given its own deadline; a section
+ * that misses its deadline is left out and flagged in the response.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "dossier")
+@Data
+public class DossierProperties {
+    private int poolSize = 16;
+    private int queueCapacity = 200;
+
+    private Duration medicalRecordTimeout = Duration.ofSeconds(2);
+    private Duration consultationNotesTimeout = Duration.ofSeconds(2);
+    private Duration appointmentHistoryTimeout = Duration.ofSeconds(3);
+
+    /** Most recent appointments (with their prescriptions) embedded in a dossier. */
+    private int historyLimit = 100;
+
+    /** Most recent consultation notes embedded in a dossier, as previews; older ones are paged. */
+    private int notesPageSize = 20;
+
+    /** Characters of each note returned in summary mode. */
+    private int notePreviewLength = 280;
+
+    private boolean cacheEnabled = true;
+    private long cacheMaxEntries = 5_000;
+
+    /** Hard upper bound on how long a cached dossier may be served, even without invalidation. */
+    private Duration cacheTtl = Duration.ofMinutes(5);
+}
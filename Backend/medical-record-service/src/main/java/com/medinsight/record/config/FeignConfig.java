@@ -0,0 +1,27 @@
+package com.medinsight.record.config;
+
+import feign.RequestInterceptor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+/**
+ * Feign configuration: forward the caller's bearer token so downstream
+ * services apply their own access rules to the same user.
+ */
+@Configuration
+public class FeignConfig {
+
+    @Bean
+    public RequestInterceptor bearerTokenRelayInterceptor() {
+        return template -> {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication != null && authentication.getPrincipal() instanceof Jwt jwt) {
+                template.header(HttpHeaders.AUTHORIZATION, "Bearer " + jwt.getTokenValue());
+            }
+        };
+    }
+}
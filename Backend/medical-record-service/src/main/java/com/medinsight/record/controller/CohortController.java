@@ -0,0 +1,44 @@
+package com.medinsight.record.controller;
+
+import com.medinsight.record.dto.ClinicalCodeResponse;
+import com.medinsight.record.dto.CohortQueryRequest;
+import com.medinsight.record.dto.CohortQueryResponse;
+import com.medinsight.record.entity.ClinicalCodeType;
+import com.medinsight.record.service.CohortService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/records/cohorts")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Cohorts", description = "Population queries over structured allergies and chronic conditions")
+@SecurityRequirement(name = "bearer-jwt")
+public class CohortController {
+
+    private final CohortService cohortService;
+
+    @PostMapping("/query")
+    @PreAuthorize("hasAnyRole('MEDECIN', 'ADMIN', 'GESTIONNAIRE')")
+    @Operation(summary = "Query a cohort", description = "Count (and optionally list) patients matching a combination of allergy and condition codes")
+    public ResponseEntity<CohortQueryResponse> query(@Valid @RequestBody CohortQueryRequest request) {
+        return ResponseEntity.ok(cohortService.query(request));
+    }
+
+    @GetMapping("/codes")
+    @PreAuthorize("hasAnyRole('MEDECIN', 'ADMIN', 'GESTIONNAIRE')")
+    @Operation(summary = "List clinical codes", description = "Known allergy and condition codes with their patient counts")
+    public ResponseEntity<List<ClinicalCodeResponse>> listCodes(
+            @RequestParam(required = false) ClinicalCodeType type) {
+        return ResponseEntity.ok(cohortService.listCodes(type));
+    }
+}
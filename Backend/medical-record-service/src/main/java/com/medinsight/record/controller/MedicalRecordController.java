@@ -1,5 +1,7 @@
 package com.medinsight.record.controller;
 
+import com.medinsight.common.security.MedInsightPrincipal;
+import com.medinsight.common.security.Role;
 import com.medinsight.record.dto.*;
 import com.medinsight.record.service.RecordService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -10,11 +12,12 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -50,6 +53,46 @@ public class MedicalRecordController {
         return ResponseEntity.ok(recordService.updateMedicalRecord(patientId, request));
     }
 
+    @GetMapping("/patient/{patientId}/notes")
+    @PreAuthorize("hasAnyRole('PATIENT', 'MEDECIN', 'ADMIN', 'GESTIONNAIRE')")
+    @Operation(summary = "List consultation notes", description = "Notes of a patient, newest first, paginated with an opaque cursor. Summary mode returns a preview of each note")
+    public ResponseEntity<NotePageResponse> getPatientNotes(
+            @PathVariable UUID patientId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "true") boolean summary,
+            Authentication authentication) {
+
+        validatePatientAccess(patientId, authentication);
+        return ResponseEntity.ok(recordService.getPatientNotes(patientId, cursor, size, summary));
+    }
+
+    @GetMapping("/patient/{patientId}/search")
+    @PreAuthorize("hasAnyRole('PATIENT', 'MEDECIN', 'ADMIN', 'GESTIONNAIRE')")
+    @Operation(summary = "Search patient dossier", description = "Full-text search (French) in a patient's consultation notes, allergies, chronic conditions and medical history")
+    public ResponseEntity<List<SearchHitResponse>> searchDossier(
+            @PathVariable UUID patientId,
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "20") int limit,
+            Authentication authentication) {
+
+        validatePatientAccess(patientId, authentication);
+        return ResponseEntity.ok(recordService.search(patientId, query, limit));
+    }
+
+    @GetMapping("/notes/{noteId}")
+    @PreAuthorize("hasAnyRole('PATIENT', 'MEDECIN', 'ADMIN', 'GESTIONNAIRE')")
+    @Operation(summary = "Get consultation note", description = "Full content of a single clinical note")
+    public ResponseEntity<ConsultationNoteResponse> getConsultationNote(
+            @PathVariable UUID noteId,
+            Authentication authentication) {
+
+        // Patients only see their own notes; the others look missing
+        MedInsightPrincipal principal = principal(authentication);
+        UUID patientId = principal.hasRole(Role.PATIENT) ? principal.id() : null;
+        return ResponseEntity.ok(recordService.getConsultationNote(noteId, patientId));
+    }
+
     @PostMapping("/notes")
     @PreAuthorize("hasAnyRole('MEDECIN', 'ADMIN')")
     @Operation(summary = "Add consultation note", description = "Add a clinical note linked to an appointment")
@@ -62,7 +105,13 @@ public class MedicalRecordController {
                 .body(recordService.addConsultationNote(request, doctorId));
     }
 
-
+    @PostMapping("/internal/patients/{patientId}/history-changed")
+    @PreAuthorize("hasRole('SERVICE')")
+    @Operation(summary = "Notify history change", description = "Called by appointment-service when a patient's appointments or prescriptions change; evicts the cached dossier")
+    public ResponseEntity<Void> historyChanged(@PathVariable UUID patientId) {
+        recordService.onAppointmentHistoryChanged(patientId);
+        return ResponseEntity.noContent().build();
+    }
 
     @DeleteMapping("/notes/{noteId}")
     @PreAuthorize("hasAnyRole('MEDECIN', 'ADMIN')")
@@ -72,8 +121,7 @@ public class MedicalRecordController {
             Authentication authentication) {
         
         UUID doctorId = getUserIdFromAuth(authentication);
-        boolean isAdmin = authentication.getAuthorities().stream()
-                .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
+        boolean isAdmin = principal(authentication).hasRole(Role.ADMIN);
 
         recordService.deleteConsultationNote(noteId, doctorId, isAdmin);
         return ResponseEntity.noContent().build();
@@ -81,24 +129,23 @@ public class MedicalRecordController {
 
     private void validatePatientAccess(UUID patientId, Authentication authentication) {
         // Patients can only see their own dossier
-        String roles = authentication.getAuthorities().toString();
-        if (roles.contains("ROLE_PATIENT")) {
-            UUID authId = getUserIdFromAuth(authentication);
-            if (!authId.equals(patientId)) {
-                throw new RuntimeException("Access Denied: You can only view your own record");
+        MedInsightPrincipal principal = principal(authentication);
+        if (principal.hasRole(Role.PATIENT)) {
+            if (!principal.id().equals(patientId)) {
+                throw new AccessDeniedException("You can only view your own record");
             }
         }
     }
 
     private UUID getUserIdFromAuth(Authentication authentication) {
-        if (authentication.getPrincipal() instanceof Jwt jwt) {
-            String sub = jwt.getSubject();
-            try {
-                return UUID.fromString(sub);
-            } catch (IllegalArgumentException e) {
-                return UUID.nameUUIDFromBytes(sub.getBytes());
-            }
+        return principal(authentication).id();
+    }
+
+    private MedInsightPrincipal principal(Authentication authentication) {
+        MedInsightPrincipal principal = MedInsightPrincipal.from(authentication);
+        if (principal == null) {
+            throw new RuntimeException("Invalid authentication");
         }
-        throw new RuntimeException("Invalid authentication");
+        return principal;
     }
 }
@@ -0,0 +1,24 @@
+package com.medinsight.record.dto;
+
+import com.medinsight.record.entity.ClinicalCodeType;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClinicalCodeRef {
+    @NotNull
+    private ClinicalCodeType type;
+
+    /**
+     * Code or free-text label; matched after normalization (case, accents, punctuation).
+     */
+    @NotBlank
+    private String code;
+}
@@ -0,0 +1,21 @@
+package com.medinsight.record.dto;
+
+import com.medinsight.record.entity.ClinicalCodeType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClinicalCodeResponse {
+    private UUID id;
+    private ClinicalCodeType type;
+    private String code;
+    private String label;
+    private long patientCount;
+}
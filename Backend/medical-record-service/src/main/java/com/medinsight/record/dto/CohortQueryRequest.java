@@ -0,0 +1,33 @@
+package com.medinsight.record.dto;
+
+import jakarta.validation.Valid;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CohortQueryRequest {
+    /** Patients must have every one of these codes. */
+    @Valid
+    @Builder.Default
+    private List<ClinicalCodeRef> allOf = new ArrayList<>();
+
+    /** Patients must have at least one of these codes (ignored when empty). */
+    @Valid
+    @Builder.Default
+    private List<ClinicalCodeRef> anyOf = new ArrayList<>();
+
+    /** Patients must have none of these codes. */
+    @Valid
+    @Builder.Default
+    private List<ClinicalCodeRef> noneOf = new ArrayList<>();
+
+    private boolean includePatientIds;
+}
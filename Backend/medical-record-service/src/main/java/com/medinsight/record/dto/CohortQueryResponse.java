@@ -0,0 +1,27 @@
+package com.medinsight.record.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CohortQueryResponse {
+    private long count;
+
+    /**
+     * Matching patients when requested, capped by {@code cohort.max-patient-ids}.
+     */
+    private List<UUID> patientIds;
+
+    /**
+     * Requested codes that no patient has ever had.
+     */
+    private List<ClinicalCodeRef> unknownCodes;
+}
@@ -19,4 +19,9 @@ public class ConsultationNoteResponse {
     private UUID doctorId;
     private String noteContent;
     private LocalDateTime createdAt;
+
+    /**
+     * True when {@code noteContent} is a preview; fetch the note by ID for the full text.
+     */
+    private boolean truncated;
 }
@@ -0,0 +1,11 @@
+package com.medinsight.record.dto;
+
+/**
+ * Sections aggregated into a {@link MedicalDossierResponse}.
+ */
+public enum DossierSection {
+    MEDICAL_RECORD,
+    CONSULTATION_NOTES,
+    APPOINTMENTS,
+    PRESCRIPTIONS
+}
@@ -0,0 +1,19 @@
+package com.medinsight.record.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExternalPatientHistoryResponse {
+    private UUID patientId;
+    private List<ExternalAppointmentResponse> appointments;
+    private List<ExternalPrescriptionResponse> prescriptions;
+}
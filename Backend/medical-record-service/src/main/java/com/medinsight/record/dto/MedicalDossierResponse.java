@@ -5,6 +5,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -15,7 +16,18 @@ import java.util.UUID;
 public class MedicalDossierResponse {
     private UUID patientId;
     private PatientMedicalRecordResponse medicalRecord;
+    /**
+     * Most recent notes as previews; older ones are read from the notes endpoint
+     * starting at {@code consultationNotesNextCursor}.
+     */
     private List<ConsultationNoteResponse> consultationNotes;
+    private String consultationNotesNextCursor;
     private List<ExternalAppointmentResponse> appointmentHistory;
     private List<ExternalPrescriptionResponse> prescriptionHistory;
+
+    /**
+     * Sections that could not be loaded in time; empty when the dossier is complete.
+     */
+    @Builder.Default
+    private List<DossierSection> missingSections = new ArrayList<>();
 }
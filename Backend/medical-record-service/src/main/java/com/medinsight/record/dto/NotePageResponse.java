@@ -0,0 +1,21 @@
+package com.medinsight.record.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotePageResponse {
+    private List<ConsultationNoteResponse> notes;
+
+    /**
+     * Opaque cursor for the next (older) page; null on the last page.
+     */
+    private String nextCursor;
+}
@@ -0,0 +1,37 @@
+package com.medinsight.record.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchHitResponse {
+
+    public enum Source {
+        CONSULTATION_NOTE,
+        MEDICAL_RECORD
+    }
+
+    private Source source;
+
+    /**
+     * Note ID, or record ID for {@link Source#MEDICAL_RECORD}.
+     */
+    private UUID id;
+    private UUID appointmentId;
+    private UUID doctorId;
+    private LocalDateTime createdAt;
+
+    /**
+     * Matching fragments, with terms wrapped in {@code <b>} tags.
+     */
+    private String snippet;
+    private double rank;
+}
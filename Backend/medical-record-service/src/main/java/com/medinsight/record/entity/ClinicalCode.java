@@ -0,0 +1,37 @@
+package com.medinsight.record.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.util.UUID;
+
+/**
+ * Normalized allergy or chronic condition, shared by every patient who has it.
+ * {@code code} is the matching key derived from the free text; {@code label}
+ * keeps the first spelling seen for display.
+ */
+@Entity
+@Table(name = "clinical_codes", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_clinical_code", columnNames = {"type", "code"})
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ClinicalCode {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private ClinicalCodeType type;
+
+    @Column(nullable = false)
+    private String code;
+
+    @Column(nullable = false)
+    private String label;
+}
@@ -0,0 +1,6 @@
+package com.medinsight.record.entity;
+
+public enum ClinicalCodeType {
+    ALLERGY,
+    CHRONIC_CONDITION
+}
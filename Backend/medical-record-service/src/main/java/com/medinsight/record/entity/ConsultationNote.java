@@ -10,7 +10,8 @@ import java.util.UUID;
 @Entity
 @Table(name = "consultation_notes", indexes = {
     @Index(name = "idx_note_appointment", columnList = "appointment_id"),
-    @Index(name = "idx_note_patient", columnList = "patient_id")
+    @Index(name = "idx_note_patient", columnList = "patient_id"),
+    @Index(name = "idx_note_patient_created", columnList = "patient_id, created_at, id")
 })
 @Getter
 @Setter
@@ -0,0 +1,30 @@
+package com.medinsight.record.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.util.UUID;
+
+@Entity
+@Table(name = "patient_clinical_codes", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_patient_clinical_code", columnNames = {"patient_id", "code_id"})
+}, indexes = {
+    @Index(name = "idx_patient_code_code", columnList = "code_id, patient_id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PatientClinicalCode {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "patient_id", nullable = false)
+    private UUID patientId;
+
+    @Column(name = "code_id", nullable = false)
+    private UUID codeId;
+}
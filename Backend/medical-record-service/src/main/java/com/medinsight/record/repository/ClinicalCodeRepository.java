@@ -0,0 +1,16 @@
+package com.medinsight.record.repository;
+
+import com.medinsight.record.entity.ClinicalCode;
+import com.medinsight.record.entity.ClinicalCodeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface ClinicalCodeRepository extends JpaRepository<ClinicalCode, UUID> {
+    Optional<ClinicalCode> findByTypeAndCode(ClinicalCodeType type, String code);
+    List<ClinicalCode> findByTypeOrderByCode(ClinicalCodeType type);
+}
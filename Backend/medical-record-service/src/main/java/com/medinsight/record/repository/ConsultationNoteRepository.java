@@ -1,9 +1,14 @@
 package com.medinsight.record.repository;
 
+import com.medinsight.record.dto.ConsultationNoteResponse;
 import com.medinsight.record.entity.ConsultationNote;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -11,4 +16,52 @@ import java.util.UUID;
 public interface ConsultationNoteRepository extends JpaRepository<ConsultationNote, UUID> {
     List<ConsultationNote> findByPatientId(UUID patientId);
     List<ConsultationNote> findByAppointmentId(UUID appointmentId);
+
+    /**
+     * Notes of a patient older than the (createdAt, id) cursor, newest first.
+     * The page size is taken from {@code pageable}; its sort is ignored.
+     */
+    @Query("SELECT n FROM ConsultationNote n WHERE n.patientId = :patientId " +
+           "AND (n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.id < :id)) " +
+           "ORDER BY n.createdAt DESC, n.id DESC")
+    List<ConsultationNote> findPageByPatientId(@Param("patientId") UUID patientId,
+                                               @Param("createdAt") LocalDateTime createdAt,
+                                               @Param("id") UUID id,
+                                               Pageable pageable);
+
+    /**
+     * Same page as {@link #findPageByPatientId}, but only the first
+     * {@code previewLength} characters of each note are read from the database.
+     */
+    @Query("SELECT new com.medinsight.record.dto.ConsultationNoteResponse(" +
+           "n.id, n.appointmentId, n.patientId, n.doctorId, substring(n.noteContent, 1, :previewLength), " +
+           "n.createdAt, CASE WHEN length(n.noteContent) > :previewLength THEN true ELSE false END) " +
+           "FROM ConsultationNote n WHERE n.patientId = :patientId " +
+           "AND (n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.id < :id)) " +
+           "ORDER BY n.createdAt DESC, n.id DESC")
+    List<ConsultationNoteResponse> findSummaryPageByPatientId(@Param("patientId") UUID patientId,
+                                                              @Param("createdAt") LocalDateTime createdAt,
+                                                              @Param("id") UUID id,
+                                                              @Param("previewLength") int previewLength,
+                                                              Pageable pageable);
+
+    /**
+     * Full-text search in a patient's notes (PostgreSQL, French stemming). Rows are
+     * ranked first and only the top {@code limit} get a highlighted snippet.
+     */
+    @Query(value = "SELECT hit.id, hit.appointment_id AS \"appointmentId\", hit.doctor_id AS \"doctorId\", " +
+           "hit.created_at AS \"createdAt\", hit.rank, " +
+           "ts_headline('french', n.note_content, websearch_to_tsquery('french', :query), " +
+           "'MaxFragments=2, MaxWords=20, MinWords=5') AS snippet " +
+           "FROM (SELECT n.id, n.appointment_id, n.doctor_id, n.created_at, " +
+           "      ts_rank(n.search_vector, q) AS rank " +
+           "      FROM consultation_notes n, websearch_to_tsquery('french', :query) q " +
+           "      WHERE n.patient_id = :patientId AND n.search_vector @@ q " +
+           "      ORDER BY rank DESC, n.created_at DESC LIMIT :limit) hit " +
+           "JOIN consultation_notes n ON n.id = hit.id " +
+           "ORDER BY hit.rank DESC, hit.created_at DESC",
+           nativeQuery = true)
+    List<TextSearchHit> searchByPatientId(@Param("patientId") UUID patientId,
+                                          @Param("query") String query,
+                                          @Param("limit") int limit);
 }
@@ -2,12 +2,34 @@ package com.medinsight.record.repository;
 
 import com.medinsight.record.entity.PatientMedicalRecord;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface MedicalRecordRepository extends JpaRepository<PatientMedicalRecord, UUID> {
     Optional<PatientMedicalRecord> findByPatientId(UUID patientId);
+
+    /**
+     * Every patient with a record. Must be consumed inside a transaction and closed.
+     */
+    @Query("SELECT r.patientId FROM PatientMedicalRecord r")
+    Stream<UUID> streamAllPatientIds();
+
+    /**
+     * Full-text match against the record's allergies, chronic conditions and
+     * medical history (PostgreSQL, French stemming).
+     */
+    @Query(value = "SELECT r.id, CAST(NULL AS uuid) AS \"appointmentId\", CAST(NULL AS uuid) AS \"doctorId\", " +
+           "r.updated_at AS \"createdAt\", ts_rank(r.search_vector, q) AS rank, " +
+           "ts_headline('french', concat_ws(' ', r.allergies, r.chronic_conditions, r.medical_history), q, " +
+           "'MaxFragments=2, MaxWords=20, MinWords=5') AS snippet " +
+           "FROM medical_records r, websearch_to_tsquery('french', :query) q " +
+           "WHERE r.patient_id = :patientId AND r.search_vector @@ q",
+           nativeQuery = true)
+    Optional<TextSearchHit> searchByPatientId(@Param("patientId") UUID patientId, @Param("query") String query);
 }
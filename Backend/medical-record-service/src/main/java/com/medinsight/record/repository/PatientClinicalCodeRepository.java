@@ -0,0 +1,28 @@
+package com.medinsight.record.repository;
+
+import com.medinsight.record.entity.PatientClinicalCode;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+@Repository
+public interface PatientClinicalCodeRepository extends JpaRepository<PatientClinicalCode, UUID> {
+    List<PatientClinicalCode> findByPatientId(UUID patientId);
+
+    @Modifying
+    @Query("DELETE FROM PatientClinicalCode p WHERE p.patientId = :patientId")
+    void deleteByPatientId(@Param("patientId") UUID patientId);
+
+    /**
+     * Every (patientId, codeId) pair, for building the cohort index. Must be
+     * consumed inside a transaction and closed.
+     */
+    @Query("SELECT p.patientId, p.codeId FROM PatientClinicalCode p")
+    Stream<Object[]> streamAllPairs();
+}
@@ -0,0 +1,16 @@
+package com.medinsight.record.repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Row of a native full-text search query.
+ */
+public interface TextSearchHit {
+    UUID getId();
+    UUID getAppointmentId();
+    UUID getDoctorId();
+    LocalDateTime getCreatedAt();
+    String getSnippet();
+    Double getRank();
+}
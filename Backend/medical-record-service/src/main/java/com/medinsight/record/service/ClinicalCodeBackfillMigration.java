@@ -0,0 +1,125 @@
+package com.medinsight.record.service;
+
+import com.medinsight.record.entity.ClinicalCodeType;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.api.MigrationVersion;
+import org.flywaydb.core.api.migration.Context;
+import org.flywaydb.core.api.migration.JavaMigration;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * V3: derives the clinical codes of every existing record from its free text,
+ * with the same parser as {@link CohortService}. Flyway runs it once, holding
+ * its migration lock, so replicas starting together do not repeat it.
+ * Registered as a bean because the parser is private to this package.
+ */
+@Component
+@Slf4j
+public class ClinicalCodeBackfillMigration implements JavaMigration {
+
+    private static final String SELECT_RECORDS =
+            "SELECT patient_id, allergies, chronic_conditions FROM medical_records";
+    // Codes may be created concurrently by instances already serving requests
+    private static final String INSERT_CODE =
+            "INSERT INTO clinical_codes (id, type, code, label) VALUES (?, ?, ?, ?) ON CONFLICT (type, code) DO NOTHING";
+    private static final String SELECT_CODE = "SELECT id FROM clinical_codes WHERE type = ? AND code = ?";
+    private static final String DELETE_PATIENT_CODES = "DELETE FROM patient_clinical_codes WHERE patient_id = ?";
+    private static final String INSERT_PATIENT_CODE =
+            "INSERT INTO patient_clinical_codes (id, patient_id, code_id) VALUES (?, ?, ?)";
+
+    @Override
+    public MigrationVersion getVersion() {
+        return MigrationVersion.fromVersion("3");
+    }
+
+    @Override
+    public String getDescription() {
+        return "backfill clinical codes";
+    }
+
+    @Override
+    public Integer getChecksum() {
+        return null;
+    }
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return true;
+    }
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        Map<String, UUID> codeIds = new HashMap<>();
+        long processed = 0;
+        try (PreparedStatement records = connection.prepareStatement(SELECT_RECORDS);
+             PreparedStatement deleteCodes = connection.prepareStatement(DELETE_PATIENT_CODES);
+             PreparedStatement insertCode = connection.prepareStatement(INSERT_PATIENT_CODE)) {
+            records.setFetchSize(500);
+            try (ResultSet rows = records.executeQuery()) {
+                while (rows.next()) {
+                    UUID patientId = rows.getObject(1, UUID.class);
+                    Set<UUID> codes = new LinkedHashSet<>();
+                    codes.addAll(resolve(connection, codeIds, ClinicalCodeType.ALLERGY, rows.getString(2)));
+                    codes.addAll(resolve(connection, codeIds, ClinicalCodeType.CHRONIC_CONDITION, rows.getString(3)));
+
+                    deleteCodes.setObject(1, patientId);
+                    deleteCodes.executeUpdate();
+                    for (UUID codeId : codes) {
+                        insertCode.setObject(1, UUID.randomUUID());
+                        insertCode.setObject(2, patientId);
+                        insertCode.setObject(3, codeId);
+                        insertCode.addBatch();
+                    }
+                    insertCode.executeBatch();
+                    processed++;
+                }
+            }
+        }
+        log.info("Backfilled clinical codes for {} medical records", processed);
+    }
+
+    private static Set<UUID> resolve(Connection connection, Map<String, UUID> codeIds, ClinicalCodeType type,
+            String text) throws SQLException {
+        Set<UUID> ids = new LinkedHashSet<>();
+        for (Map.Entry<String, String> entry : ClinicalCodeParser.parse(text).entrySet()) {
+            String cacheKey = type + ":" + entry.getKey();
+            UUID id = codeIds.get(cacheKey);
+            if (id == null) {
+                id = insertOrSelect(connection, type, entry.getKey(), entry.getValue());
+                codeIds.put(cacheKey, id);
+            }
+            ids.add(id);
+        }
+        return ids;
+    }
+
+    private static UUID insertOrSelect(Connection connection, ClinicalCodeType type, String code, String label)
+            throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(INSERT_CODE)) {
+            insert.setObject(1, UUID.randomUUID());
+            insert.setString(2, type.name());
+            insert.setString(3, code);
+            insert.setString(4, label);
+            insert.executeUpdate();
+        }
+        try (PreparedStatement select = connection.prepareStatement(SELECT_CODE)) {
+            select.setString(1, type.name());
+            select.setString(2, code);
+            try (ResultSet row = select.executeQuery()) {
+                row.next();
+                return row.getObject(1, UUID.class);
+            }
+        }
+    }
+}
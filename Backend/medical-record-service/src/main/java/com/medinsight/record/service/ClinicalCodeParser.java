@@ -0,0 +1,51 @@
+package com.medinsight.record.service;
+
+import java.text.Normalizer;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Turns the free-text allergy and condition fields into normalized codes.
+ * "Pénicilline, Arachides" and "penicilline ; arachides" give the same codes.
+ */
+final class ClinicalCodeParser {
+
+    private static final Pattern SEPARATORS = Pattern.compile("[,;/|\\n\\r]+|\\s+(?:et|and)\\s+");
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_WORD = Pattern.compile("[^a-z0-9 -]+");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+
+    /** Entries that mean "nothing to report" rather than an actual allergy or condition. */
+    private static final Set<String> PLACEHOLDERS = Set.of(
+            "aucun", "aucune", "neant", "rien", "none", "na", "nr", "inconnu", "unknown", "ras");
+
+    private ClinicalCodeParser() {
+    }
+
+    /**
+     * Codes found in the text, mapped to their original spelling, in order of appearance.
+     */
+    static Map<String, String> parse(String text) {
+        Map<String, String> codes = new LinkedHashMap<>();
+        if (text == null || text.isBlank()) {
+            return codes;
+        }
+        for (String entry : SEPARATORS.split(text)) {
+            String label = SPACES.matcher(entry.trim()).replaceAll(" ");
+            String code = normalize(label);
+            if (code.length() > 1 && !PLACEHOLDERS.contains(code)) {
+                codes.putIfAbsent(code, label);
+            }
+        }
+        return codes;
+    }
+
+    static String normalize(String value) {
+        String ascii = DIACRITICS.matcher(Normalizer.normalize(value, Normalizer.Form.NFD)).replaceAll("");
+        String cleaned = NON_WORD.matcher(ascii.toLowerCase(Locale.ROOT)).replaceAll(" ");
+        return SPACES.matcher(cleaned).replaceAll(" ").trim();
+    }
+}
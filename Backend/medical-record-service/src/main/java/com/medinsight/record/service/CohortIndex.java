@@ -0,0 +1,186 @@
+package com.medinsight.record.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * In-memory inverted index from clinical code to the patients who have it,
+ * stored as compressed bitmaps. Patients are numbered densely in the order
+ * they are first seen; the bitmaps hold those numbers.
+ */
+@Component
+@Slf4j
+public class CohortIndex {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Map<UUID, Integer> ordinals = new HashMap<>();
+    private List<UUID> patients = new ArrayList<>();
+    private Map<UUID, RoaringBitmap> bitmapsByCode = new HashMap<>();
+    private RoaringBitmap allPatients = new RoaringBitmap();
+    /** Patients replaced since the running rebuild started reading, null when none runs. */
+    private Map<UUID, Collection<UUID>> replacedDuringRebuild;
+
+    public record CohortResult(long count, List<UUID> patientIds) {
+    }
+
+    /**
+     * Patients numbered and bitmaps built from the database, ready to be swapped in.
+     */
+    public static final class Snapshot {
+
+        private final Map<UUID, Integer> ordinals = new HashMap<>();
+        private final List<UUID> patients = new ArrayList<>();
+        private final Map<UUID, RoaringBitmap> bitmapsByCode = new HashMap<>();
+        private final RoaringBitmap allPatients = new RoaringBitmap();
+
+        /**
+         * @param patientIds every patient with a record
+         * @param pairs      (patientId, codeId) rows
+         */
+        public Snapshot(Stream<UUID> patientIds, Stream<Object[]> pairs) {
+            patientIds.forEach(patientId -> allPatients.add(ordinal(patientId, ordinals, patients)));
+            pairs.forEach(pair -> {
+                int ordinal = ordinal((UUID) pair[0], ordinals, patients);
+                allPatients.add(ordinal);
+                bitmapsByCode.computeIfAbsent((UUID) pair[1], code -> new RoaringBitmap()).add(ordinal);
+            });
+            allPatients.runOptimize();
+            bitmapsByCode.values().forEach(RoaringBitmap::runOptimize);
+        }
+    }
+
+    /**
+     * Replace the whole index with the snapshot read by {@code loader}. A
+     * patient replaced while it reads may be missing from the rows it got, so
+     * those replacements are applied again on top of the new index.
+     */
+    public synchronized void rebuild(Supplier<Snapshot> loader) {
+        lock.writeLock().lock();
+        try {
+            replacedDuringRebuild = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Snapshot snapshot = null;
+        try {
+            snapshot = loader.get();
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (snapshot != null) {
+                    ordinals = snapshot.ordinals;
+                    patients = snapshot.patients;
+                    bitmapsByCode = snapshot.bitmapsByCode;
+                    allPatients = snapshot.allPatients;
+                    replacedDuringRebuild.forEach(this::applyReplacement);
+                }
+                replacedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        log.info("Cohort index rebuilt: {} patients, {} codes", snapshot.patients.size(),
+                snapshot.bitmapsByCode.size());
+    }
+
+    /**
+     * Set the codes of one patient, dropping any they had before.
+     */
+    public void replacePatient(UUID patientId, Collection<UUID> codeIds) {
+        lock.writeLock().lock();
+        try {
+            applyReplacement(patientId, codeIds);
+            if (replacedDuringRebuild != null) {
+                replacedDuringRebuild.put(patientId, codeIds);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Patients having every code of {@code allOf}, at least one of {@code anyOf}
+     * (when not empty) and none of {@code noneOf}. Empty lists do not constrain
+     * the result, so a query with only {@code noneOf} excludes from every patient.
+     *
+     * @param maxPatientIds how many patient IDs to return; the count is always exact
+     */
+    public CohortResult query(Collection<UUID> allOf, Collection<UUID> anyOf, Collection<UUID> noneOf,
+            int maxPatientIds) {
+        lock.readLock().lock();
+        try {
+            // Every step works on a fresh bitmap; the indexed ones are never mutated
+            RoaringBitmap result = allPatients.clone();
+            for (RoaringBitmap bitmap : bitmaps(allOf)) {
+                result.and(bitmap);
+            }
+            if (!anyOf.isEmpty()) {
+                result.and(RoaringBitmap.or(bitmaps(anyOf).iterator()));
+            }
+            if (!noneOf.isEmpty()) {
+                result.andNot(RoaringBitmap.or(bitmaps(noneOf).iterator()));
+            }
+
+            List<UUID> ids = new ArrayList<>(Math.min(result.getCardinality(), maxPatientIds));
+            PeekableIntIterator iterator = result.getIntIterator();
+            while (iterator.hasNext() && ids.size() < maxPatientIds) {
+                ids.add(patients.get(iterator.next()));
+            }
+            return new CohortResult(result.getLongCardinality(), ids);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long patientCount(UUID codeId) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap bitmap = bitmapsByCode.get(codeId);
+            return bitmap != null ? bitmap.getLongCardinality() : 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Bitmaps of the given codes; a code nobody has yields an empty bitmap.
+     */
+    private List<RoaringBitmap> bitmaps(Collection<UUID> codeIds) {
+        return codeIds.stream()
+                .map(bitmapsByCode::get)
+                .map(bitmap -> Objects.requireNonNullElseGet(bitmap, RoaringBitmap::new))
+                .toList();
+    }
+
+    private void applyReplacement(UUID patientId, Collection<UUID> codeIds) {
+        int ordinal = ordinal(patientId, ordinals, patients);
+        allPatients.add(ordinal);
+        bitmapsByCode.values().forEach(bitmap -> bitmap.remove(ordinal));
+        for (UUID codeId : codeIds) {
+            bitmapsByCode.computeIfAbsent(codeId, code -> new RoaringBitmap()).add(ordinal);
+        }
+    }
+
+    private static int ordinal(UUID patientId, Map<UUID, Integer> ordinals, List<UUID> patients) {
+        return ordinals.computeIfAbsent(patientId, id -> {
+            patients.add(id);
+            return patients.size() - 1;
+        });
+    }
+}
@@ -0,0 +1,176 @@
+package com.medinsight.record.service;
+
+import com.medinsight.common.transaction.AfterCommit;
+import com.medinsight.record.config.CohortProperties;
+import com.medinsight.record.dto.ClinicalCodeRef;
+import com.medinsight.record.dto.ClinicalCodeResponse;
+import com.medinsight.record.dto.CohortQueryRequest;
+import com.medinsight.record.dto.CohortQueryResponse;
+import com.medinsight.record.entity.ClinicalCode;
+import com.medinsight.record.entity.ClinicalCodeType;
+import com.medinsight.record.entity.PatientClinicalCode;
+import com.medinsight.record.repository.ClinicalCodeRepository;
+import com.medinsight.record.repository.MedicalRecordRepository;
+import com.medinsight.record.repository.PatientClinicalCodeRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the structured allergy and condition codes in sync with the free-text
+ * fields of the medical record, and answers cohort queries from the bitmap index.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CohortService {
+
+    private final MedicalRecordRepository recordRepository;
+    private final ClinicalCodeRepository codeRepository;
+    private final PatientClinicalCodeRepository patientCodeRepository;
+    private final CohortIndex cohortIndex;
+    private final CohortProperties cohortProperties;
+    private final PlatformTransactionManager transactionManager;
+
+    /**
+     * Codes of records that predate the cohort index are derived once by
+     * {@link ClinicalCodeBackfillMigration}, before the application starts.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${cohort.refresh-interval:PT10M}",
+            fixedDelayString = "${cohort.refresh-interval:PT10M}")
+    public void rebuildIndex() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        cohortIndex.rebuild(() -> readOnly.execute(status -> {
+            try (Stream<UUID> patientIds = recordRepository.streamAllPatientIds();
+                 Stream<Object[]> pairs = patientCodeRepository.streamAllPairs()) {
+                return new CohortIndex.Snapshot(patientIds, pairs);
+            }
+        }));
+    }
+
+    /**
+     * Replace the codes of a patient from the record's free text. The index is
+     * updated once the surrounding transaction commits.
+     */
+    @Transactional
+    public void syncPatientCodes(UUID patientId, String allergies, String chronicConditions) {
+        Set<UUID> codeIds = replaceCodes(patientId, allergies, chronicConditions);
+        AfterCommit.run(() -> cohortIndex.replacePatient(patientId, codeIds));
+    }
+
+    public CohortQueryResponse query(CohortQueryRequest request) {
+        List<ClinicalCodeRef> requestedAll = Objects.requireNonNullElse(request.getAllOf(), List.of());
+        List<ClinicalCodeRef> requestedAny = Objects.requireNonNullElse(request.getAnyOf(), List.of());
+        List<ClinicalCodeRef> requestedNone = Objects.requireNonNullElse(request.getNoneOf(), List.of());
+
+        List<ClinicalCodeRef> unknown = new ArrayList<>();
+        List<UUID> allOf = resolve(requestedAll, unknown);
+        List<UUID> anyOf = resolve(requestedAny, unknown);
+        List<UUID> noneOf = resolve(requestedNone, unknown);
+
+        // A required code nobody has, or alternatives none of which exist, match no one
+        boolean empty = allOf.size() < requestedAll.size() || (!requestedAny.isEmpty() && anyOf.isEmpty());
+        if (empty) {
+            return CohortQueryResponse.builder()
+                    .count(0)
+                    .patientIds(request.isIncludePatientIds() ? List.of() : null)
+                    .unknownCodes(unknown)
+                    .build();
+        }
+
+        int maxIds = request.isIncludePatientIds() ? cohortProperties.getMaxPatientIds() : 0;
+        CohortIndex.CohortResult result = cohortIndex.query(allOf, anyOf, noneOf, maxIds);
+        return CohortQueryResponse.builder()
+                .count(result.count())
+                .patientIds(request.isIncludePatientIds() ? result.patientIds() : null)
+                .unknownCodes(unknown)
+                .build();
+    }
+
+    @Transactional(readOnly = true)
+    public List<ClinicalCodeResponse> listCodes(ClinicalCodeType type) {
+        List<ClinicalCode> codes = type != null
+                ? codeRepository.findByTypeOrderByCode(type)
+                : codeRepository.findAll(Sort.by("type", "code"));
+        return codes.stream()
+                .map(code -> ClinicalCodeResponse.builder()
+                        .id(code.getId())
+                        .type(code.getType())
+                        .code(code.getCode())
+                        .label(code.getLabel())
+                        .patientCount(cohortIndex.patientCount(code.getId()))
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    private Set<UUID> replaceCodes(UUID patientId, String allergies, String chronicConditions) {
+        Set<UUID> codeIds = new LinkedHashSet<>();
+        codeIds.addAll(resolveOrCreate(ClinicalCodeType.ALLERGY, allergies));
+        codeIds.addAll(resolveOrCreate(ClinicalCodeType.CHRONIC_CONDITION, chronicConditions));
+
+        patientCodeRepository.deleteByPatientId(patientId);
+        patientCodeRepository.saveAll(codeIds.stream()
+                .map(codeId -> PatientClinicalCode.builder().patientId(patientId).codeId(codeId).build())
+                .collect(Collectors.toList()));
+        return codeIds;
+    }
+
+    private List<UUID> resolveOrCreate(ClinicalCodeType type, String text) {
+        List<UUID> ids = new ArrayList<>();
+        for (Map.Entry<String, String> entry : ClinicalCodeParser.parse(text).entrySet()) {
+            ClinicalCode code = codeRepository.findByTypeAndCode(type, entry.getKey())
+                    .orElseGet(() -> create(type, entry.getKey(), entry.getValue()));
+            ids.add(code.getId());
+        }
+        return ids;
+    }
+
+    /**
+     * Inserts a new code in its own transaction, so that losing the race to a
+     * concurrent request for the same code does not abort the caller's: the
+     * unique constraint rejects the duplicate and the winner's row is read back.
+     */
+    private ClinicalCode create(ClinicalCodeType type, String key, String label) {
+        TransactionTemplate newTransaction = new TransactionTemplate(transactionManager);
+        newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            return newTransaction.execute(status -> codeRepository.saveAndFlush(ClinicalCode.builder()
+                    .type(type)
+                    .code(key)
+                    .label(label)
+                    .build()));
+        } catch (DataIntegrityViolationException e) {
+            return codeRepository.findByTypeAndCode(type, key).orElseThrow(() -> e);
+        }
+    }
+
+    private List<UUID> resolve(List<ClinicalCodeRef> refs, List<ClinicalCodeRef> unknown) {
+        List<UUID> ids = new ArrayList<>();
+        for (ClinicalCodeRef ref : refs) {
+            codeRepository.findByTypeAndCode(ref.getType(), ClinicalCodeParser.normalize(ref.getCode()))
+                    .ifPresentOrElse(code -> ids.add(code.getId()), () -> unknown.add(ref));
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,106 @@
+package com.medinsight.record.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.medinsight.common.transaction.AfterCommit;
+import com.medinsight.record.config.DossierProperties;
+import com.medinsight.record.dto.MedicalDossierResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded, time-limited cache of aggregated dossiers keyed by patient.
+ * Entries are evicted on local writes and on change notifications from
+ * appointment-service; the TTL caps staleness if a notification is lost.
+ */
+@Component
+@Slf4j
+public class DossierCache {
+
+    private final boolean enabled;
+    private final Cache<UUID, CachedDossier> dossiers;
+
+    /**
+     * When each patient was last invalidated. A load that started before the
+     * latest invalidation must not be cached, or it would resurrect stale data.
+     */
+    private final Cache<UUID, Long> invalidations;
+    private final Timer stalenessTimer;
+
+    public DossierCache(DossierProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.isCacheEnabled();
+        this.dossiers = Caffeine.newBuilder()
+                .maximumSize(properties.getCacheMaxEntries())
+                .expireAfterWrite(properties.getCacheTtl())
+                .recordStats()
+                .build();
+        this.invalidations = Caffeine.newBuilder()
+                .maximumSize(properties.getCacheMaxEntries())
+                .expireAfterWrite(properties.getCacheTtl())
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, dossiers, "dossier");
+        this.stalenessTimer = Timer.builder("dossier.cache.staleness")
+                .description("Age of cached dossiers when served")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Timestamp to pass to {@link #put} for a load starting now.
+     */
+    public long startLoad() {
+        return System.nanoTime();
+    }
+
+    public Optional<MedicalDossierResponse> get(UUID patientId) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        CachedDossier cached = dossiers.getIfPresent(patientId);
+        if (cached == null) {
+            return Optional.empty();
+        }
+        stalenessTimer.record(System.nanoTime() - cached.cachedAtNanos(), TimeUnit.NANOSECONDS);
+        return Optional.of(cached.dossier());
+    }
+
+    public void put(UUID patientId, MedicalDossierResponse dossier, long loadStartedNanos) {
+        if (!enabled) {
+            return;
+        }
+        Long invalidatedAt = invalidations.getIfPresent(patientId);
+        if (invalidatedAt != null && invalidatedAt - loadStartedNanos >= 0) {
+            log.debug("Skipping cache of dossier for patient {}: invalidated during load", patientId);
+            return;
+        }
+        dossiers.put(patientId, new CachedDossier(dossier, System.nanoTime()));
+    }
+
+    /**
+     * Evict a patient's dossier. Inside a transaction the eviction happens after
+     * commit, so a concurrent read cannot cache the pre-commit state.
+     */
+    public void evict(UUID patientId) {
+        if (!enabled) {
+            return;
+        }
+        AfterCommit.runNowAndAfter(() -> invalidate(patientId));
+    }
+
+    private void invalidate(UUID patientId) {
+        invalidations.put(patientId, System.nanoTime());
+        dossiers.invalidate(patientId);
+        log.debug("Evicted cached dossier for patient {}", patientId);
+    }
+
+    private record CachedDossier(MedicalDossierResponse dossier, long cachedAtNanos) {
+    }
+}
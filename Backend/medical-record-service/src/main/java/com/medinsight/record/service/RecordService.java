@@ -1,24 +1,42 @@
 package com.medinsight.record.service;
 
+import com.medinsight.common.client.AuditClient;
+import com.medinsight.common.client.MailClient;
 import com.medinsight.record.client.AppointmentClient;
-import com.medinsight.record.client.AuditClient;
-import com.medinsight.record.client.MailClient;
+import com.medinsight.record.config.DossierProperties;
 import com.medinsight.record.dto.*;
 import com.medinsight.record.entity.ConsultationNote;
 import com.medinsight.record.entity.PatientMedicalRecord;
+import com.medinsight.record.exception.InvalidSearchQueryException;
 import com.medinsight.record.exception.ResourceNotFoundException;
 import com.medinsight.record.repository.ConsultationNoteRepository;
 import com.medinsight.record.repository.MedicalRecordRepository;
+import com.medinsight.record.repository.TextSearchHit;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,41 +44,148 @@ import java.util.stream.Collectors;
 @Slf4j
 public class RecordService {
 
+    private static final int MAX_NOTES_PAGE_SIZE = 100;
+    private static final int MAX_SEARCH_RESULTS = 100;
+    private static final int MAX_SEARCH_QUERY_LENGTH = 256;
+
     private final MedicalRecordRepository recordRepository;
     private final ConsultationNoteRepository noteRepository;
     private final AppointmentClient appointmentClient;
     private final AuditClient auditClient;
     private final MailClient mailClient;
+    private final AsyncTaskExecutor dossierExecutor;
+    private final DossierProperties dossierProperties;
+    private final DossierCache dossierCache;
+    private final CohortService cohortService;
+    private final PlatformTransactionManager transactionManager;
 
-    @Transactional(readOnly = true)
+    /**
+     * Aggregate the patient dossier. The local sources and the appointment
+     * history are loaded concurrently, so latency is that of the slowest source
+     * rather than their sum. A source that fails or misses its deadline is
+     * reported in {@code missingSections} instead of failing the whole dossier,
+     * and is cancelled so it stops holding a worker and a connection.
+     * Complete dossiers are cached until the patient's data changes.
+     */
     public MedicalDossierResponse getDetailedDossier(UUID patientId, Authentication authentication) {
         log.info("Fetching detailed dossier for patient: {}", patientId);
 
-        // 1. Get Local Clinical Data
-        PatientMedicalRecord record = recordRepository.findByPatientId(patientId)
-                .orElseGet(() -> createEmptyRecord(patientId));
+        Optional<MedicalDossierResponse> cached = dossierCache.get(patientId);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        long loadStarted = dossierCache.startLoad();
 
-        List<ConsultationNote> notes = noteRepository.findByPatientId(patientId);
+        // 1. Start every source at once; the local ones in their own read-only transaction on the worker thread
+        PendingSection<PatientMedicalRecord> recordSection = fetchReadOnly(
+                () -> recordRepository.findByPatientId(patientId).orElseGet(() -> createEmptyRecord(patientId)),
+                dossierProperties.getMedicalRecordTimeout());
+        PendingSection<NotePageResponse> notesSection = fetchReadOnly(
+                () -> getPatientNotes(patientId, null, dossierProperties.getNotesPageSize(), true),
+                dossierProperties.getConsultationNotesTimeout());
+        PendingSection<ExternalPatientHistoryResponse> historySection = fetch(
+                () -> appointmentClient.getPatientHistory(patientId, dossierProperties.getHistoryLimit()),
+                dossierProperties.getAppointmentHistoryTimeout());
 
-        // 2. Fetch Remote Data via Feign
-        List<ExternalAppointmentResponse> appointments = List.of();
-        List<ExternalPrescriptionResponse> prescriptions = List.of();
-
-        try {
-            appointments = appointmentClient.getPatientAppointments(patientId);
-            prescriptions = appointmentClient.getPatientPrescriptions(patientId);
-        } catch (Exception e) {
-            log.error("Failed to fetch data from appointment-service for patient: {}", patientId, e);
-        }
+        // 2. Collect, degrading sections that are late or failed
+        List<DossierSection> missing = new ArrayList<>();
+        PatientMedicalRecord record = await(recordSection, List.of(DossierSection.MEDICAL_RECORD), patientId, missing);
+        NotePageResponse notes = await(notesSection, List.of(DossierSection.CONSULTATION_NOTES), patientId,
+                missing);
+        ExternalPatientHistoryResponse history = await(historySection,
+                List.of(DossierSection.APPOINTMENTS, DossierSection.PRESCRIPTIONS), patientId, missing);
 
         // 3. Aggregate
-        return MedicalDossierResponse.builder()
+        MedicalDossierResponse dossier = MedicalDossierResponse.builder()
                 .patientId(patientId)
-                .medicalRecord(toRecordResponse(record))
-                .consultationNotes(notes.stream().map(this::toNoteResponse).collect(Collectors.toList()))
-                .appointmentHistory(appointments)
-                .prescriptionHistory(prescriptions)
+                .medicalRecord(record != null ? toRecordResponse(record) : null)
+                .consultationNotes(notes != null ? notes.getNotes() : List.of())
+                .consultationNotesNextCursor(notes != null ? notes.getNextCursor() : null)
+                .appointmentHistory(history != null && history.getAppointments() != null
+                        ? history.getAppointments() : List.of())
+                .prescriptionHistory(history != null && history.getPrescriptions() != null
+                        ? history.getPrescriptions() : List.of())
+                .missingSections(missing)
                 .build();
+
+        // Partial dossiers are not cached, so the next read retries the missing sources
+        if (missing.isEmpty()) {
+            dossierCache.put(patientId, dossier, loadStarted);
+        }
+        return dossier;
+    }
+
+    /**
+     * Called by appointment-service when a patient's appointments or
+     * prescriptions change.
+     */
+    public void onAppointmentHistoryChanged(UUID patientId) {
+        dossierCache.evict(patientId);
+    }
+
+    /**
+     * One page of a patient's notes, newest first, using a keyset cursor on
+     * (createdAt, id) so deep pages cost the same as the first one. In summary
+     * mode only a preview of each note is read from the database.
+     */
+    @Transactional(readOnly = true)
+    public NotePageResponse getPatientNotes(UUID patientId, String cursor, int size, boolean summary) {
+        NoteCursor position = NoteCursor.decode(cursor);
+        int pageSize = Math.max(1, Math.min(size, MAX_NOTES_PAGE_SIZE));
+        // One extra row tells whether another page exists
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+
+        List<ConsultationNoteResponse> notes = summary
+                ? noteRepository.findSummaryPageByPatientId(patientId, position.createdAt(), position.id(),
+                        dossierProperties.getNotePreviewLength(), limit)
+                : noteRepository.findPageByPatientId(patientId, position.createdAt(), position.id(), limit)
+                        .stream().map(this::toNoteResponse).collect(Collectors.toList());
+
+        String nextCursor = null;
+        if (notes.size() > pageSize) {
+            notes = notes.subList(0, pageSize);
+            ConsultationNoteResponse last = notes.get(pageSize - 1);
+            nextCursor = new NoteCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return NotePageResponse.builder()
+                .notes(notes)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    /**
+     * Full-text search in a patient's notes and clinical data, best matches first.
+     * Accepts web-search syntax: quoted phrases, {@code OR} and {@code -excluded}.
+     */
+    @Transactional(readOnly = true)
+    public List<SearchHitResponse> search(UUID patientId, String query, int limit) {
+        if (query == null || query.isBlank() || query.length() > MAX_SEARCH_QUERY_LENGTH) {
+            throw new InvalidSearchQueryException(
+                    "Search query must be between 1 and " + MAX_SEARCH_QUERY_LENGTH + " characters");
+        }
+        int maxResults = Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS));
+
+        List<SearchHitResponse> hits = new ArrayList<>();
+        recordRepository.searchByPatientId(patientId, query)
+                .ifPresent(hit -> hits.add(toSearchHit(hit, SearchHitResponse.Source.MEDICAL_RECORD)));
+        noteRepository.searchByPatientId(patientId, query, maxResults)
+                .forEach(hit -> hits.add(toSearchHit(hit, SearchHitResponse.Source.CONSULTATION_NOTE)));
+
+        hits.sort(Comparator.comparingDouble(SearchHitResponse::getRank).reversed());
+        return hits.size() > maxResults ? hits.subList(0, maxResults) : hits;
+    }
+
+    /**
+     * A note, as long as it belongs to {@code patientId} when one is given. A
+     * note of another patient is reported as not found, like a missing one, so
+     * the caller cannot tell which note IDs exist.
+     */
+    @Transactional(readOnly = true)
+    public ConsultationNoteResponse getConsultationNote(UUID noteId, UUID patientId) {
+        return noteRepository.findById(noteId)
+                .filter(note -> patientId == null || patientId.equals(note.getPatientId()))
+                .map(this::toNoteResponse)
+                .orElseThrow(() -> new ResourceNotFoundException("Consultation note not found with ID: " + noteId));
     }
 
     @Transactional
@@ -76,6 +201,8 @@ public class RecordService {
         record.setMedicalHistory(request.getMedicalHistory());
 
         PatientMedicalRecord saved = recordRepository.save(record);
+        cohortService.syncPatientCodes(patientId, request.getAllergies(), request.getChronicConditions());
+        dossierCache.evict(patientId);
 
         auditClient.log(
                 "medical-record-service",
@@ -106,6 +233,7 @@ public class RecordService {
                 .build();
 
         ConsultationNote savedNote = noteRepository.save(note);
+        dossierCache.evict(request.getPatientId());
 
         auditClient.log(
                 "medical-record-service",
@@ -119,6 +247,52 @@ public class RecordService {
         return toNoteResponse(savedNote);
     }
 
+    /**
+     * A section loading on the dossier executor, due by {@code deadline} (nanoTime).
+     */
+    private record PendingSection<T>(Future<T> task, long deadline) {
+    }
+
+    private <T> PendingSection<T> fetch(Supplier<T> loader, Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        Future<T> task;
+        try {
+            task = dossierExecutor.submit(loader::get);
+        } catch (RejectedExecutionException e) {
+            task = CompletableFuture.failedFuture(e);
+        }
+        return new PendingSection<>(task, deadline);
+    }
+
+    /**
+     * Fetch from the database in a read-only transaction, so the query goes to
+     * the replica when there is one. The transaction timeout becomes the JDBC
+     * query timeout, so the database also stops once the section is given up.
+     */
+    private <T> PendingSection<T> fetchReadOnly(Supplier<T> loader, Duration timeout) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.setTimeout((int) Math.max(1, (timeout.toMillis() + 999) / 1000));
+        return fetch(() -> readOnly.execute(status -> loader.get()), timeout);
+    }
+
+    private <T> T await(PendingSection<T> pending, List<DossierSection> sections, UUID patientId,
+            List<DossierSection> missing) {
+        try {
+            return pending.task().get(Math.max(0, pending.deadline() - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            pending.task().cancel(true);
+            log.warn("Dossier sections {} timed out for patient: {}", sections, patientId);
+        } catch (ExecutionException e) {
+            log.error("Failed to load dossier sections {} for patient: {}", sections, patientId, e.getCause());
+        } catch (InterruptedException e) {
+            pending.task().cancel(true);
+            Thread.currentThread().interrupt();
+        }
+        missing.addAll(sections);
+        return null;
+    }
+
     private PatientMedicalRecord createEmptyRecord(UUID patientId) {
         return PatientMedicalRecord.builder()
                 .patientId(patientId)
@@ -154,9 +328,22 @@ public class RecordService {
         }
 
         noteRepository.delete(note);
+        dossierCache.evict(note.getPatientId());
         log.info("Deleted consultation note: {}", noteId);
     }
 
+    private SearchHitResponse toSearchHit(TextSearchHit hit, SearchHitResponse.Source source) {
+        return SearchHitResponse.builder()
+                .source(source)
+                .id(hit.getId())
+                .appointmentId(hit.getAppointmentId())
+                .doctorId(hit.getDoctorId())
+                .createdAt(hit.getCreatedAt())
+                .snippet(hit.getSnippet())
+                .rank(hit.getRank() != null ? hit.getRank() : 0)
+                .build();
+    }
+
     private ConsultationNoteResponse toNoteResponse(ConsultationNote n) {
         return ConsultationNoteResponse.builder()
                 .id(n.getId())
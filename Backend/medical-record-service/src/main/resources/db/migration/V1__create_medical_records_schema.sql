@@ -1,5 +1,7 @@
+-- Idempotent: databases created by Hibernate before Flyway was enabled already have these tables
+
 -- Create medical_records table
-CREATE TABLE medical_records (
+CREATE TABLE IF NOT EXISTS medical_records (
     id UUID PRIMARY KEY,
     patient_id UUID NOT NULL UNIQUE,
     blood_type VARCHAR(10),
@@ -13,7 +15,7 @@ CREATE TABLE medical_records (
 );
 
 -- Create consultation_notes table
-CREATE TABLE consultation_notes (
+CREATE TABLE IF NOT EXISTS consultation_notes (
     id UUID PRIMARY KEY,
     appointment_id UUID NOT NULL,
     patient_id UUID NOT NULL,
@@ -23,9 +25,9 @@ CREATE TABLE consultation_notes (
 );
 
 -- Add indexes
-CREATE INDEX idx_record_patient ON medical_records(patient_id);
-CREATE INDEX idx_note_appointment ON consultation_notes(appointment_id);
-CREATE INDEX idx_note_patient ON consultation_notes(patient_id);
+CREATE INDEX IF NOT EXISTS idx_record_patient ON medical_records(patient_id);
+CREATE INDEX IF NOT EXISTS idx_note_appointment ON consultation_notes(appointment_id);
+CREATE INDEX IF NOT EXISTS idx_note_patient ON consultation_notes(patient_id);
 
 -- Add comments
 COMMENT ON TABLE medical_records IS 'Permanent medical history and clinical data for patients';
@@ -0,0 +1,19 @@
+-- Tables of the cohort index, created here so that V3 can fill them on
+-- databases that predate them. Same definitions Hibernate would generate.
+
+CREATE TABLE IF NOT EXISTS clinical_codes (
+    id UUID PRIMARY KEY,
+    type VARCHAR(32) NOT NULL,
+    code VARCHAR(255) NOT NULL,
+    label VARCHAR(255) NOT NULL,
+    CONSTRAINT uk_clinical_code UNIQUE (type, code)
+);
+
+CREATE TABLE IF NOT EXISTS patient_clinical_codes (
+    id UUID PRIMARY KEY,
+    patient_id UUID NOT NULL,
+    code_id UUID NOT NULL,
+    CONSTRAINT uk_patient_clinical_code UNIQUE (patient_id, code_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_patient_code_code ON patient_clinical_codes(code_id, patient_id);
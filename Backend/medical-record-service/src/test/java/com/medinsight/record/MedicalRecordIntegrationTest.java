@@ -1,6 +1,7 @@
 package com.medinsight.record;
 
 import com.medinsight.record.dto.MedicalDossierResponse;
+import com.medinsight.record.exception.ResourceNotFoundException;
 import com.medinsight.record.service.RecordService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -8,15 +9,23 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
 
+import java.util.List;
 import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -47,4 +56,54 @@ public class MedicalRecordIntegrationTest {
         mockMvc.perform(get("/api/records/patient/" + UUID.randomUUID() + "/dossier"))
                 .andExpect(status().isUnauthorized());
     }
+
+    @Test
+    public void testPatientSearchesOwnDossier() throws Exception {
+        UUID patientId = UUID.randomUUID();
+        when(recordService.search(any(), any(), anyInt())).thenReturn(List.of());
+
+        mockMvc.perform(get("/records/patient/" + patientId + "/search").param("q", "asthme")
+                .with(patient(patientId)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void testPatientCannotSearchAnotherPatientsNotes() throws Exception {
+        mockMvc.perform(get("/records/patient/" + UUID.randomUUID() + "/search").param("q", "asthme")
+                .with(patient(UUID.randomUUID())))
+                .andExpect(status().isForbidden());
+
+        verify(recordService, never()).search(any(), any(), anyInt());
+    }
+
+    @Test
+    public void testPatientReadsNotesOnlyWithinTheirOwnDossier() throws Exception {
+        UUID patientId = UUID.randomUUID();
+        UUID noteId = UUID.randomUUID();
+        when(recordService.getConsultationNote(noteId, patientId))
+                .thenThrow(new ResourceNotFoundException("Consultation note not found with ID: " + noteId));
+
+        mockMvc.perform(get("/records/notes/" + noteId).with(patient(patientId)))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void testHistoryChangedIsForServicesOnly() throws Exception {
+        UUID patientId = UUID.randomUUID();
+
+        mockMvc.perform(post("/records/internal/patients/" + patientId + "/history-changed")
+                .with(patient(patientId)))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/records/internal/patients/" + patientId + "/history-changed")
+                .with(jwt().jwt(jwt -> jwt.subject("appointment-service"))
+                        .authorities(new SimpleGrantedAuthority("ROLE_SERVICE"))))
+                .andExpect(status().isNoContent());
+
+        verify(recordService).onAppointmentHistoryChanged(patientId);
+    }
+
+    private static RequestPostProcessor patient(UUID patientId) {
+        return jwt().jwt(jwt -> jwt.subject(patientId.toString()))
+                .authorities(new SimpleGrantedAuthority("ROLE_PATIENT"));
+    }
 }
@@ -0,0 +1,62 @@
+package com.medinsight.record;
+
+import com.medinsight.record.service.ClinicalCodeBackfillMigration;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The PostgreSQL-only migrations, run with the settings of application.yml on
+ * a schema that already holds another service's tables.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class PostgresMigrationTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @Test
+    void migrate_CreatesTheSearchColumnsAfterTheTables() throws SQLException {
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE realm (id VARCHAR(36) PRIMARY KEY)");
+        }
+
+        Flyway flyway = Flyway.configure()
+                .dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+                .locations("classpath:db/migration", "classpath:db/vendor/postgresql")
+                .javaMigrations(new ClinicalCodeBackfillMigration())
+                .baselineOnMigrate(true)
+                .baselineVersion("0")
+                .table("medical_record_schema_history")
+                .load();
+        flyway.migrate();
+
+        assertThat(Arrays.stream(flyway.info().applied()).map(info -> info.getVersion().getVersion()))
+                .containsExactly("0", "1", "2", "3", "4");
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO consultation_notes (id, appointment_id, patient_id, doctor_id, note_content)"
+                    + " VALUES (gen_random_uuid(), gen_random_uuid(), gen_random_uuid(), gen_random_uuid(),"
+                    + " 'Crise d''asthme nocturne')");
+            try (ResultSet hits = statement.executeQuery("SELECT count(*) FROM consultation_notes"
+                    + " WHERE search_vector @@ websearch_to_tsquery('french', 'asthme')")) {
+                hits.next();
+                assertThat(hits.getInt(1)).isEqualTo(1);
+            }
+        }
+    }
+
+    private static Connection connect() throws SQLException {
+        return DriverManager.getConnection(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+    }
+}
@@ -0,0 +1,38 @@
+package com.medinsight.record;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Migrations on a database whose schema already holds other services'
+ * tables, as in the shared database of docker-compose.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:shared;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;"
+                + "INIT=CREATE TABLE IF NOT EXISTS realm (id VARCHAR(36) PRIMARY KEY)",
+        "spring.flyway.enabled=true"
+})
+@ActiveProfiles("test")
+class SchemaMigrationTest {
+
+    @Autowired
+    private Flyway flyway;
+
+    @Test
+    void migrate_RunsEveryMigrationOnANonEmptySchema() {
+        MigrationInfo[] applied = flyway.info().applied();
+
+        assertThat(Arrays.stream(applied).map(info -> info.getVersion().getVersion()))
+                .containsExactly("0", "1", "2", "3");
+        assertThat(applied).allMatch(info -> info.getState().isApplied() && !info.getState().isFailed());
+        assertThat(flyway.getConfiguration().getTable()).isEqualTo("medical_record_schema_history");
+    }
+}
@@ -0,0 +1,83 @@
+package com.medinsight.record.repository;
+
+import com.medinsight.record.dto.ConsultationNoteResponse;
+import com.medinsight.record.entity.ConsultationNote;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class ConsultationNoteRepositoryTest {
+
+    private static final LocalDateTime FIRST_PAGE = LocalDateTime.of(9999, 12, 31, 0, 0);
+    private static final UUID MAX_ID = new UUID(-1L, -1L);
+
+    @Autowired
+    private ConsultationNoteRepository noteRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final UUID patientId = UUID.randomUUID();
+
+    @Test
+    @DisplayName("Keyset pages walk the notes newest first without overlap")
+    void findPageByPatientId_Keyset() {
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 9, 0);
+        ConsultationNote oldest = save("oldest", base);
+        ConsultationNote middle = save("middle", base.plusDays(1));
+        ConsultationNote newest = save("newest", base.plusDays(2));
+        save("other patient", base.plusDays(3), UUID.randomUUID());
+
+        List<ConsultationNote> first = noteRepository.findPageByPatientId(patientId, FIRST_PAGE, MAX_ID,
+                PageRequest.of(0, 2));
+        ConsultationNote last = first.get(first.size() - 1);
+        List<ConsultationNote> second = noteRepository.findPageByPatientId(patientId, last.getCreatedAt(),
+                last.getId(), PageRequest.of(0, 2));
+
+        assertThat(first).extracting(ConsultationNote::getId).containsExactly(newest.getId(), middle.getId());
+        assertThat(second).extracting(ConsultationNote::getId).containsExactly(oldest.getId());
+    }
+
+    @Test
+    @DisplayName("Summary page returns truncated previews")
+    void findSummaryPageByPatientId_Preview() {
+        save("x".repeat(50), LocalDateTime.of(2024, 1, 2, 9, 0));
+        save("short", LocalDateTime.of(2024, 1, 1, 9, 0));
+
+        List<ConsultationNoteResponse> page = noteRepository.findSummaryPageByPatientId(patientId, FIRST_PAGE,
+                MAX_ID, 10, PageRequest.of(0, 10));
+
+        assertThat(page).hasSize(2);
+        assertThat(page.get(0).getNoteContent()).hasSize(10);
+        assertThat(page.get(0).isTruncated()).isTrue();
+        assertThat(page.get(1).getNoteContent()).isEqualTo("short");
+        assertThat(page.get(1).isTruncated()).isFalse();
+    }
+
+    private ConsultationNote save(String content, LocalDateTime createdAt) {
+        return save(content, createdAt, patientId);
+    }
+
+    private ConsultationNote save(String content, LocalDateTime createdAt, UUID patient) {
+        ConsultationNote note = noteRepository.saveAndFlush(ConsultationNote.builder()
+                .appointmentId(UUID.randomUUID())
+                .patientId(patient)
+                .doctorId(UUID.randomUUID())
+                .noteContent(content)
+                .build());
+        // created_at is set by Hibernate and not updatable through the entity
+        jdbcTemplate.update("UPDATE consultation_notes SET created_at = ? WHERE id = ?", createdAt, note.getId());
+        note.setCreatedAt(createdAt);
+        return note;
+    }
+}
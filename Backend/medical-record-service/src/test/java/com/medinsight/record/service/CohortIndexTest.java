@@ -0,0 +1,93 @@
+package com.medinsight.record.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CohortIndexTest {
+
+    private final UUID penicillin = UUID.randomUUID();
+    private final UUID peanuts = UUID.randomUUID();
+    private final UUID diabetes = UUID.randomUUID();
+
+    private final UUID alice = UUID.randomUUID();
+    private final UUID bob = UUID.randomUUID();
+    private final UUID carol = UUID.randomUUID();
+    private final UUID dave = UUID.randomUUID();
+
+    private CohortIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new CohortIndex();
+        index.rebuild(() -> new CohortIndex.Snapshot(Stream.of(alice, bob, carol, dave), Stream.of(
+                new Object[]{alice, penicillin},
+                new Object[]{alice, diabetes},
+                new Object[]{bob, penicillin},
+                new Object[]{carol, peanuts})));
+    }
+
+    @Test
+    @DisplayName("AND, OR and NOT combine code bitmaps")
+    void query_SetOperations() {
+        assertThat(index.query(List.of(penicillin, diabetes), List.of(), List.of(), 10).patientIds())
+                .containsExactly(alice);
+        assertThat(index.query(List.of(), List.of(penicillin, peanuts), List.of(), 10).patientIds())
+                .containsExactlyInAnyOrder(alice, bob, carol);
+        assertThat(index.query(List.of(penicillin), List.of(), List.of(diabetes), 10).patientIds())
+                .containsExactly(bob);
+        assertThat(index.query(List.of(), List.of(), List.of(penicillin), 10).patientIds())
+                .containsExactlyInAnyOrder(carol, dave);
+    }
+
+    @Test
+    @DisplayName("Count is exact when patient IDs are capped")
+    void query_CapsPatientIds() {
+        CohortIndex.CohortResult result = index.query(List.of(penicillin), List.of(), List.of(), 1);
+
+        assertThat(result.count()).isEqualTo(2);
+        assertThat(result.patientIds()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Replacing a patient's codes moves them between cohorts without touching others")
+    void replacePatient() {
+        index.replacePatient(bob, List.of(peanuts));
+
+        assertThat(index.patientCount(penicillin)).isEqualTo(1);
+        assertThat(index.query(List.of(peanuts), List.of(), List.of(), 10).patientIds())
+                .containsExactlyInAnyOrder(bob, carol);
+        // Queries must not have mutated the indexed bitmaps
+        assertThat(index.patientCount(peanuts)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("A patient replaced while a rebuild reads keeps the newer codes")
+    void rebuild_ReplaysReplacementsMadeWhileReading() {
+        index.rebuild(() -> {
+            // Read before bob's update committed: bob still has penicillin in these rows
+            CohortIndex.Snapshot stale = new CohortIndex.Snapshot(Stream.of(alice, bob),
+                    Stream.<Object[]>of(new Object[]{bob, penicillin}));
+            index.replacePatient(bob, List.of(peanuts));
+            return stale;
+        });
+
+        assertThat(index.patientCount(penicillin)).isZero();
+        assertThat(index.query(List.of(peanuts), List.of(), List.of(), 10).patientIds()).containsExactly(bob);
+    }
+
+    @Test
+    @DisplayName("Free text is split and normalized into codes")
+    void parser_NormalizesFreeText() {
+        assertThat(ClinicalCodeParser.parse("Pénicilline, Arachides et  LATEX; aucune"))
+                .containsOnlyKeys("penicilline", "arachides", "latex")
+                .containsEntry("arachides", "Arachides");
+        assertThat(ClinicalCodeParser.parse("N/A")).isEmpty();
+    }
+}
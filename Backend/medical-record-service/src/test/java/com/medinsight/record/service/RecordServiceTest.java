@@ -0,0 +1,249 @@
+package com.medinsight.record.service;
+
+import com.medinsight.common.client.AuditClient;
+import com.medinsight.common.client.MailClient;
+import com.medinsight.record.client.AppointmentClient;
+import com.medinsight.record.config.DossierProperties;
+import com.medinsight.record.dto.DossierSection;
+import com.medinsight.record.dto.ExternalAppointmentResponse;
+import com.medinsight.record.dto.ExternalPatientHistoryResponse;
+import com.medinsight.record.dto.ExternalPrescriptionResponse;
+import com.medinsight.record.dto.MedicalDossierResponse;
+import com.medinsight.record.dto.SearchHitResponse;
+import com.medinsight.record.entity.ConsultationNote;
+import com.medinsight.record.exception.InvalidSearchQueryException;
+import com.medinsight.record.exception.ResourceNotFoundException;
+import com.medinsight.record.repository.ConsultationNoteRepository;
+import com.medinsight.record.repository.MedicalRecordRepository;
+import com.medinsight.record.repository.TextSearchHit;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class RecordServiceTest {
+
+    private MedicalRecordRepository recordRepository;
+    private ConsultationNoteRepository noteRepository;
+    private AppointmentClient appointmentClient;
+    private PlatformTransactionManager transactionManager;
+    private ThreadPoolTaskExecutor executor;
+    private RecordService recordService;
+
+    private final UUID patientId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        recordRepository = mock(MedicalRecordRepository.class);
+        noteRepository = mock(ConsultationNoteRepository.class);
+        appointmentClient = mock(AppointmentClient.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.initialize();
+
+        DossierProperties properties = new DossierProperties();
+        properties.setAppointmentHistoryTimeout(Duration.ofMillis(200));
+
+        recordService = new RecordService(recordRepository, noteRepository, appointmentClient,
+                mock(AuditClient.class), mock(MailClient.class), (AsyncTaskExecutor) executor, properties,
+                new DossierCache(properties, new SimpleMeterRegistry()), mock(CohortService.class),
+                transactionManager);
+
+        when(recordRepository.findByPatientId(patientId)).thenReturn(Optional.empty());
+        when(noteRepository.findSummaryPageByPatientId(eq(patientId), any(), any(), anyInt(), any()))
+                .thenReturn(List.of());
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Complete dossier has no missing sections")
+    void getDetailedDossier_Complete() {
+        when(appointmentClient.getPatientHistory(eq(patientId), anyInt()))
+                .thenReturn(ExternalPatientHistoryResponse.builder()
+                        .appointments(List.of(ExternalAppointmentResponse.builder().id(UUID.randomUUID()).build()))
+                        .prescriptions(List.of(ExternalPrescriptionResponse.builder().id(UUID.randomUUID()).build()))
+                        .build());
+
+        MedicalDossierResponse dossier = recordService.getDetailedDossier(patientId, null);
+
+        assertThat(dossier.getMissingSections()).isEmpty();
+        assertThat(dossier.getMedicalRecord().getPatientId()).isEqualTo(patientId);
+        assertThat(dossier.getAppointmentHistory()).hasSize(1);
+        assertThat(dossier.getPrescriptionHistory()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Slow history is flagged while local sections are returned")
+    void getDetailedDossier_SlowHistory() {
+        when(appointmentClient.getPatientHistory(eq(patientId), anyInt())).thenAnswer(invocation -> {
+            Thread.sleep(2_000);
+            return ExternalPatientHistoryResponse.builder().build();
+        });
+
+        long start = System.nanoTime();
+        MedicalDossierResponse dossier = recordService.getDetailedDossier(patientId, null);
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        assertThat(elapsedMillis).isLessThan(1_500);
+        assertThat(dossier.getMissingSections())
+                .containsExactly(DossierSection.APPOINTMENTS, DossierSection.PRESCRIPTIONS);
+        assertThat(dossier.getMedicalRecord()).isNotNull();
+        assertThat(dossier.getAppointmentHistory()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Local sections run in read-only transactions on the worker threads")
+    void getDetailedDossier_LocalSectionsReadOnly() {
+        when(appointmentClient.getPatientHistory(eq(patientId), anyInt()))
+                .thenReturn(ExternalPatientHistoryResponse.builder().build());
+
+        recordService.getDetailedDossier(patientId, null);
+
+        verify(transactionManager, times(2)).getTransaction(argThat(TransactionDefinition::isReadOnly));
+    }
+
+    @Test
+    @DisplayName("A section past its deadline is interrupted")
+    void getDetailedDossier_CancelsLateSection() throws InterruptedException {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        when(appointmentClient.getPatientHistory(eq(patientId), anyInt())).thenAnswer(invocation -> {
+            try {
+                Thread.sleep(5_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return ExternalPatientHistoryResponse.builder().build();
+        });
+
+        recordService.getDetailedDossier(patientId, null);
+
+        assertThat(interrupted.await(1, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Failing local source degrades instead of failing the dossier")
+    void getDetailedDossier_FailingNotes() {
+        when(noteRepository.findSummaryPageByPatientId(eq(patientId), any(), any(), anyInt(), any()))
+                .thenThrow(new RuntimeException("boom"));
+        when(appointmentClient.getPatientHistory(eq(patientId), anyInt()))
+                .thenReturn(ExternalPatientHistoryResponse.builder().appointments(List.of()).build());
+
+        MedicalDossierResponse dossier = recordService.getDetailedDossier(patientId, null);
+
+        assertThat(dossier.getMissingSections()).containsExactly(DossierSection.CONSULTATION_NOTES);
+        assertThat(dossier.getConsultationNotes()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Complete dossier is cached until the history changes")
+    void getDetailedDossier_CachedUntilInvalidated() {
+        when(appointmentClient.getPatientHistory(eq(patientId), anyInt()))
+                .thenReturn(ExternalPatientHistoryResponse.builder().build());
+
+        MedicalDossierResponse first = recordService.getDetailedDossier(patientId, null);
+        MedicalDossierResponse second = recordService.getDetailedDossier(patientId, null);
+
+        assertThat(second).isSameAs(first);
+        verify(appointmentClient, times(1)).getPatientHistory(eq(patientId), anyInt());
+
+        recordService.onAppointmentHistoryChanged(patientId);
+        recordService.getDetailedDossier(patientId, null);
+
+        verify(appointmentClient, times(2)).getPatientHistory(eq(patientId), anyInt());
+    }
+
+    @Test
+    @DisplayName("Partial dossier is not cached")
+    void getDetailedDossier_PartialNotCached() {
+        when(noteRepository.findSummaryPageByPatientId(eq(patientId), any(), any(), anyInt(), any()))
+                .thenThrow(new RuntimeException("boom"));
+        when(appointmentClient.getPatientHistory(eq(patientId), anyInt()))
+                .thenReturn(ExternalPatientHistoryResponse.builder().build());
+
+        recordService.getDetailedDossier(patientId, null);
+        recordService.getDetailedDossier(patientId, null);
+
+        verify(appointmentClient, times(2)).getPatientHistory(eq(patientId), anyInt());
+    }
+
+    @Test
+    @DisplayName("Empty, blank and overlong search queries are rejected before reaching the database")
+    void search_RejectsInvalidQueries() {
+        for (String query : new String[]{null, "", "   ", "a".repeat(257)}) {
+            assertThatThrownBy(() -> recordService.search(patientId, query, 20))
+                    .isInstanceOf(InvalidSearchQueryException.class);
+        }
+        verifyNoInteractions(recordRepository, noteRepository);
+    }
+
+    @Test
+    @DisplayName("Search merges record and note hits by rank and caps the limit")
+    void search_MergesHitsByRank() {
+        TextSearchHit recordHit = hit(0.5);
+        List<TextSearchHit> noteHits = List.of(hit(0.9), hit(0.1));
+        when(recordRepository.searchByPatientId(patientId, "asthme")).thenReturn(Optional.of(recordHit));
+        when(noteRepository.searchByPatientId(eq(patientId), eq("asthme"), anyInt())).thenReturn(noteHits);
+
+        List<SearchHitResponse> hits = recordService.search(patientId, "asthme", 2);
+
+        assertThat(hits).extracting(SearchHitResponse::getSource)
+                .containsExactly(SearchHitResponse.Source.CONSULTATION_NOTE, SearchHitResponse.Source.MEDICAL_RECORD);
+        recordService.search(patientId, "asthme", 10_000);
+        verify(noteRepository).searchByPatientId(patientId, "asthme", 100);
+    }
+
+    @Test
+    @DisplayName("Another patient's note is reported exactly like a missing one")
+    void getConsultationNote_HidesOtherPatientsNotes() {
+        UUID noteId = UUID.randomUUID();
+        UUID missingId = UUID.randomUUID();
+        when(noteRepository.findById(noteId)).thenReturn(Optional.of(ConsultationNote.builder()
+                .id(noteId).patientId(UUID.randomUUID()).noteContent("Asthme").build()));
+        when(noteRepository.findById(missingId)).thenReturn(Optional.empty());
+
+        assertThat(recordService.getConsultationNote(noteId, null).getId()).isEqualTo(noteId);
+        assertThatThrownBy(() -> recordService.getConsultationNote(noteId, patientId))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage("Consultation note not found with ID: " + noteId);
+        assertThatThrownBy(() -> recordService.getConsultationNote(missingId, patientId))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage("Consultation note not found with ID: " + missingId);
+    }
+
+    private static TextSearchHit hit(double rank) {
+        TextSearchHit hit = mock(TextSearchHit.class);
+        when(hit.getId()).thenReturn(UUID.randomUUID());
+        when(hit.getRank()).thenReturn(rank);
+        return hit;
+    }
+}
@@ -1,19 +1,21 @@
-package com.medinsight.auth.client;
+package com.medinsight.common.client;
 
 import lombok.Builder;
 import lombok.Data;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
-import reactor.core.publisher.Mono;
 
-@Component
-@RequiredArgsConstructor
+/**
+ * Fire-and-forget audit events sent to audit-service.
+ */
 @Slf4j
 public class AuditClient {
 
-    private final WebClient.Builder webClientBuilder;
+    private final WebClient webClient;
+
+    public AuditClient(WebClient.Builder webClientBuilder, String baseUrl) {
+        this.webClient = webClientBuilder.baseUrl(baseUrl).build();
+    }
 
     public void log(String serviceName, String action, String userId, String userEmail, String userRole, String status,
             String details) {
@@ -27,10 +29,9 @@ public class AuditClient {
                 .details(details)
                 .build();
 
-        webClientBuilder.build()
-                .post()
-                .uri("http://audit-service:8085/audit/logs")
-                .body(Mono.just(request), AuditLogRequest.class)
+        webClient.post()
+                .uri("/audit/logs")
+                .bodyValue(request)
                 .retrieve()
                 .bodyToMono(Void.class)
                 .subscribe(
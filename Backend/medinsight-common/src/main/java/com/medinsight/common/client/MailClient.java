@@ -1,56 +1,56 @@
-package com.medinsight.appointment.client;
+package com.medinsight.common.client;
 
 import lombok.Builder;
 import lombok.Data;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
-import reactor.core.publisher.Mono;
 
-@Component
-@RequiredArgsConstructor
+/**
+ * Fire-and-forget emails sent through mail-service.
+ */
 @Slf4j
 public class MailClient {
 
-    private final WebClient.Builder webClientBuilder;
+    private final WebClient webClient;
 
-    /**
-     * Send a specialized appointment reminder/notification.
-     */
-    public void sendAppointmentEmail(AppointmentReminderRequest request) {
-        webClientBuilder.build()
-                .post()
-                .uri("http://mail-service:8087/mail/appointment-reminder")
-                .body(Mono.just(request), AppointmentReminderRequest.class)
-                .retrieve()
-                .bodyToMono(Void.class)
-                .subscribe(
-                        success -> log.debug("Appointment email sent successfully to {}", request.getTo()),
-                        error -> log.error("Failed to send appointment email to {}: {}", request.getTo(),
-                                error.getMessage()));
+    public MailClient(WebClient.Builder webClientBuilder, String baseUrl) {
+        this.webClient = webClientBuilder.baseUrl(baseUrl).build();
     }
 
     /**
-     * Send a simple email.
+     * Send a plain text or HTML email.
      */
-    public void sendSimpleMail(String to, String subject, String body) {
+    public void sendMail(String to, String subject, String body, boolean html) {
         MailRequest request = MailRequest.builder()
                 .to(to)
                 .subject(subject)
                 .body(body)
-                .html(false)
+                .html(html)
                 .build();
 
-        webClientBuilder.build()
-                .post()
-                .uri("http://mail-service:8087/mail/send")
-                .body(Mono.just(request), MailRequest.class)
+        webClient.post()
+                .uri("/mail/send")
+                .bodyValue(request)
+                .retrieve()
+                .bodyToMono(Void.class)
+                .subscribe(
+                        success -> log.debug("Email sent successfully to {}", to),
+                        error -> log.error("Failed to send email to {}: {}", to, error.getMessage()));
+    }
+
+    /**
+     * Send an appointment reminder/notification rendered by mail-service.
+     */
+    public void sendAppointmentEmail(AppointmentReminderRequest request) {
+        webClient.post()
+                .uri("/mail/appointment-reminder")
+                .bodyValue(request)
                 .retrieve()
                 .bodyToMono(Void.class)
                 .subscribe(
-                        success -> log.debug("Simple email sent successfully to {}", to),
-                        error -> log.error("Failed to send simple email to {}: {}", to, error.getMessage()));
+                        success -> log.debug("Appointment email sent successfully to {}", request.getTo()),
+                        error -> log.error("Failed to send appointment email to {}: {}", request.getTo(),
+                                error.getMessage()));
     }
 
     @Data
@@ -0,0 +1,35 @@
+package com.medinsight.common.client;
+
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.web.reactive.function.client.WebClientAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.web.reactive.function.client.WebClient;
+
+/**
+ * Audit and mail clients shared by the services. Each builds its
+ * {@code WebClient} once, on top of the pooled connector.
+ */
+@AutoConfiguration(after = WebClientAutoConfiguration.class)
+@ConditionalOnClass(WebClient.class)
+@ConditionalOnBean(WebClient.Builder.class)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@EnableConfigurationProperties(ServiceClientProperties.class)
+public class ServiceClientAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public AuditClient auditClient(WebClient.Builder webClientBuilder, ServiceClientProperties properties) {
+        return new AuditClient(webClientBuilder, properties.getAuditUrl());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public MailClient mailClient(WebClient.Builder webClientBuilder, ServiceClientProperties properties) {
+        return new MailClient(webClientBuilder, properties.getMailUrl());
+    }
+}
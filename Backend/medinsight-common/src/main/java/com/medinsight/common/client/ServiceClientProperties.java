@@ -0,0 +1,16 @@
+package com.medinsight.common.client;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Base URLs of the platform services called through the shared clients.
+ */
+@ConfigurationProperties(prefix = "medinsight.clients")
+@Data
+public class ServiceClientProperties {
+
+    private String auditUrl = "http://audit-service:8085";
+
+    private String mailUrl = "http://mail-service:8087";
+}
@@ -0,0 +1,36 @@
+package com.medinsight.common.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Read replica used for read-only transactions. Routing is only enabled when
+ * {@code url} is set; credentials default to those of {@code spring.datasource}.
+ */
+@ConfigurationProperties(prefix = "medinsight.datasource.replica")
+@Data
+public class ReplicaDataSourceProperties {
+
+    private String url;
+    private String username;
+    private String password;
+
+    /** Connections in the replica pool. */
+    private int maximumPoolSize = 10;
+
+    /** Replication delay above which reads go to the primary until the replica catches up. */
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    private Duration lagCheckInterval = Duration.ofSeconds(5);
+
+    /**
+     * Returns the replica's delay in seconds. The default reports 0 when the
+     * replica has replayed everything it received, so an idle primary does not
+     * look like lag.
+     */
+    private String lagQuery = "SELECT CASE WHEN NOT pg_is_in_recovery() THEN 0 "
+            + "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) END";
+}
@@ -0,0 +1,59 @@
+package com.medinsight.common.http;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+import java.io.IOException;
+
+/**
+ * {@link ShallowEtagHeaderFilter} on the paths listed in {@code medinsight.etag.url-patterns}.
+ */
+@AutoConfiguration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@EnableConfigurationProperties(EtagProperties.class)
+public class EtagFilterAutoConfiguration {
+
+    /**
+     * Ordered just inside the security filter chain: Spring Security writes
+     * {@code Cache-Control: no-store} when the response is committed, unless
+     * the response already has a {@code Cache-Control}, which this filter sets.
+     */
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> shallowEtagHeaderFilter(EtagProperties properties) {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration =
+                new FilterRegistrationBean<>(new StorableEtagHeaderFilter());
+        registration.setUrlPatterns(properties.getUrlPatterns());
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+        registration.setEnabled(!properties.getUrlPatterns().isEmpty());
+        return registration;
+    }
+
+    /**
+     * Marks GET responses {@code Cache-Control: no-cache}: they may be stored,
+     * by the gateway response cache among others, and revalidated with their
+     * ETag.
+     */
+    static class StorableEtagHeaderFilter extends ShallowEtagHeaderFilter {
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                FilterChain filterChain) throws ServletException, IOException {
+            if (HttpMethod.GET.matches(request.getMethod())) {
+                response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+            }
+            super.doFilterInternal(request, response, filterChain);
+        }
+    }
+}
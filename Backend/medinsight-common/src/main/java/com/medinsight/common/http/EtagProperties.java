@@ -0,0 +1,19 @@
+package com.medinsight.common.http;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Servlet paths whose GET responses carry an {@code ETag}, so the gateway
+ * response cache can revalidate them with {@code If-None-Match}.
+ */
+@ConfigurationProperties(prefix = "medinsight.etag")
+@Data
+public class EtagProperties {
+
+    /** Servlet URL patterns, e.g. {@code /medecins/*}; none by default. */
+    private List<String> urlPatterns = new ArrayList<>();
+}
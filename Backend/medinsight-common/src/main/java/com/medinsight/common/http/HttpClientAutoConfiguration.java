@@ -0,0 +1,48 @@
+package com.medinsight.common.http;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.web.reactive.function.client.ClientHttpConnectorAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * One pooled Reactor Netty client shared by every {@code WebClient}. Spring
+ * Boot applies the connector to the {@code WebClient.Builder} it provides, so
+ * services only need to inject the builder and build their client once.
+ */
+@AutoConfiguration(before = ClientHttpConnectorAutoConfiguration.class)
+@ConditionalOnClass({WebClient.class, HttpClient.class})
+@EnableConfigurationProperties(HttpClientProperties.class)
+public class HttpClientAutoConfiguration {
+
+    @Bean(destroyMethod = "dispose")
+    @ConditionalOnMissingBean
+    public ConnectionProvider medinsightConnectionProvider(HttpClientProperties properties) {
+        return ConnectionProvider.builder("medinsight")
+                .maxConnections(properties.getMaxConnections())
+                .pendingAcquireTimeout(properties.getPendingAcquireTimeout())
+                .maxIdleTime(properties.getMaxIdleTime())
+                .maxLifeTime(properties.getMaxLifeTime())
+                .evictInBackground(properties.getMaxIdleTime())
+                .metrics(properties.isMetrics())
+                .build();
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(ClientHttpConnector.class)
+    public ReactorClientHttpConnector clientHttpConnector(ConnectionProvider medinsightConnectionProvider,
+            HttpClientProperties properties) {
+        HttpClient httpClient = HttpClient.create(medinsightConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .responseTimeout(properties.getResponseTimeout());
+        return new ReactorClientHttpConnector(httpClient);
+    }
+}
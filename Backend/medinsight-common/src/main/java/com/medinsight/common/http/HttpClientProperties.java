@@ -0,0 +1,34 @@
+package com.medinsight.common.http;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Connection pool and timeouts of the shared Reactor Netty client behind every
+ * {@code WebClient} built from the auto-configured {@code WebClient.Builder}.
+ */
+@ConfigurationProperties(prefix = "medinsight.http-client")
+@Data
+public class HttpClientProperties {
+
+    /** Open connections per remote host. */
+    private int maxConnections = 100;
+
+    /** How long a request waits for a free connection before failing. */
+    private Duration pendingAcquireTimeout = Duration.ofSeconds(5);
+
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    /** Maximum wait between two reads of a response. */
+    private Duration responseTimeout = Duration.ofSeconds(10);
+
+    /** Idle connections are closed after this delay, before the server or a proxy drops them. */
+    private Duration maxIdleTime = Duration.ofSeconds(30);
+
+    private Duration maxLifeTime = Duration.ofMinutes(5);
+
+    /** Publish pool gauges ({@code reactor.netty.connection.provider.*}). */
+    private boolean metrics = true;
+}
@@ -0,0 +1,86 @@
+package com.medinsight.common.loadbalancer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * What one client knows about one instance: calls in flight, a peak-sensitive
+ * latency average and the failures of the current window.
+ */
+final class InstanceStats {
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private double latencyNanos;
+    private long lastSampleNanos;
+    private long windowStartNanos;
+    private int windowRequests;
+    private int windowFailures;
+    private volatile boolean ejected;
+    private volatile long ejectedUntilNanos;
+
+    int inFlight() {
+        return inFlight.get();
+    }
+
+    void started() {
+        inFlight.incrementAndGet();
+    }
+
+    void finished() {
+        inFlight.updateAndGet(count -> Math.max(0, count - 1));
+    }
+
+    /**
+     * Latency average decayed by the time since the last sample, so an
+     * instance that was slow once is tried again rather than starved forever.
+     * 0 when nothing was measured yet.
+     */
+    synchronized double latency(long now, long decayNanos) {
+        if (latencyNanos == 0) {
+            return 0;
+        }
+        return latencyNanos * Math.exp(-(double) (now - lastSampleNanos) / decayNanos);
+    }
+
+    boolean isEjected(long now) {
+        return ejected && now - ejectedUntilNanos < 0;
+    }
+
+    /**
+     * Records one finished call. A sample above the average replaces it
+     * (a GC pause or a saturated instance is noticed at once); lower samples
+     * pull it down gradually. Failures never lower it, so an instance failing
+     * fast does not look like the quickest one.
+     *
+     * @return true when this call got the instance ejected
+     */
+    synchronized boolean record(long now, long elapsedNanos, boolean failed, LoadBalancerProperties properties) {
+        if (elapsedNanos >= latencyNanos) {
+            latencyNanos = elapsedNanos;
+        } else if (!failed) {
+            double weight = Math.exp(-(double) (now - lastSampleNanos) / properties.getDecay().toNanos());
+            latencyNanos = latencyNanos * weight + elapsedNanos * (1 - weight);
+        }
+        lastSampleNanos = now;
+
+        LoadBalancerProperties.Ejection ejection = properties.getEjection();
+        if (windowRequests == 0 || now - windowStartNanos > ejection.getWindow().toNanos()) {
+            windowStartNanos = now;
+            windowRequests = 0;
+            windowFailures = 0;
+        }
+        windowRequests++;
+        if (failed) {
+            windowFailures++;
+        }
+        if (windowRequests >= ejection.getMinimumRequests() && !isEjected(now)
+                && windowFailures >= windowRequests * ejection.getFailureRateThreshold()) {
+            ejectedUntilNanos = now + ejection.getDuration().toNanos();
+            ejected = true;
+            windowRequests = 0;
+            windowFailures = 0;
+            return true;
+        }
+        return false;
+    }
+}
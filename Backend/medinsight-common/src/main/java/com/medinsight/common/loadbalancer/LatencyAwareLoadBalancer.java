@@ -0,0 +1,93 @@
+package com.medinsight.common.loadbalancer;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.SelectedInstanceCallback;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Picks two random instances and keeps the one with the lower expected wait,
+ * its latency average times its calls in flight plus one ("power of two
+ * choices"). Comparing two rather than taking the global minimum keeps
+ * clients that share the same stale view from all piling onto one instance.
+ * Ejected instances are skipped unless too many are ejected, in which case
+ * the problem is more likely on this side and every instance is used.
+ */
+public class LatencyAwareLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+
+    private final ObjectProvider<ServiceInstanceListSupplier> supplierProvider;
+    private final LoadBalancerStats stats;
+
+    public LatencyAwareLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> supplierProvider,
+            LoadBalancerStats stats) {
+        this.supplierProvider = supplierProvider;
+        this.stats = stats;
+    }
+
+    @Override
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = supplierProvider.getIfAvailable(NoopServiceInstanceListSupplier::new);
+        return supplier.get(request).next().map(instances -> {
+            ServiceInstance instance = select(instances);
+            if (instance == null) {
+                return new EmptyResponse();
+            }
+            if (supplier instanceof SelectedInstanceCallback callback) {
+                callback.selectedServiceInstance(instance);
+            }
+            return new DefaultResponse(instance);
+        });
+    }
+
+    ServiceInstance select(List<ServiceInstance> instances) {
+        if (instances.isEmpty()) {
+            return null;
+        }
+        long now = stats.now();
+        List<ServiceInstance> candidates = instances.stream()
+                .filter(instance -> !stats.statsFor(instance).isEjected(now))
+                .toList();
+        stats.retainOnly(instances);
+        double maxEjected = stats.properties().getEjection().getMaxEjectedRatio();
+        if (candidates.isEmpty() || instances.size() - candidates.size() > instances.size() * maxEjected) {
+            candidates = instances;
+        }
+        if (candidates.size() == 1) {
+            return candidates.get(0);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(candidates.size());
+        int second = random.nextInt(candidates.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        ServiceInstance a = candidates.get(first);
+        ServiceInstance b = candidates.get(second);
+        return cost(a, b, now) <= cost(b, a, now) ? a : b;
+    }
+
+    /**
+     * Expected wait on {@code instance}. Until it has been measured, it is
+     * assumed as fast as the instance it is compared with, so new instances
+     * are tried without being flooded.
+     */
+    private double cost(ServiceInstance instance, ServiceInstance other, long now) {
+        long decay = stats.properties().getDecay().toNanos();
+        InstanceStats own = stats.statsFor(instance);
+        double latency = own.latency(now, decay);
+        if (latency == 0) {
+            latency = Math.max(stats.statsFor(other).latency(now, decay), 1);
+        }
+        return latency * (own.inFlight() + 1);
+    }
+}
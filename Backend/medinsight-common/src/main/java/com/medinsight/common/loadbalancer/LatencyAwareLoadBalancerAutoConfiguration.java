@@ -0,0 +1,43 @@
+package com.medinsight.common.loadbalancer;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Replaces Spring Cloud's round-robin with {@link LatencyAwareLoadBalancer}
+ * for every service reached through the load balancer. Services without
+ * Spring Cloud LoadBalancer on the classpath are left untouched.
+ */
+@AutoConfiguration
+@ConditionalOnClass(ReactorServiceInstanceLoadBalancer.class)
+@ConditionalOnProperty(prefix = "medinsight.loadbalancer", name = "enabled", matchIfMissing = true)
+@EnableConfigurationProperties(LoadBalancerProperties.class)
+@LoadBalancerClients(defaultConfiguration = LatencyAwareLoadBalancerConfiguration.class)
+public class LatencyAwareLoadBalancerAutoConfiguration {
+
+    @Bean
+    public LoadBalancerStats loadBalancerStats(LoadBalancerProperties properties) {
+        return new LoadBalancerStats(properties);
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(MeterBinder.class)
+    static class LoadBalancerMetricsConfiguration {
+
+        @Bean
+        MeterBinder loadBalancerEjectionMetrics(LoadBalancerStats loadBalancerStats) {
+            return registry -> Gauge.builder("loadbalancer.instances.ejected", loadBalancerStats,
+                            LoadBalancerStats::ejectedCount)
+                    .description("Instances currently ejected after repeated failures")
+                    .register(registry);
+        }
+    }
+}
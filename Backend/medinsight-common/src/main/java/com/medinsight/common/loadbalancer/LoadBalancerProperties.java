@@ -0,0 +1,41 @@
+package com.medinsight.common.loadbalancer;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Instance selection for {@code lb://} routes and Feign clients: latency and
+ * in-flight weighting, and temporary ejection of failing instances.
+ */
+@ConfigurationProperties(prefix = "medinsight.loadbalancer")
+@Data
+public class LoadBalancerProperties {
+
+    /** When false, Spring Cloud's round-robin load balancer is used. */
+    private boolean enabled = true;
+
+    /** Time constant of the latency average: older samples weigh e^-1 after this delay. */
+    private Duration decay = Duration.ofSeconds(10);
+
+    private final Ejection ejection = new Ejection();
+
+    @Data
+    public static class Ejection {
+
+        /** Share of failed calls (errors and 5xx) within a window that ejects an instance. */
+        private double failureRateThreshold = 0.5;
+
+        /** Calls needed in a window before its failure rate is considered. */
+        private int minimumRequests = 5;
+
+        private Duration window = Duration.ofSeconds(10);
+
+        /** How long an ejected instance receives no traffic. */
+        private Duration duration = Duration.ofSeconds(30);
+
+        /** Above this share of ejected instances, ejections are ignored and every instance is used. */
+        private double maxEjectedRatio = 0.5;
+    }
+}
@@ -0,0 +1,136 @@
+package com.medinsight.common.loadbalancer;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.client.loadbalancer.TimedRequestContext;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Per-instance statistics of every load-balanced call made by this service,
+ * fed by the lifecycle callbacks that the gateway's {@code lb://} filter,
+ * Feign clients and load-balanced {@code RestTemplate}s invoke around each call.
+ */
+@Slf4j
+public class LoadBalancerStats implements LoadBalancerLifecycle<Object, Object, ServiceInstance> {
+
+    /** Service id, then host:port of each of its instances. */
+    private final Map<String, Map<String, InstanceStats>> services = new ConcurrentHashMap<>();
+    private final LoadBalancerProperties properties;
+    private final LongSupplier nanoClock;
+
+    public LoadBalancerStats(LoadBalancerProperties properties) {
+        this(properties, System::nanoTime);
+    }
+
+    LoadBalancerStats(LoadBalancerProperties properties, LongSupplier nanoClock) {
+        this.properties = properties;
+        this.nanoClock = nanoClock;
+    }
+
+    InstanceStats statsFor(ServiceInstance instance) {
+        return services.computeIfAbsent(instance.getServiceId(), serviceId -> new ConcurrentHashMap<>())
+                .computeIfAbsent(key(instance), key -> new InstanceStats());
+    }
+
+    /**
+     * Forgets instances that left the registry, given the current instances
+     * of one service. Only scans when more instances are tracked than listed.
+     */
+    void retainOnly(List<ServiceInstance> current) {
+        if (current.isEmpty()) {
+            return;
+        }
+        Map<String, InstanceStats> tracked = services.get(current.get(0).getServiceId());
+        if (tracked != null && tracked.size() > current.size()) {
+            Set<String> keys = current.stream().map(LoadBalancerStats::key).collect(Collectors.toSet());
+            tracked.keySet().retainAll(keys);
+        }
+    }
+
+    /**
+     * Ends a call whose subscriber cancelled it: the load-balancer clients
+     * only invoke {@link #onComplete} on success or error, so without this a
+     * client disconnect or a timeout would count as in flight forever.
+     */
+    public void cancelled(ServiceInstance instance) {
+        statsFor(instance).finished();
+    }
+
+    long now() {
+        return nanoClock.getAsLong();
+    }
+
+    LoadBalancerProperties properties() {
+        return properties;
+    }
+
+    /**
+     * Number of instances currently receiving no traffic, across all services.
+     */
+    public long ejectedCount() {
+        long now = now();
+        return services.values().stream()
+                .flatMap(instances -> instances.values().stream())
+                .filter(stats -> stats.isEjected(now))
+                .count();
+    }
+
+    @Override
+    public void onStart(Request<Object> request) {
+    }
+
+    @Override
+    public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+        if (!lbResponse.hasServer()) {
+            return;
+        }
+        if (request.getContext() instanceof TimedRequestContext timed && timed.getRequestStartTime() == 0) {
+            timed.setRequestStartTime(now());
+        }
+        statsFor(lbResponse.getServer()).started();
+    }
+
+    @Override
+    public void onComplete(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+        if (completionContext.status() == CompletionContext.Status.DISCARD
+                || lbResponse == null || !lbResponse.hasServer()) {
+            return;
+        }
+        ServiceInstance instance = lbResponse.getServer();
+        InstanceStats stats = statsFor(instance);
+        stats.finished();
+        if (!(completionContext.getLoadBalancerRequest().getContext() instanceof TimedRequestContext timed)
+                || timed.getRequestStartTime() == 0) {
+            return;
+        }
+        long now = now();
+        if (stats.record(now, now - timed.getRequestStartTime(), isFailure(completionContext), properties)) {
+            log.warn("Ejecting {} instance {}:{} for {}s after repeated failures", instance.getServiceId(),
+                    instance.getHost(), instance.getPort(), properties.getEjection().getDuration().toSeconds());
+        }
+    }
+
+    private static boolean isFailure(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        if (completionContext.status() == CompletionContext.Status.FAILED) {
+            return true;
+        }
+        return completionContext.getClientResponse() instanceof ResponseData response
+                && response.getHttpStatus() != null && response.getHttpStatus().is5xxServerError();
+    }
+
+    private static String key(ServiceInstance instance) {
+        return instance.getHost() + ':' + instance.getPort();
+    }
+}
@@ -0,0 +1,144 @@
+package com.medinsight.common.security;
+
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Identity verified by the gateway and forwarded to the services as signed
+ * headers, so they can skip decoding the JWT again. It holds exactly the
+ * claims the services derive authorities from.
+ *
+ * @param subject   JWT subject
+ * @param email     email claim, may be null
+ * @param roles     Keycloak realm roles, as found in {@code realm_access.roles}
+ * @param scope     space-separated scopes, may be null
+ * @param expiresAt expiry of the JWT; the headers are refused after it
+ */
+public record InternalIdentity(String subject, String email, List<String> roles, String scope, Instant expiresAt) {
+
+    public static final String SUBJECT_HEADER = "X-MedInsight-Subject";
+    public static final String EMAIL_HEADER = "X-MedInsight-Email";
+    public static final String ROLES_HEADER = "X-MedInsight-Roles";
+    public static final String SCOPE_HEADER = "X-MedInsight-Scope";
+    public static final String EXPIRES_HEADER = "X-MedInsight-Expires";
+    public static final String SIGNATURE_HEADER = "X-MedInsight-Signature";
+
+    /** Realm role of identities a service signs for its own calls, rather than on behalf of a user. */
+    public static final String SERVICE_ROLE = "SERVICE";
+
+    /** Signed in place of the bearer token by service identities, which have none. */
+    public static final String SERVICE_TOKEN = "service";
+
+    /** Every header of the identity; the gateway strips them from incoming requests. */
+    public static final List<String> HEADERS = List.of(SUBJECT_HEADER, EMAIL_HEADER, ROLES_HEADER, SCOPE_HEADER,
+            EXPIRES_HEADER, SIGNATURE_HEADER);
+
+    public InternalIdentity {
+        roles = List.copyOf(roles);
+    }
+
+    /**
+     * The identity of a validated JWT, or null when it has no subject or expiry.
+     */
+    public static InternalIdentity of(Jwt jwt) {
+        if (jwt.getSubject() == null || jwt.getExpiresAt() == null) {
+            return null;
+        }
+        List<String> roles = List.of();
+        Map<String, Object> realmAccess = jwt.getClaimAsMap("realm_access");
+        if (realmAccess != null && realmAccess.get("roles") instanceof Collection<?> realmRoles) {
+            roles = realmRoles.stream().map(Object::toString).toList();
+        }
+        Object scope = jwt.getClaims().get("scope");
+        String scopes = scope instanceof Collection<?> values
+                ? String.join(" ", values.stream().map(Object::toString).toList())
+                : (scope != null ? scope.toString() : null);
+        return new InternalIdentity(jwt.getSubject(), jwt.getClaimAsString("email"), roles, scopes,
+                jwt.getExpiresAt());
+    }
+
+    /**
+     * Identity of a service calling another one outside any user request, e.g.
+     * after commit or from a scheduled task. Sign it with {@link #SERVICE_TOKEN}
+     * and send no {@code Authorization} header.
+     *
+     * @param validity how long the signed headers are accepted; keep it short
+     */
+    public static InternalIdentity service(String serviceName, Duration validity) {
+        return new InternalIdentity(serviceName, null, List.of(SERVICE_ROLE), null, Instant.now().plus(validity));
+    }
+
+    public boolean isService() {
+        return roles.equals(List.of(SERVICE_ROLE));
+    }
+
+    /**
+     * Read the identity from request headers.
+     *
+     * @return the identity, or null when a required header is missing or malformed
+     */
+    public static InternalIdentity fromHeaders(Function<String, String> headers) {
+        String subject = headers.apply(SUBJECT_HEADER);
+        String expires = headers.apply(EXPIRES_HEADER);
+        if (subject == null || expires == null) {
+            return null;
+        }
+        try {
+            String roles = headers.apply(ROLES_HEADER);
+            return new InternalIdentity(subject, headers.apply(EMAIL_HEADER),
+                    roles == null || roles.isEmpty() ? List.of() : Arrays.asList(roles.split(",")),
+                    headers.apply(SCOPE_HEADER), Instant.ofEpochSecond(Long.parseLong(expires)));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public void writeHeaders(BiConsumer<String, String> headers, String signature) {
+        headers.accept(SUBJECT_HEADER, subject);
+        if (email != null) {
+            headers.accept(EMAIL_HEADER, email);
+        }
+        headers.accept(ROLES_HEADER, String.join(",", roles));
+        if (scope != null) {
+            headers.accept(SCOPE_HEADER, scope);
+        }
+        headers.accept(EXPIRES_HEADER, Long.toString(expiresAt.getEpochSecond()));
+        headers.accept(SIGNATURE_HEADER, signature);
+    }
+
+    /**
+     * A JWT carrying the original token value and the forwarded claims, so
+     * authorities and token relay work as if the token had been decoded locally.
+     */
+    public Jwt toJwt(String token) {
+        Jwt.Builder builder = Jwt.withTokenValue(token)
+                .header("typ", "JWT")
+                .subject(subject)
+                .expiresAt(expiresAt)
+                .claim("realm_access", Map.of("roles", roles));
+        if (email != null) {
+            builder.claim("email", email);
+        }
+        if (scope != null) {
+            builder.claim("scope", scope);
+        }
+        return builder.build();
+    }
+
+    /**
+     * What the signature covers: every field plus the bearer token, so the
+     * headers cannot be replayed with another user's token.
+     */
+    String signedContent(String token) {
+        return String.join("\n", subject, email != null ? email : "", String.join(",", roles),
+                scope != null ? scope : "", Long.toString(expiresAt.getEpochSecond()), token);
+    }
+}
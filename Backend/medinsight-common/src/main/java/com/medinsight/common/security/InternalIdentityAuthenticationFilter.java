@@ -0,0 +1,87 @@
+package com.medinsight.common.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.core.OAuth2AuthenticationException;
+import org.springframework.security.oauth2.server.resource.web.BearerTokenResolver;
+import org.springframework.security.oauth2.server.resource.web.DefaultBearerTokenResolver;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Instant;
+
+/**
+ * Authenticates requests forwarded by the gateway from its signed identity
+ * headers, skipping JWT signature verification, and service-to-service calls
+ * signed with a {@linkplain InternalIdentity#service service identity}.
+ * Requests without valid headers fall through to the regular bearer token
+ * authentication.
+ * <p>
+ * Register it before {@code BearerTokenAuthenticationFilter} and use
+ * {@link #bearerTokenResolver()} so the JWT is not decoded again once the
+ * headers have authenticated the request.
+ */
+@Slf4j
+public class InternalIdentityAuthenticationFilter extends OncePerRequestFilter {
+
+    private final InternalIdentitySigner signer;
+    private final MedInsightJwtAuthenticationConverter converter = new MedInsightJwtAuthenticationConverter();
+    private final BearerTokenResolver tokenResolver = new DefaultBearerTokenResolver();
+
+    /**
+     * @param signer verifier of the headers; null disables the fast path
+     */
+    public InternalIdentityAuthenticationFilter(InternalIdentitySigner signer) {
+        this.signer = signer;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String signature = request.getHeader(InternalIdentity.SIGNATURE_HEADER);
+        if (signer != null && signature != null && !isAuthenticated()) {
+            authenticate(request, signature);
+        }
+        chain.doFilter(request, response);
+    }
+
+    /**
+     * Bearer token resolver that yields nothing for requests this filter has
+     * already authenticated.
+     */
+    public BearerTokenResolver bearerTokenResolver() {
+        return request -> isAuthenticated() ? null : tokenResolver.resolve(request);
+    }
+
+    private void authenticate(HttpServletRequest request, String signature) {
+        String token;
+        try {
+            token = tokenResolver.resolve(request);
+        } catch (OAuth2AuthenticationException e) {
+            return;
+        }
+        InternalIdentity identity = InternalIdentity.fromHeaders(request::getHeader);
+        if (token == null && identity != null && identity.isService()) {
+            token = InternalIdentity.SERVICE_TOKEN;
+        }
+        if (token == null || identity == null || !identity.expiresAt().isAfter(Instant.now())
+                || !signer.verify(identity, token, signature)) {
+            log.debug("Ignoring invalid internal identity headers on {}", request.getRequestURI());
+            return;
+        }
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(converter.convert(identity.toJwt(token)));
+        SecurityContextHolder.setContext(context);
+    }
+
+    private static boolean isAuthenticated() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated();
+    }
+}
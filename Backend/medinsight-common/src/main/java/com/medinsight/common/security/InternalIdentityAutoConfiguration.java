@@ -0,0 +1,72 @@
+package com.medinsight.common.security;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionOutcome;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.SpringBootCondition;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.web.authentication.BearerTokenAuthenticationFilter;
+import org.springframework.util.StringUtils;
+
+/**
+ * Signer of the gateway identity headers when {@code medinsight.identity.secret}
+ * is set, and the filter that trusts them in servlet services.
+ */
+@AutoConfiguration
+@ConditionalOnClass(Jwt.class)
+@EnableConfigurationProperties(InternalIdentityProperties.class)
+public class InternalIdentityAutoConfiguration {
+
+    @Bean
+    @Conditional(OnSecretCondition.class)
+    public InternalIdentitySigner internalIdentitySigner(InternalIdentityProperties properties) {
+        return new InternalIdentitySigner(properties.getSecret());
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    @ConditionalOnClass(BearerTokenAuthenticationFilter.class)
+    static class ServletConfiguration {
+
+        @Bean
+        public InternalIdentityAuthenticationFilter internalIdentityAuthenticationFilter(
+                ObjectProvider<InternalIdentitySigner> signer) {
+            return new InternalIdentityAuthenticationFilter(signer.getIfAvailable());
+        }
+
+        /**
+         * The filter belongs in the security filter chain only.
+         */
+        @Bean
+        public FilterRegistrationBean<InternalIdentityAuthenticationFilter> internalIdentityFilterRegistration(
+                InternalIdentityAuthenticationFilter filter) {
+            FilterRegistrationBean<InternalIdentityAuthenticationFilter> registration =
+                    new FilterRegistrationBean<>(filter);
+            registration.setEnabled(false);
+            return registration;
+        }
+    }
+
+    /**
+     * Reads the secret from the environment rather than through SpEL, where a
+     * quote would break the expression and its text would end up in the error.
+     */
+    static class OnSecretCondition extends SpringBootCondition {
+
+        @Override
+        public ConditionOutcome getMatchOutcome(ConditionContext context, AnnotatedTypeMetadata metadata) {
+            return StringUtils.hasText(context.getEnvironment().getProperty("medinsight.identity.secret"))
+                    ? ConditionOutcome.match("medinsight.identity.secret is set")
+                    : ConditionOutcome.noMatch("medinsight.identity.secret is not set");
+        }
+    }
+}
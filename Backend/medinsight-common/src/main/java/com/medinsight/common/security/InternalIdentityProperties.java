@@ -0,0 +1,16 @@
+package com.medinsight.common.security;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Signed identity headers between the gateway and the services. Disabled
+ * unless the same {@code secret} is set on both sides.
+ */
+@ConfigurationProperties(prefix = "medinsight.identity")
+@Data
+public class InternalIdentityProperties {
+
+    /** HMAC key shared by the gateway and the services; use at least 32 random bytes. */
+    private String secret;
+}
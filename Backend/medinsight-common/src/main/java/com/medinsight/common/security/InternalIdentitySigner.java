@@ -0,0 +1,47 @@
+package com.medinsight.common.security;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+/**
+ * HMAC-SHA256 signature of the {@link InternalIdentity} headers, with a
+ * secret shared by the gateway and the services.
+ */
+public class InternalIdentitySigner {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final SecretKeySpec key;
+
+    public InternalIdentitySigner(String secret) {
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+    }
+
+    public String sign(InternalIdentity identity, String token) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(mac(identity.signedContent(token)));
+    }
+
+    public boolean verify(InternalIdentity identity, String token, String signature) {
+        byte[] expected;
+        try {
+            expected = Base64.getUrlDecoder().decode(signature);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        return MessageDigest.isEqual(expected, mac(identity.signedContent(token)));
+    }
+
+    private byte[] mac(String content) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(content.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+}
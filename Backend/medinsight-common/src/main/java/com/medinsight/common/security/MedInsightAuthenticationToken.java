@@ -0,0 +1,25 @@
+package com.medinsight.common.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.util.Collection;
+
+/**
+ * JWT authentication that also carries the parsed {@link MedInsightPrincipal}.
+ * The principal stays the {@link Jwt}, so token relay keeps working unchanged.
+ */
+public class MedInsightAuthenticationToken extends JwtAuthenticationToken {
+
+    private final MedInsightPrincipal medInsightPrincipal;
+
+    public MedInsightAuthenticationToken(Jwt jwt, Collection<? extends GrantedAuthority> authorities) {
+        super(jwt, authorities, jwt.getSubject());
+        this.medInsightPrincipal = MedInsightPrincipal.of(jwt, authorities);
+    }
+
+    public MedInsightPrincipal getMedInsightPrincipal() {
+        return medInsightPrincipal;
+    }
+}
@@ -0,0 +1,45 @@
+package com.medinsight.common.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps a Keycloak JWT to Keycloak realm roles ({@code ROLE_*}) plus scope
+ * authorities, and parses the {@link MedInsightPrincipal} once per request.
+ */
+@Slf4j
+public class MedInsightJwtAuthenticationConverter implements Converter<Jwt, AbstractAuthenticationToken> {
+
+    private final JwtGrantedAuthoritiesConverter scopeConverter = new JwtGrantedAuthoritiesConverter();
+
+    @Override
+    public AbstractAuthenticationToken convert(Jwt jwt) {
+        List<GrantedAuthority> authorities = new ArrayList<>(realmRoles(jwt));
+        authorities.addAll(scopeConverter.convert(jwt));
+        log.debug("Authenticated user {} with authorities {}", jwt.getSubject(), authorities);
+        return new MedInsightAuthenticationToken(jwt, authorities);
+    }
+
+    private static List<GrantedAuthority> realmRoles(Jwt jwt) {
+        Map<String, Object> realmAccess = jwt.getClaimAsMap("realm_access");
+        if (realmAccess == null || !(realmAccess.get("roles") instanceof Collection<?> roles)) {
+            return List.of();
+        }
+        List<GrantedAuthority> authorities = new ArrayList<>(roles.size());
+        for (Object role : roles) {
+            String name = role.toString().toUpperCase();
+            authorities.add(new SimpleGrantedAuthority(name.startsWith("ROLE_") ? name : "ROLE_" + name));
+        }
+        return authorities;
+    }
+}
@@ -0,0 +1,90 @@
+package com.medinsight.common.security;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * The authenticated user, parsed once from the JWT: ID, email and realm roles.
+ *
+ * @param id          Keycloak user ID; subjects that are not UUIDs are mapped to a name-based UUID
+ * @param email       email claim, null when the token has none
+ * @param roles       realm roles, for constant-time checks
+ * @param primaryRole first realm role of the token, as recorded in audit logs
+ */
+public record MedInsightPrincipal(UUID id, String email, Set<Role> roles, String primaryRole)
+        implements Serializable {
+
+    public static final String UNKNOWN_ROLE = "UNKNOWN";
+
+    public MedInsightPrincipal {
+        roles = roles.isEmpty() ? Collections.unmodifiableSet(EnumSet.noneOf(Role.class))
+                : Collections.unmodifiableSet(EnumSet.copyOf(roles));
+    }
+
+    public boolean hasRole(Role role) {
+        return roles.contains(role);
+    }
+
+    public boolean hasAnyRole(Role... candidates) {
+        for (Role role : candidates) {
+            if (roles.contains(role)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The principal of an authentication. Tokens built by
+     * {@link MedInsightJwtAuthenticationConverter} carry it already parsed; other
+     * JWT authentications are parsed on the spot.
+     *
+     * @return the principal, or null when the authentication does not hold a JWT
+     */
+    public static MedInsightPrincipal from(Authentication authentication) {
+        if (authentication instanceof MedInsightAuthenticationToken token) {
+            return token.getMedInsightPrincipal();
+        }
+        if (authentication != null && authentication.getPrincipal() instanceof Jwt jwt) {
+            return of(jwt, authentication.getAuthorities());
+        }
+        return null;
+    }
+
+    public static MedInsightPrincipal of(Jwt jwt, Collection<? extends GrantedAuthority> authorities) {
+        String subject = jwt.getSubject();
+        if (subject == null) {
+            return null;
+        }
+        Set<Role> roles = EnumSet.noneOf(Role.class);
+        String primaryRole = null;
+        for (GrantedAuthority authority : authorities) {
+            Role role = Role.fromAuthority(authority.getAuthority());
+            if (role != null) {
+                roles.add(role);
+                if (primaryRole == null) {
+                    primaryRole = role.name();
+                }
+            }
+        }
+        return new MedInsightPrincipal(toUserId(subject), jwt.getClaimAsString("email"), roles,
+                primaryRole != null ? primaryRole : UNKNOWN_ROLE);
+    }
+
+    private static UUID toUserId(String subject) {
+        try {
+            return UUID.fromString(subject);
+        } catch (IllegalArgumentException e) {
+            return UUID.nameUUIDFromBytes(subject.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
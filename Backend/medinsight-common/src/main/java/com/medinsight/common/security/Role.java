@@ -0,0 +1,34 @@
+package com.medinsight.common.security;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Realm roles of the MedInsight Keycloak realm.
+ */
+public enum Role {
+    PATIENT,
+    MEDECIN,
+    ADMIN,
+    GESTIONNAIRE,
+    RESPONSABLE_SECURITE;
+
+    private static final Map<String, Role> BY_AUTHORITY = Arrays.stream(values())
+            .collect(Collectors.toUnmodifiableMap(Role::authority, Function.identity()));
+
+    /**
+     * Spring Security authority of the role, e.g. {@code ROLE_ADMIN}.
+     */
+    public String authority() {
+        return "ROLE_" + name();
+    }
+
+    /**
+     * The role granted by an authority, or null for scopes and roles outside the realm model.
+     */
+    public static Role fromAuthority(String authority) {
+        return BY_AUTHORITY.get(authority);
+    }
+}
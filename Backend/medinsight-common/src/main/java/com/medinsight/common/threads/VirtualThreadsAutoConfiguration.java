@@ -0,0 +1,95 @@
+package com.medinsight.common.threads;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionOutcome;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.SpringBootCondition;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * With {@code medinsight.threads.virtual.enabled=true} on Java 21, Tomcat
+ * handles each request and {@code @Async} runs each task on its own virtual
+ * thread. Blocking on JDBC, Feign, {@code WebClient.block()} or SMTP then
+ * parks the virtual thread instead of holding one of Tomcat's 200 platform
+ * threads; the connection pools become the limit on concurrent calls.
+ */
+@AutoConfiguration(before = TaskExecutionAutoConfiguration.class)
+@ConditionalOnProperty(prefix = "medinsight.threads.virtual", name = "enabled")
+@Conditional(VirtualThreadsAutoConfiguration.OnVirtualThreadsCondition.class)
+@EnableConfigurationProperties(VirtualThreadsProperties.class)
+public class VirtualThreadsAutoConfiguration {
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService virtualThreadExecutor() {
+        return VirtualThreads.newExecutor("virtual-");
+    }
+
+    /**
+     * Replaces Boot's bounded pool for {@code @Async} methods and async MVC requests.
+     */
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    public AsyncTaskExecutor applicationTaskExecutor(ExecutorService virtualThreadExecutor) {
+        return new TaskExecutorAdapter(virtualThreadExecutor);
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "medinsight.threads.virtual", name = "pinning-detection", matchIfMissing = true)
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(VirtualThreadsProperties properties) {
+        return new VirtualThreadPinningMonitor(properties.getPinnedThreshold());
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(ProtocolHandler.class)
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    static class TomcatVirtualThreadsConfiguration {
+
+        @Bean
+        TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadsProtocolHandlerCustomizer(
+                ExecutorService virtualThreadExecutor) {
+            return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(MeterBinder.class)
+    @ConditionalOnProperty(prefix = "medinsight.threads.virtual", name = "pinning-detection", matchIfMissing = true)
+    static class PinningMetricsConfiguration {
+
+        @Bean
+        MeterBinder virtualThreadPinningMetrics(VirtualThreadPinningMonitor virtualThreadPinningMonitor) {
+            return registry -> FunctionCounter.builder("jvm.threads.virtual.pinned", virtualThreadPinningMonitor,
+                            VirtualThreadPinningMonitor::getPinnedCount)
+                    .description("Virtual threads that blocked while pinned to their carrier")
+                    .register(registry);
+        }
+    }
+
+    static class OnVirtualThreadsCondition extends SpringBootCondition {
+
+        @Override
+        public ConditionOutcome getMatchOutcome(ConditionContext context, AnnotatedTypeMetadata metadata) {
+            return VirtualThreads.isSupported()
+                    ? ConditionOutcome.match("Java " + Runtime.version().feature() + " has virtual threads")
+                    : ConditionOutcome.noMatch("Virtual threads need Java 21, running on Java "
+                            + Runtime.version().feature());
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.medinsight.common.threads;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Opt-in execution of servlet requests and {@code @Async} work on virtual
+ * threads. Requires a Java 21 runtime; ignored on older ones.
+ */
+@ConfigurationProperties(prefix = "medinsight.threads.virtual")
+@Data
+public class VirtualThreadsProperties {
+
+    private boolean enabled = false;
+
+    /** Report virtual threads that stay pinned to their carrier, through JFR. */
+    private boolean pinningDetection = true;
+
+    /** Pinned periods shorter than this are not reported. */
+    private Duration pinnedThreshold = Duration.ofMillis(20);
+}
@@ -0,0 +1,91 @@
+package com.medinsight.common.datasource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReplicaRoutingDataSourceTest {
+
+    private final AtomicBoolean replicaAvailable = new AtomicBoolean(true);
+    private DataSource replica;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = database("primary");
+        replica = database("replica");
+        DataSource routing = new LazyConnectionDataSourceProxy(
+                new ReplicaRoutingDataSource(primary, replica, replicaAvailable::get));
+
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routing);
+        jdbcTemplate = new JdbcTemplate(routing);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @Test
+    @DisplayName("Read-only transactions go to the replica, others to the primary")
+    void routesByTransactionReadOnlyFlag() {
+        assertThat(readIn(readOnly)).isEqualTo("replica");
+        assertThat(readIn(readWrite)).isEqualTo("primary");
+        assertThat(whoAnswers()).isEqualTo("primary");
+    }
+
+    @Test
+    @DisplayName("Reads fall back to the primary while the replica is unavailable")
+    void fallsBackToPrimary() {
+        replicaAvailable.set(false);
+
+        assertThat(readIn(readOnly)).isEqualTo("primary");
+    }
+
+    @Test
+    @DisplayName("Lag monitor marks the replica unavailable above the threshold or on error")
+    void lagMonitor() {
+        ReplicaLagMonitor caughtUp = new ReplicaLagMonitor(replica, "SELECT 1", Duration.ofSeconds(5));
+        caughtUp.check();
+        assertThat(caughtUp.isAvailable()).isTrue();
+        assertThat(caughtUp.getLagSeconds()).isEqualTo(1.0);
+
+        ReplicaLagMonitor behind = new ReplicaLagMonitor(replica, "SELECT 30", Duration.ofSeconds(5));
+        behind.check();
+        assertThat(behind.isAvailable()).isFalse();
+
+        ReplicaLagMonitor broken = new ReplicaLagMonitor(replica, "SELECT missing_column", Duration.ofSeconds(5));
+        broken.check();
+        assertThat(broken.isAvailable()).isFalse();
+        assertThat(broken.getLagSeconds()).isNaN();
+    }
+
+    private String readIn(TransactionTemplate transaction) {
+        return transaction.execute(status -> whoAnswers());
+    }
+
+    private String whoAnswers() {
+        return jdbcTemplate.queryForObject("SELECT name FROM marker", String.class);
+    }
+
+    private static DataSource database(String name) {
+        DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE marker (name VARCHAR(20))");
+        jdbc.update("INSERT INTO marker VALUES (?)", name);
+        return dataSource;
+    }
+}
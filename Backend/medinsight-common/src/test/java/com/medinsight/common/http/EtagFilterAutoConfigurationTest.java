@@ -0,0 +1,47 @@
+package com.medinsight.common.http;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EtagFilterAutoConfigurationTest {
+
+    private final EtagFilterAutoConfiguration.StorableEtagHeaderFilter filter =
+            new EtagFilterAutoConfiguration.StorableEtagHeaderFilter();
+
+    @Test
+    @DisplayName("Tagged GET responses are marked storable, so Spring Security leaves them no-store free")
+    void get_IsStorableAndTagged() throws Exception {
+        MockHttpServletResponse response = filter("GET");
+
+        assertThat(response.getHeader(HttpHeaders.CACHE_CONTROL)).isEqualTo("no-cache");
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Other methods keep their headers")
+    void post_IsLeftAlone() throws Exception {
+        assertThat(filter("POST").getHeader(HttpHeaders.CACHE_CONTROL)).isNull();
+    }
+
+    private MockHttpServletResponse filter(String method) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest(method, "/medecins"), response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) throws IOException {
+                response.getWriter().write("[\"Dr House\"]");
+            }
+        }));
+        return response;
+    }
+}
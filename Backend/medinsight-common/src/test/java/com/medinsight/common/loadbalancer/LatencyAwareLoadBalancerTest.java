@@ -0,0 +1,133 @@
+package com.medinsight.common.loadbalancer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LatencyAwareLoadBalancerTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+    private final LoadBalancerProperties properties = new LoadBalancerProperties();
+    private final LoadBalancerStats stats = new LoadBalancerStats(properties, clock::get);
+    private final LatencyAwareLoadBalancer loadBalancer = new LatencyAwareLoadBalancer(null, stats);
+
+    private final ServiceInstance fast = instance("appointment-1");
+    private final ServiceInstance slow = instance("appointment-2");
+
+    @Test
+    @DisplayName("The instance answering faster receives the calls")
+    void select_PrefersLowerLatency() {
+        call(fast, Duration.ofMillis(20), HttpStatus.OK);
+        call(slow, Duration.ofMillis(400), HttpStatus.OK);
+
+        assertThat(picks(List.of(fast, slow)).get(fast)).isEqualTo(100);
+    }
+
+    @Test
+    @DisplayName("Calls in flight offset a lower latency")
+    void select_WeighsCallsInFlight() {
+        call(fast, Duration.ofMillis(20), HttpStatus.OK);
+        call(slow, Duration.ofMillis(30), HttpStatus.OK);
+        for (int i = 0; i < 3; i++) {
+            stats.onStartRequest(request(), new DefaultResponse(fast));
+        }
+
+        assertThat(picks(List.of(fast, slow)).get(slow)).isEqualTo(100);
+    }
+
+    @Test
+    @DisplayName("An instance failing most calls is ejected, then used again after the ejection")
+    void select_SkipsEjectedInstancesUntilTheEjectionEnds() {
+        ServiceInstance third = instance("appointment-3");
+        for (int i = 0; i < properties.getEjection().getMinimumRequests(); i++) {
+            call(slow, Duration.ofMillis(5), HttpStatus.SERVICE_UNAVAILABLE);
+        }
+
+        assertThat(stats.ejectedCount()).isEqualTo(1);
+        assertThat(picks(List.of(fast, slow, third))).doesNotContainKey(slow);
+
+        clock.addAndGet(properties.getEjection().getDuration().toNanos());
+        assertThat(stats.ejectedCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Ejections are ignored when they would leave too few instances")
+    void select_IgnoresEjectionsAboveTheMaximumRatio() {
+        for (int i = 0; i < properties.getEjection().getMinimumRequests(); i++) {
+            call(fast, Duration.ofMillis(5), HttpStatus.INTERNAL_SERVER_ERROR);
+            call(slow, Duration.ofMillis(5), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+
+        assertThat(stats.ejectedCount()).isEqualTo(2);
+        assertThat(loadBalancer.select(List.of(fast, slow))).isIn(fast, slow);
+    }
+
+    @Test
+    @DisplayName("A cancelled call no longer counts as in flight")
+    void cancelled_ReleasesTheInFlightSlot() {
+        stats.onStartRequest(request(), new DefaultResponse(fast));
+
+        stats.cancelled(fast);
+
+        assertThat(stats.statsFor(fast).inFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("Instances that left the registry are forgotten")
+    void select_ForgetsDepartedInstances() {
+        ServiceInstance replacement = instance("appointment-3");
+        call(slow, Duration.ofMillis(400), HttpStatus.OK);
+
+        loadBalancer.select(List.of(fast, replacement));
+
+        assertThat(stats.statsFor(slow).latency(clock.get(), properties.getDecay().toNanos())).isZero();
+    }
+
+    private Map<ServiceInstance, Integer> picks(List<ServiceInstance> instances) {
+        Map<ServiceInstance, Integer> picks = new HashMap<>();
+        for (int i = 0; i < 100; i++) {
+            picks.merge(loadBalancer.select(instances), 1, Integer::sum);
+        }
+        return picks;
+    }
+
+    private void call(ServiceInstance instance, Duration latency, HttpStatus status) {
+        Request<Object> request = request();
+        Response<ServiceInstance> lbResponse = new DefaultResponse(instance);
+        stats.onStartRequest(request, lbResponse);
+        clock.addAndGet(latency.toNanos());
+        ResponseData response = new ResponseData(status, new HttpHeaders(), null, null);
+        stats.onComplete(new CompletionContext<>(CompletionContext.Status.SUCCESS, request, lbResponse, response));
+    }
+
+    private static Request<Object> request() {
+        return new DefaultRequest<>(new RequestDataContext(
+                new RequestData(HttpMethod.GET, URI.create("http://appointment-service/api/appointments/1"),
+                        new HttpHeaders(), new HttpHeaders(), Map.of())));
+    }
+
+    private static ServiceInstance instance(String id) {
+        return new DefaultServiceInstance(id, "appointment-service", id, 8082, false);
+    }
+}
@@ -0,0 +1,114 @@
+package com.medinsight.common.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InternalIdentityAuthenticationFilterTest {
+
+    private final InternalIdentitySigner signer = new InternalIdentitySigner("test-secret-of-at-least-32-bytes!!");
+    private final InternalIdentityAuthenticationFilter filter = new InternalIdentityAuthenticationFilter(signer);
+
+    private final UUID userId = UUID.randomUUID();
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Signed headers authenticate the request with the same authorities as the JWT")
+    void signedHeaders_Authenticate() throws Exception {
+        Jwt jwt = jwt(Instant.now().plusSeconds(300));
+        MockHttpServletRequest request = forwarded(jwt, signer);
+
+        Authentication authentication = filter(request);
+
+        assertThat(authentication).isInstanceOf(MedInsightAuthenticationToken.class);
+        assertThat(((Jwt) authentication.getPrincipal()).getTokenValue()).isEqualTo("token");
+        assertThat(authentication.getAuthorities()).extracting(GrantedAuthority::getAuthority)
+                .containsExactly("ROLE_OFFLINE_ACCESS", "ROLE_PATIENT", "SCOPE_openid", "SCOPE_email");
+        MedInsightPrincipal principal = MedInsightPrincipal.from(authentication);
+        assertThat(principal.id()).isEqualTo(userId);
+        assertThat(principal.email()).isEqualTo("patient@medinsight.tn");
+        assertThat(principal.roles()).containsExactly(Role.PATIENT);
+        assertThat(filter.bearerTokenResolver().resolve(request)).isNull();
+    }
+
+    @Test
+    @DisplayName("Tampered, foreign, replayed or expired headers fall back to bearer authentication")
+    void invalidHeaders_Ignored() throws Exception {
+        MockHttpServletRequest tampered = forwarded(jwt(Instant.now().plusSeconds(300)), signer);
+        tampered.removeHeader(InternalIdentity.ROLES_HEADER);
+        tampered.addHeader(InternalIdentity.ROLES_HEADER, "ADMIN");
+        assertThat(filter(tampered)).isNull();
+        assertThat(filter.bearerTokenResolver().resolve(tampered)).isEqualTo("token");
+
+        MockHttpServletRequest foreign = forwarded(jwt(Instant.now().plusSeconds(300)),
+                new InternalIdentitySigner("another-secret-of-at-least-32-bytes"));
+        assertThat(filter(foreign)).isNull();
+
+        MockHttpServletRequest replayed = forwarded(jwt(Instant.now().plusSeconds(300)), signer);
+        replayed.removeHeader("Authorization");
+        replayed.addHeader("Authorization", "Bearer other-token");
+        assertThat(filter(replayed)).isNull();
+
+        assertThat(filter(forwarded(jwt(Instant.now().minusSeconds(1)), signer))).isNull();
+    }
+
+    @Test
+    @DisplayName("A signed service identity authenticates a call without a bearer token, a user identity does not")
+    void serviceIdentity_AuthenticatesWithoutToken() throws Exception {
+        InternalIdentity service = InternalIdentity.service("appointment-service", Duration.ofSeconds(30));
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/records/internal");
+        service.writeHeaders(request::addHeader, signer.sign(service, InternalIdentity.SERVICE_TOKEN));
+
+        assertThat(filter(request).getAuthorities()).extracting(GrantedAuthority::getAuthority)
+                .containsExactly("ROLE_SERVICE");
+
+        MockHttpServletRequest withoutToken = forwarded(jwt(Instant.now().plusSeconds(300)), signer);
+        withoutToken.removeHeader("Authorization");
+        assertThat(filter(withoutToken)).isNull();
+    }
+
+    private Authentication filter(MockHttpServletRequest request) throws Exception {
+        SecurityContextHolder.clearContext();
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    private static MockHttpServletRequest forwarded(Jwt jwt, InternalIdentitySigner signer) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/appointments");
+        request.addHeader("Authorization", "Bearer " + jwt.getTokenValue());
+        InternalIdentity identity = InternalIdentity.of(jwt);
+        identity.writeHeaders(request::addHeader, signer.sign(identity, jwt.getTokenValue()));
+        return request;
+    }
+
+    private Jwt jwt(Instant expiresAt) {
+        return Jwt.withTokenValue("token")
+                .header("alg", "RS256")
+                .subject(userId.toString())
+                .issuedAt(expiresAt.minusSeconds(600))
+                .expiresAt(expiresAt)
+                .claim("email", "patient@medinsight.tn")
+                .claim("scope", "openid email")
+                .claim("realm_access", Map.of("roles", List.of("offline_access", "patient")))
+                .build();
+    }
+}
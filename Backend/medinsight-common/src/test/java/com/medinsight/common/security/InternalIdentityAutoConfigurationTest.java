@@ -0,0 +1,32 @@
+package com.medinsight.common.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InternalIdentityAutoConfigurationTest {
+
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(InternalIdentityAutoConfiguration.class));
+
+    @Test
+    @DisplayName("No signer without a secret, nor with a blank one")
+    void noSignerWithoutSecret() {
+        runner.run(context -> assertThat(context).doesNotHaveBean(InternalIdentitySigner.class));
+        runner.withPropertyValues("medinsight.identity.secret=   ")
+                .run(context -> assertThat(context).doesNotHaveBean(InternalIdentitySigner.class));
+    }
+
+    @Test
+    @DisplayName("Any secret enables the signer, quotes included")
+    void signerWithSecret() {
+        runner.withPropertyValues("medinsight.identity.secret=it's a secret of at least 32 bytes")
+                .run(context -> {
+                    assertThat(context).hasNotFailed();
+                    assertThat(context).hasSingleBean(InternalIdentitySigner.class);
+                });
+    }
+}
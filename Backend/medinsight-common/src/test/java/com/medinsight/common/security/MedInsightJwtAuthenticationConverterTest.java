@@ -0,0 +1,68 @@
+package com.medinsight.common.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MedInsightJwtAuthenticationConverterTest {
+
+    private final MedInsightJwtAuthenticationConverter converter = new MedInsightJwtAuthenticationConverter();
+
+    @Test
+    @DisplayName("Realm roles and scopes become authorities and the principal is parsed once")
+    void convert_KeycloakToken() {
+        UUID userId = UUID.randomUUID();
+        Jwt jwt = jwt(userId.toString(), List.of("offline_access", "default-roles-medinsight", "medecin", "ADMIN"));
+
+        AbstractAuthenticationToken authentication = converter.convert(jwt);
+
+        assertThat(authentication.getPrincipal()).isSameAs(jwt);
+        assertThat(authentication.getAuthorities()).extracting(GrantedAuthority::getAuthority)
+                .containsExactly("ROLE_OFFLINE_ACCESS", "ROLE_DEFAULT-ROLES-MEDINSIGHT", "ROLE_MEDECIN",
+                        "ROLE_ADMIN", "SCOPE_openid", "SCOPE_email");
+
+        MedInsightPrincipal principal = MedInsightPrincipal.from(authentication);
+        assertThat(principal).isSameAs(((MedInsightAuthenticationToken) authentication).getMedInsightPrincipal());
+        assertThat(principal.id()).isEqualTo(userId);
+        assertThat(principal.email()).isEqualTo("doctor@medinsight.tn");
+        assertThat(principal.roles()).containsExactlyInAnyOrder(Role.MEDECIN, Role.ADMIN);
+        assertThat(principal.primaryRole()).isEqualTo("MEDECIN");
+        assertThat(principal.hasRole(Role.PATIENT)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Other JWT authentications are parsed on demand and non-JWT ones have no principal")
+    void from_OtherAuthentications() {
+        Jwt jwt = jwt("service-account", List.of());
+        MedInsightPrincipal principal = MedInsightPrincipal.from(
+                new JwtAuthenticationToken(jwt, List.of(new SimpleGrantedAuthority("SCOPE_openid"))));
+
+        assertThat(principal.id()).isEqualTo(UUID.nameUUIDFromBytes("service-account".getBytes()));
+        assertThat(principal.roles()).isEmpty();
+        assertThat(principal.primaryRole()).isEqualTo(MedInsightPrincipal.UNKNOWN_ROLE);
+
+        assertThat(MedInsightPrincipal.from(new UsernamePasswordAuthenticationToken("user", "secret"))).isNull();
+        assertThat(MedInsightPrincipal.from(null)).isNull();
+    }
+
+    private static Jwt jwt(String subject, List<String> realmRoles) {
+        return Jwt.withTokenValue("token")
+                .header("alg", "none")
+                .subject(subject)
+                .claim("email", "doctor@medinsight.tn")
+                .claim("scope", "openid email")
+                .claim("realm_access", Map.of("roles", realmRoles))
+                .build();
+    }
+}
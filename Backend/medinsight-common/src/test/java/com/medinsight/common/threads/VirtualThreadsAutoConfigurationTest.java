@@ -0,0 +1,62 @@
+package com.medinsight.common.threads;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.core.task.AsyncTaskExecutor;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class VirtualThreadsAutoConfigurationTest {
+
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(VirtualThreadsAutoConfiguration.class,
+                    TaskExecutionAutoConfiguration.class))
+            .withPropertyValues("medinsight.threads.virtual.pinning-detection=false");
+
+    @Test
+    @DisplayName("Platform threads are kept unless the mode is enabled")
+    void disabledByDefault() {
+        runner.run(context -> {
+            assertThat(context).doesNotHaveBean("virtualThreadExecutor");
+            assertThat(context).hasBean(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME);
+        });
+    }
+
+    @Test
+    @DisplayName("On Java 21, @Async tasks run on virtual threads")
+    void asyncTasksRunOnVirtualThreads() throws Exception {
+        assumeTrue(VirtualThreads.isSupported());
+
+        runner.withPropertyValues("medinsight.threads.virtual.enabled=true").run(context -> {
+            AsyncTaskExecutor executor = context.getBean(
+                    TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME, AsyncTaskExecutor.class);
+            Thread thread = executor.submit(Thread::currentThread).get(5, TimeUnit.SECONDS);
+
+            assertThat(Thread.class.getMethod("isVirtual").invoke(thread)).isEqualTo(true);
+            assertThat(thread.getName()).startsWith("virtual-");
+            assertThat(context).hasSingleBean(ExecutorService.class);
+        });
+    }
+
+    @Test
+    @DisplayName("Before Java 21, enabling the mode leaves platform threads in place")
+    void ignoredBeforeJava21() {
+        assumeFalse(VirtualThreads.isSupported());
+
+        runner.withPropertyValues("medinsight.threads.virtual.enabled=true").run(context -> {
+            assertThat(context).hasNotFailed();
+            assertThat(context).doesNotHaveBean("virtualThreadExecutor");
+        });
+        assertThatThrownBy(() -> VirtualThreads.newExecutor("virtual-"))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -16,6 +16,7 @@ export default function MedecinPatientDossier() {
     const [dossier, setDossier] = useState<any>(null)
     const [patient, setPatient] = useState<any>(null)
     const [loading, setLoading] = useState(true)
+    const [loadingNotes, setLoadingNotes] = useState(false)
 
     useEffect(() => {
         if (id) {
@@ -23,6 +24,35 @@ export default function MedecinPatientDossier() {
         }
     }, [id])
 
+    async function loadMoreNotes() {
+        if (!dossier?.consultationNotesNextCursor) return
+        setLoadingNotes(true)
+        try {
+            const page = await medicalRecordApi.getNotes(id as string, dossier.consultationNotesNextCursor)
+            setDossier({
+                ...dossier,
+                consultationNotes: [...dossier.consultationNotes, ...page.notes],
+                consultationNotesNextCursor: page.nextCursor
+            })
+        } catch (err) {
+            console.error("Failed to fetch consultation notes", err)
+        } finally {
+            setLoadingNotes(false)
+        }
+    }
+
+    async function expandNote(noteId: string) {
+        try {
+            const full = await medicalRecordApi.getNote(noteId)
+            setDossier({
+                ...dossier,
+                consultationNotes: dossier.consultationNotes.map((n: any) => n.id === noteId ? full : n)
+            })
+        } catch (err) {
+            console.error("Failed to fetch consultation note", err)
+        }
+    }
+
     async function fetchDossier() {
         setLoading(true)
         try {
@@ -147,10 +177,27 @@ export default function MedecinPatientDossier() {
                                                     </div>
                                                 </div>
                                                 <p className="text-slate-600 text-sm italic leading-relaxed bg-slate-50 p-4 rounded-xl">
-                                                    "{note.noteContent}"
+                                                    "{note.noteContent}{note.truncated ? "…" : ""}"
                                                 </p>
+                                                {note.truncated && (
+                                                    <button
+                                                        onClick={() => expandNote(note.id)}
+                                                        className="mt-2 text-sm font-medium text-primary hover:underline"
+                                                    >
+                                                        Lire la suite
+                                                    </button>
+                                                )}
                                             </motion.div>
                                         ))}
+                                        {dossier.consultationNotesNextCursor && (
+                                            <button
+                                                onClick={loadMoreNotes}
+                                                disabled={loadingNotes}
+                                                className="w-full py-3 text-sm font-medium text-slate-600 bg-slate-50 rounded-xl hover:bg-slate-100 disabled:opacity-50"
+                                            >
+                                                {loadingNotes ? "Chargement..." : "Charger les notes plus anciennes"}
+                                            </button>
+                                        )}
                                     </div>
                                 )}
                             </div>
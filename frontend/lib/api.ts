@@ -118,6 +118,16 @@ export const appointmentApi = {
         return response.data;
     },
 
+    // Doctor's appointments for one day (yyyy-MM-dd, defaults to today)
+    getDoctorDay: async (doctorId: string, date?: string) => {
+        const response = await api.get<{
+            doctorId: string,
+            date: string,
+            appointments: { id: string, appointmentDateTime: string, status: string, patientId: string, patientName?: string }[]
+        }>(`/appointments/doctor/${doctorId}/day`, { params: { date } });
+        return response.data;
+    },
+
     // Update appointment status/details
     updateAppointment: async (id: string, data: { status?: string, reason?: string, notes?: string, appointmentDateTime?: string }) => {
         const response = await api.put<AppointmentResponse>(`/appointments/${id}`, data);
@@ -222,6 +232,20 @@ export const medicalRecordApi = {
         return response.data;
     },
 
+    // List Consultation Notes (newest first, cursor-paginated; summary returns previews)
+    getNotes: async (patientId: string, cursor?: string, size: number = 20, summary: boolean = true) => {
+        const response = await api.get<any>(`/records/patient/${patientId}/notes`, {
+            params: { cursor, size, summary }
+        });
+        return response.data;
+    },
+
+    // Get full Consultation Note
+    getNote: async (noteId: string) => {
+        const response = await api.get<any>(`/records/notes/${noteId}`);
+        return response.data;
+    },
+
     // Add Consultation Note
     addNote: async (data: { appointmentId: string, patientId: string, noteContent: string }) => {
         const response = await api.post('/records/notes', data);
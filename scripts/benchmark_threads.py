@@ -0,0 +1,111 @@
+"""Throughput of an I/O-heavy endpoint, to compare platform and virtual threads.
+
+Run it once per mode against the same data, e.g. for medical-record-service:
+
+    VIRTUAL_THREADS_ENABLED=false docker compose up -d medical-record-service
+    python scripts/benchmark_threads.py --label platform --user doctor@medinsight.com --password ...
+    VIRTUAL_THREADS_ENABLED=true docker compose up -d medical-record-service
+    python scripts/benchmark_threads.py --label virtual --user doctor@medinsight.com --password ...
+
+Each run appends one line per concurrency level to the CSV file, so both modes
+end up side by side.
+"""
+import argparse
+import asyncio
+import csv
+import os
+import statistics
+import time
+
+import httpx
+
+# Direct service port: the gateway bulkhead would cap concurrency at 100
+BASE_URL = "http://localhost:8084"
+# Dossier: JDBC reads plus a Feign call to appointment-service, all blocking
+DEFAULT_PATH = "/records/patient/{patient_id}/dossier"
+KEYCLOAK_TOKEN_URL = "http://localhost:8180/realms/medinsight/protocol/openid-connect/token"
+CLIENT_ID = "auth-service"
+CLIENT_SECRET = "auth-service-secret"
+
+
+async def get_token(client, username, password):
+    resp = await client.post(KEYCLOAK_TOKEN_URL, data={
+        "grant_type": "password",
+        "client_id": CLIENT_ID,
+        "client_secret": CLIENT_SECRET,
+        "username": username,
+        "password": password,
+    })
+    resp.raise_for_status()
+    return f"Bearer {resp.json()['access_token']}"
+
+
+async def worker(client, url, headers, deadline, latencies, errors):
+    while time.perf_counter() < deadline:
+        start = time.perf_counter()
+        try:
+            resp = await client.get(url, headers=headers)
+            if resp.status_code >= 400:
+                errors.append(resp.status_code)
+                continue
+        except httpx.HTTPError as e:
+            errors.append(type(e).__name__)
+            continue
+        latencies.append(time.perf_counter() - start)
+
+
+async def run_level(url, headers, concurrency, duration):
+    limits = httpx.Limits(max_connections=concurrency, max_keepalive_connections=concurrency)
+    async with httpx.AsyncClient(timeout=60.0, limits=limits) as client:
+        latencies, errors = [], []
+        deadline = time.perf_counter() + duration
+        await asyncio.gather(*(worker(client, url, headers, deadline, latencies, errors)
+                               for _ in range(concurrency)))
+    ordered = sorted(latencies) or [0.0]
+    centiles = statistics.quantiles(ordered, n=100) if len(ordered) > 1 else ordered * 99
+    return {
+        "concurrency": concurrency,
+        "requests": len(latencies),
+        "errors": len(errors),
+        "rps": round(len(latencies) / duration, 1),
+        "p50_ms": round(centiles[49] * 1000, 1),
+        "p95_ms": round(centiles[94] * 1000, 1),
+        "p99_ms": round(centiles[98] * 1000, 1),
+    }
+
+
+async def main():
+    parser = argparse.ArgumentParser(description=__doc__, formatter_class=argparse.RawDescriptionHelpFormatter)
+    parser.add_argument("--label", required=True, help="Mode being measured, e.g. platform or virtual")
+    parser.add_argument("--base-url", default=BASE_URL)
+    parser.add_argument("--path", default=DEFAULT_PATH)
+    parser.add_argument("--patient-id", default="1")
+    parser.add_argument("--user", default=os.getenv("BENCH_USER"))
+    parser.add_argument("--password", default=os.getenv("BENCH_PASSWORD"))
+    parser.add_argument("--concurrency", default="50,200,800",
+                        help="Comma-separated numbers of concurrent clients")
+    parser.add_argument("--duration", type=float, default=30.0, help="Seconds per concurrency level")
+    parser.add_argument("--warmup", type=float, default=10.0, help="Seconds of load before measuring")
+    parser.add_argument("--output", default="benchmark-threads.csv")
+    args = parser.parse_args()
+
+    async with httpx.AsyncClient(timeout=30.0) as client:
+        headers = {"Authorization": await get_token(client, args.user, args.password)} if args.user else {}
+    url = args.base_url + args.path.format(patient_id=args.patient_id)
+    levels = [int(level) for level in args.concurrency.split(",")]
+
+    await run_level(url, headers, levels[0], args.warmup)
+    write_header = not os.path.exists(args.output)
+    with open(args.output, "a", newline="") as out:
+        writer = csv.DictWriter(out, fieldnames=["label", "concurrency", "requests", "errors", "rps",
+                                                 "p50_ms", "p95_ms", "p99_ms"])
+        if write_header:
+            writer.writeheader()
+        for level in levels:
+            result = {"label": args.label, **await run_level(url, headers, level, args.duration)}
+            print(result)
+            writer.writerow(result)
+
+
+if __name__ == "__main__":
+    asyncio.run(main())